@@ -0,0 +1,954 @@
+// =============================================================================
+// IMPORTS
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.zip.Checksum;
+// =============================================================================
+
+
+
+// =============================================================================
+/**
+ * A data link layer that recovers from errors by retransmission.  Frames are
+ * delimited by start and stop tags, as in the CRC layer, and carry a type, a
+ * sequence number, and a CRC-32; a damaged frame is simply dropped, and the
+ * parser picks up again at the next start tag.  The receiver answers data
+ * frames with acknowledgments (ACKs), and asks for a missing frame with a
+ * negative acknowledgment (NAK), over the same medium.  The sender keeps up to
+ * a window's worth of frames unacknowledged, and sends a frame again if no
+ * acknowledgment comes back before its timer expires.  Subclasses choose how
+ * much is resent: everything after a lost frame (go-back-N), or just the lost
+ * frame (selective repeat).
+ *
+ * The media carry bits instantly, so the layer keeps time on its own clock,
+ * in bit times: sending a frame advances it by the frame's length, and an
+ * acknowledgment takes effect only once it could have crossed a link of the
+ * configured delay and back.  When the window is full, the clock jumps to the
+ * next acknowledgment or timer.  Goodput is then the payload acknowledged
+ * per bit time, which shows how the window size should be tuned against the
+ * link's delay.  Because of this clock, the layer needs a synchronous medium,
+ * and a link with exactly one host at each end.
+ *
+ * The sender may also size its frames to suit the link.  Large frames spread
+ * the tags, header, and CRC over more payload, but are more likely to be
+ * damaged and must then be sent again whole.  When adaptive, the sender grows
+ * its frames by half of that per-frame overhead for each frame acknowledged
+ * on its first attempt, and halves them whenever a frame must be sent again
+ * (additive increase, multiplicative decrease).  The size then settles where
+ * the overhead saved by a larger frame balances the added risk of losing it,
+ * which is close to the size that maximizes goodput, and follows the error
+ * rate as it changes.
+ *
+ * @file   ARQDataLinkLayer.java
+ * @date   October 2026
+ */
+public abstract class ARQDataLinkLayer extends DataLinkLayer {
+// =============================================================================
+
+
+
+    // =========================================================================
+    // PUBLIC METHODS
+    // =========================================================================
+
+
+
+    // =========================================================================
+    /**
+     * The constructor.
+     *
+     * @param selective Whether only lost frames are sent again, rather than
+     *                  every frame from the first lost one on.
+     */
+    protected ARQDataLinkLayer (boolean selective) {
+
+	this.selective = selective;
+	setWindowSize(DEFAULT_WINDOW_SIZE);
+
+    } // ARQDataLinkLayer ()
+    // =========================================================================
+
+
+
+    // =========================================================================
+    /**
+     * Send a sequence of bytes, keeping up to a window's worth of frames
+     * unacknowledged, and return once every frame has been acknowledged.
+     *
+     * @param  data The sequence of bytes to send.
+     * @throws RuntimeException     if the medium is asynchronous.
+     * @throws LinkFailureException if a frame goes unacknowledged after many
+     *                              attempts.
+     */
+    public void send (byte[] data) {
+
+	requireSynchronous();
+
+	for (int start = 0; start < data.length; ) {
+
+	    // Wait for room in the window.
+	    while (next - base >= windowSize) {
+		awaitEvent();
+	    }
+
+	    int    length  = Math.min(getFrameSize(), data.length - start);
+	    byte[] payload = Arrays.copyOfRange(data, start, start + length);
+	    start         += length;
+
+	    long began = System.nanoTime();
+	    int  slot  = slot(next);
+	    outstanding[slot]    = createFrame(payload);
+	    payloadLengths[slot] = length;
+	    attempts[slot]       = 0;
+	    next                += 1;
+	    transmitFrame(next - 1);
+	    metrics().framesSent.increment();
+	    metrics().frameLatency.record(System.nanoTime() - began);
+
+	    service();
+
+	}
+
+	// Wait for the last frames to be acknowledged.
+	while (base < next) {
+	    awaitEvent();
+	}
+
+    } // send ()
+    // =========================================================================
+
+
+
+    // =========================================================================
+    /**
+     * Set the number of frames that may be sent before the first of them is
+     * acknowledged.  To keep the link busy, the window should cover the time
+     * to send a frame and get its acknowledgment back.  Both ends must use
+     * the same window size.
+     *
+     * @param  windowSize The number of frames.
+     * @throws RuntimeException if the size is out of range, or if frames are
+     *                          outstanding.
+     */
+    public void setWindowSize (int windowSize) {
+
+	if ((windowSize < 1) || (windowSize > MAX_WINDOW_SIZE)) {
+	    throw new RuntimeException("Invalid window size " + windowSize);
+	}
+	if (base != next) {
+	    throw new RuntimeException("Window resized while frames are outstanding");
+	}
+
+	this.windowSize = windowSize;
+	outstanding     = new byte[windowSize][];
+	payloadLengths  = new int[windowSize];
+	deadlines       = new long[windowSize];
+	acknowledged    = new boolean[windowSize];
+	attempts        = new int[windowSize];
+	buffered        = new byte[windowSize][];
+
+    } // setWindowSize ()
+    // =========================================================================
+
+
+
+    // =========================================================================
+    /**
+     * @return the number of frames that may be outstanding.
+     */
+    public int getWindowSize () {
+
+	return windowSize;
+
+    } // getWindowSize ()
+    // =========================================================================
+
+
+
+    // =========================================================================
+    /**
+     * Choose whether the sender adapts the size of its frames to the errors
+     * it sees, between the minimum frame size and the maximum, which bounds
+     * how far frames grow on a clean link; raise it with
+     * <code>setMaxFrameSize()</code> to let them grow further.  Adapting
+     * starts from the minimum, since a frame already sent is always sent
+     * again whole, however large it has turned out to be.  Only the sender
+     * need adapt.
+     *
+     * @param adaptive Whether to adapt the frame size.
+     */
+    public void setAdaptive (boolean adaptive) {
+
+	this.adaptive  = adaptive;
+	frameSize      = minFrameSize;
+	recoveryPoint  = next;
+
+    } // setAdaptive ()
+    // =========================================================================
+
+
+
+    // =========================================================================
+    /**
+     * @return whether the sender adapts the size of its frames.
+     */
+    public boolean isAdaptive () {
+
+	return adaptive;
+
+    } // isAdaptive ()
+    // =========================================================================
+
+
+
+    // =========================================================================
+    /**
+     * Set the smallest payload per frame to which an adaptive sender shrinks
+     * its frames.
+     *
+     * @param  minFrameSize The minimum payload per frame, in bytes.
+     * @throws RuntimeException if the size is less than 1.
+     */
+    public void setMinFrameSize (int minFrameSize) {
+
+	if (minFrameSize < 1) {
+	    throw new RuntimeException("Invalid minimum frame size " +
+				       minFrameSize);
+	}
+	this.minFrameSize = minFrameSize;
+
+    } // setMinFrameSize ()
+    // =========================================================================
+
+
+
+    // =========================================================================
+    /**
+     * @return the payload that the next frame will carry at most, in bytes:
+     *         the maximum frame size, unless the sender is adaptive.
+     */
+    public int getFrameSize () {
+
+	if (!adaptive) {
+	    return maxFrameSize;
+	}
+	return Math.min(maxFrameSize, Math.max(minFrameSize, frameSize));
+
+    } // getFrameSize ()
+    // =========================================================================
+
+
+
+    // =========================================================================
+    /**
+     * Set how long to wait for a frame's acknowledgment before sending it
+     * again.
+     *
+     * @param  timeout The wait, in bit times from the end of the frame, or
+     *                 <code>0</code> to wait for the round trip plus the
+     *                 time to send two frames of the size now in use.
+     * @throws RuntimeException if the timeout is negative.
+     */
+    public void setTimeout (long timeout) {
+
+	if (timeout < 0) {
+	    throw new RuntimeException("Invalid timeout " + timeout);
+	}
+	this.timeout = timeout;
+
+    } // setTimeout ()
+    // =========================================================================
+
+
+
+    // =========================================================================
+    /**
+     * Set the time a bit takes to cross the link, one way.
+     *
+     * @param  delay The delay, in bit times.
+     * @throws RuntimeException if the delay is negative.
+     */
+    public void setLinkDelay (long delay) {
+
+	if (delay < 0) {
+	    throw new RuntimeException("Invalid link delay " + delay);
+	}
+	this.linkDelay = delay;
+
+    } // setLinkDelay ()
+    // =========================================================================
+
+
+
+    // =========================================================================
+    /**
+     * @return the time that has passed on this layer's clock, in bit times.
+     */
+    public long getClock () {
+
+	return clock;
+
+    } // getClock ()
+    // =========================================================================
+
+
+
+    // =========================================================================
+    /**
+     * @return the payload bits acknowledged per bit time that has passed, from
+     *         0 (nothing got through) to 1 (the link never idled and carried
+     *         nothing but payload).
+     */
+    public double getGoodput () {
+
+	return (clock == 0) ? 0.0 :
+	    (double)bytesAcknowledged * BITS_PER_BYTE / clock;
+
+    } // getGoodput ()
+    // =========================================================================
+
+
+
+    // =========================================================================
+    /**
+     * Frame a payload as the data frame with the next sequence number.
+     *
+     * @param  data The raw sequence of bytes to be framed.
+     * @return A complete frame.
+     */
+    protected byte[] createFrame (byte[] data) {
+
+	return frame(DATA, next, data, sendChecksum);
+
+    } // createFrame ()
+    // =========================================================================
+
+
+
+    // =========================================================================
+    /**
+     * Feed the newly received bytes to the frame parser, and act on each
+     * frame that they complete and that passes its CRC.  Data frames are
+     * acknowledged and delivered in order to the client from here, so nothing
+     * is ever returned.
+     *
+     * @return <code>null</code>.
+     */
+    protected byte[] processFrame () {
+
+	if (framing == COBS_FRAMING) {
+	    int length = unstuffFrame();
+	    if (length == BAD_FRAME) {
+		reportError("ERROR - Frame Stuffing Malformed.");
+	    } else if (length != NO_FRAME) {
+		receiveFrame(stuffedFrame, length);
+	    }
+	    return null;
+	}
+
+	while (!byteBuffer.isEmpty()) {
+
+	    int result = parser.accept(byteBuffer.remove());
+	    if (result == FrameParser.RESTARTED) {
+		reportError("ERROR - No Stop Tag Found.");
+	    } else if (result == FrameParser.COMPLETE) {
+		receiveFrame(parser.frame(), parser.length());
+	    }
+
+	}
+
+	return null;
+
+    } // processFrame ()
+    // =========================================================================
+
+
+
+    // =========================================================================
+    // PRIVATE METHODS
+    // =========================================================================
+
+
+
+    // =========================================================================
+    // Act on a complete frame: its type, sequence number, payload, and CRC.
+    private void receiveFrame (byte[] frame, int length) {
+
+	int payloadEnd = length - CHECK.checkBytes();
+	if ((payloadEnd < HEADER_BYTES) || !verifyCRC(frame, payloadEnd)) {
+	    reportError("ERROR - Frame Failed CRC Test.");
+	    return;
+	}
+
+	int type     = frame[0];
+	int sequence = ((frame[1] & 0xff) << BITS_PER_BYTE) | (frame[2] & 0xff);
+	if (type == DATA) {
+	    receiveData(sequence,
+			Arrays.copyOfRange(frame, HEADER_BYTES, payloadEnd));
+	} else if ((type == ACK) || (type == NAK)) {
+	    // The acknowledgment was sent once the data frame arrived, and
+	    // takes effect once it has been sent and has crossed the link; the
+	    // data frame's own crossing makes up the rest of the round trip.
+	    long arrival = clock + (long)(length + TAG_BYTES) * BITS_PER_BYTE +
+		2 * linkDelay;
+	    feedback.add(new Feedback(arrival, type, sequence));
+	} else {
+	    reportError("ERROR - Unknown Frame Type.");
+	}
+
+    } // receiveFrame ()
+    // =========================================================================
+
+
+
+    // =========================================================================
+    // Act on a data frame: deliver it if it is next in order, buffer it if
+    // this is selective repeat and it falls in the window, and acknowledge it.
+    private void receiveData (int sequence, byte[] payload) {
+
+	long number = unwrap(sequence, expected);
+
+	if (!selective) {
+
+	    // Go-back-N accepts only the expected frame; the acknowledgment
+	    // names the frame expected next.
+	    if (number == expected) {
+		deliver(payload);
+		expected += 1;
+		nakSent   = false;
+		sendControl(ACK, expected);
+	    } else if (number > expected) {
+		if (!nakSent) {
+		    sendControl(NAK, expected);
+		    nakSent = true;
+		}
+	    } else {
+		// A duplicate means the acknowledgment was lost.
+		sendControl(ACK, expected);
+	    }
+	    return;
+
+	}
+
+	// Selective repeat acknowledges each frame by its own number.
+	if ((number >= expected) && (number < expected + windowSize)) {
+
+	    sendControl(ACK, number);
+	    int slot = slot(number);
+	    if (buffered[slot] == null) {
+		buffered[slot] = payload;
+	    }
+	    if ((number > expected) && !nakSent) {
+		sendControl(NAK, expected);
+		nakSent = true;
+	    }
+	    while (buffered[slot(expected)] != null) {
+		deliver(buffered[slot(expected)]);
+		buffered[slot(expected)] = null;
+		expected += 1;
+		nakSent   = false;
+	    }
+
+	} else if ((number < expected) && (number >= expected - windowSize)) {
+	    sendControl(ACK, number);
+	}
+
+    } // receiveData ()
+    // =========================================================================
+
+
+
+    // =========================================================================
+    // Pass a payload up to the client.
+    private void deliver (byte[] payload) {
+
+	metrics().framesAccepted.increment();
+	client.receive(payload);
+
+    } // deliver ()
+    // =========================================================================
+
+
+
+    // =========================================================================
+    // Send an ACK or a NAK.
+    private void sendControl (int type, long sequence) {
+
+	requireSynchronous();
+	byte[] frame = frame(type, sequence, EMPTY, receiveChecksum);
+	transmit(frame, 0, frame.length);
+
+    } // sendControl ()
+    // =========================================================================
+
+
+
+    // =========================================================================
+    // Refuse to run over an asynchronous medium, on either side of the link.
+    // The layer keeps its own clock and counts on each frame, and each
+    // acknowledgment, having arrived by the time transmit() returns; and the
+    // medium, once its queues drain, would count a link idle while a
+    // receiver was still queueing an acknowledgment.
+    private void requireSynchronous () {
+
+	if (physicalLayer.outbound != null) {
+	    throw new RuntimeException("ARQ requires a synchronous medium");
+	}
+
+    } // requireSynchronous ()
+    // =========================================================================
+
+
+
+    // =========================================================================
+    // Send an outstanding frame, advancing the clock past it and setting its
+    // timer.
+    private void transmitFrame (long sequence) {
+
+	int    slot  = slot(sequence);
+	byte[] frame = outstanding[slot];
+	clock          += (long)frame.length * BITS_PER_BYTE;
+	deadlines[slot] = clock + timeout();
+	attempts[slot] += 1;
+	transmit(frame, 0, frame.length);
+
+    } // transmitFrame ()
+    // =========================================================================
+
+
+
+    // =========================================================================
+    // Send an outstanding frame again, giving up if it has been sent too many
+    // times already.
+    private void retransmit (long sequence) {
+
+	if (attempts[slot(sequence)] >= MAX_ATTEMPTS) {
+	    throw new LinkFailureException("Frame " + sequence +
+					   " unacknowledged after " +
+					   MAX_ATTEMPTS + " attempts");
+	}
+	metrics().framesResent.increment();
+	if (adaptive) {
+	    shrink(sequence);
+	}
+	transmitFrame(sequence);
+
+    } // retransmit ()
+    // =========================================================================
+
+
+
+    // =========================================================================
+    // Act on the acknowledgments that have arrived by now, and then send again
+    // any frame whose timer has expired.
+    private void service () {
+
+	while (!feedback.isEmpty() && (feedback.peek().time <= clock)) {
+	    acknowledge(feedback.poll());
+	}
+
+	if (selective) {
+	    for (long sequence = base; sequence < next; sequence += 1) {
+		int slot = slot(sequence);
+		if (!acknowledged[slot] && (deadlines[slot] <= clock)) {
+		    retransmit(sequence);
+		}
+	    }
+	} else if ((base < next) && (deadlines[slot(base)] <= clock)) {
+	    for (long sequence = base; sequence < next; sequence += 1) {
+		retransmit(sequence);
+	    }
+	}
+
+    } // service ()
+    // =========================================================================
+
+
+
+    // =========================================================================
+    // Advance the clock to the next acknowledgment or timer, whichever comes
+    // first, and act on it.  Some frame must be outstanding.
+    private void awaitEvent () {
+
+	long event = feedback.isEmpty() ? Long.MAX_VALUE : feedback.peek().time;
+	if (selective) {
+	    for (long sequence = base; sequence < next; sequence += 1) {
+		int slot = slot(sequence);
+		if (!acknowledged[slot]) {
+		    event = Math.min(event, deadlines[slot]);
+		}
+	    }
+	} else {
+	    event = Math.min(event, deadlines[slot(base)]);
+	}
+
+	clock = Math.max(clock, event);
+	service();
+
+    } // awaitEvent ()
+    // =========================================================================
+
+
+
+    // =========================================================================
+    // Act on an ACK or a NAK.  Either way, every frame before the one named
+    // by a NAK, or by a go-back-N ACK, has arrived.
+    private void acknowledge (Feedback received) {
+
+	long number = unwrap(received.sequence, base);
+
+	if (received.type == NAK) {
+	    if ((number >= base) && (number < next)) {
+		release(number);
+		if (selective) {
+		    retransmit(number);
+		} else {
+		    for (long sequence = number; sequence < next; sequence += 1) {
+			retransmit(sequence);
+		    }
+		}
+	    }
+	} else if (!selective) {
+	    if ((number > base) && (number <= next)) {
+		release(number);
+	    }
+	} else if ((number >= base) && (number < next)) {
+	    acknowledged[slot(number)] = true;
+	    long end = base;
+	    while ((end < next) && acknowledged[slot(end)]) {
+		end += 1;
+	    }
+	    release(end);
+	}
+
+    } // acknowledge ()
+    // =========================================================================
+
+
+
+    // =========================================================================
+    // Halve the frame size because a frame was lost, unless it was sent
+    // before the last time the size was halved: one loss can bring down the
+    // frames sent alongside it, and they are no news.
+    private void shrink (long sequence) {
+
+	if (sequence >= recoveryPoint) {
+	    frameSize     = Math.max(minFrameSize, getFrameSize() / 2);
+	    recoveryPoint = next;
+	}
+
+    } // shrink ()
+    // =========================================================================
+
+
+
+    // =========================================================================
+    // Slide the window past every frame before the given one, growing the
+    // frame size for each that got through on its first attempt.
+    private void release (long end) {
+
+	while (base < end) {
+	    int slot = slot(base);
+	    if (adaptive && (attempts[slot] == 1)) {
+		frameSize = Math.min(maxFrameSize,
+				     getFrameSize() + FRAME_SIZE_INCREASE);
+	    }
+	    bytesAcknowledged   += payloadLengths[slot];
+	    outstanding[slot]    = null;
+	    acknowledged[slot]   = false;
+	    base                += 1;
+	}
+
+    } // release ()
+    // =========================================================================
+
+
+
+    // =========================================================================
+    // The time to wait for an acknowledgment.
+    private long timeout () {
+
+	if (timeout > 0) {
+	    return timeout;
+	}
+	long frameBits = (long)(TAG_BYTES + HEADER_BYTES + getFrameSize() +
+				CHECK.checkBytes()) * BITS_PER_BYTE;
+	return 2 * linkDelay + 2 * frameBits;
+
+    } // timeout ()
+    // =========================================================================
+
+
+
+    // =========================================================================
+    // Build a frame: the start tag, the type, sequence number, data, and CRC,
+    // escaped as needed, and the stop tag; or the same contents, stuffed.
+    private byte[] frame (int type, long sequence, byte[] data,
+			  Checksum checksum) {
+
+	byte[] header = { (byte)type,
+			  (byte)(sequence >>> BITS_PER_BYTE),
+			  (byte)sequence };
+	checksum.reset();
+	checksum.update(header, 0, header.length);
+	checksum.update(data, 0, data.length);
+	long remainder = checksum.getValue();
+
+	// With byte stuffing, the contents are stuffed as a whole.
+	if (framing == COBS_FRAMING) {
+	    int    checkBytes = CHECK.checkBytes();
+	    byte[] contents   = new byte[header.length + data.length + checkBytes];
+	    System.arraycopy(header, 0, contents, 0, header.length);
+	    System.arraycopy(data, 0, contents, header.length, data.length);
+	    for (int k = 0; k < checkBytes; k += 1) {
+		contents[contents.length - checkBytes + k] =
+		    (byte)(remainder >>> ((checkBytes - 1 - k) * BITS_PER_BYTE));
+	    }
+	    return stuffFrame(contents, contents.length);
+	}
+
+	// Every byte might need escaping.
+	byte[] framedData = new byte[TAG_BYTES +
+				     2 * (header.length + data.length +
+					  CHECK.checkBytes())];
+	int    j          = 0;
+	framedData[j++] = START_TAG;
+	for (int i = 0; i < header.length; i += 1) {
+	    j = addEscaped(framedData, j, header[i]);
+	}
+	for (int i = 0; i < data.length; i += 1) {
+	    j = addEscaped(framedData, j, data[i]);
+	}
+	for (int k = CHECK.checkBytes() - 1; k >= 0; k -= 1) {
+	    j = addEscaped(framedData, j,
+			   (byte)(remainder >>> (k * BITS_PER_BYTE)));
+	}
+	framedData[j++] = STOP_TAG;
+
+	return Arrays.copyOf(framedData, j);
+
+    } // frame ()
+    // =========================================================================
+
+
+
+    // =========================================================================
+    // Write a byte into a frame, preceded by an escape tag if it is itself a
+    // tag.
+    private int addEscaped (byte[] frame, int j, byte value) {
+
+	if ((value == START_TAG) || (value == STOP_TAG) || (value == ESCAPE_TAG)) {
+	    frame[j++] = ESCAPE_TAG;
+	    metrics().escapesInserted.increment();
+	}
+	frame[j++] = value;
+	return j;
+
+    } // addEscaped ()
+    // =========================================================================
+
+
+
+    // =========================================================================
+    // Verify a frame's header and data against the CRC that follows them.
+    private boolean verifyCRC (byte[] frame, int length) {
+
+	long received = 0;
+	for (int k = 0; k < CHECK.checkBytes(); k += 1) {
+	    received = (received << BITS_PER_BYTE) | (frame[length + k] & 0xff);
+	}
+
+	receiveChecksum.reset();
+	receiveChecksum.update(frame, 0, length);
+	return receiveChecksum.getValue() == received;
+
+    } // verifyCRC ()
+    // =========================================================================
+
+
+
+    // =========================================================================
+    // Recover a full frame number from its 16-bit sequence number, as the
+    // number nearest to a reference point.  Windows are at most a quarter of
+    // the sequence space, so every number either end may see lies well
+    // within half the space of the reference, and the nearest number is the
+    // right one.
+    private static long unwrap (int sequence, long reference) {
+
+	return reference + (short)(sequence - (int)reference);
+
+    } // unwrap ()
+    // =========================================================================
+
+
+
+    // =========================================================================
+    // The index in the window arrays of a frame number.
+    private int slot (long sequence) {
+
+	return (int)(sequence % windowSize);
+
+    } // slot ()
+    // =========================================================================
+
+
+
+    // =========================================================================
+    /**
+     * An ACK or a NAK, and when it takes effect.
+     */
+    private static class Feedback {
+
+	Feedback (long time, int type, int sequence) {
+	    this.time     = time;
+	    this.type     = type;
+	    this.sequence = sequence;
+	}
+
+	/** When the acknowledgment takes effect, on the sender's clock. */
+	final long time;
+
+	/** Either <code>ACK</code> or <code>NAK</code>. */
+	final int  type;
+
+	/** The 16-bit sequence number named. */
+	final int  sequence;
+
+    } // class Feedback
+    // =========================================================================
+
+
+
+    // =========================================================================
+    // DATA MEMBERS
+
+    /** Whether only lost frames are sent again. */
+    private final boolean selective;
+
+    /** The number of frames that may be outstanding. */
+    private int       windowSize;
+
+    /** Whether the sender adapts the size of its frames. */
+    private boolean   adaptive;
+
+    /** The payload per frame an adaptive sender currently sends, in bytes. */
+    private int       frameSize;
+
+    /** The smallest payload per frame an adaptive sender sends, in bytes. */
+    private int       minFrameSize = DEFAULT_MIN_FRAME_SIZE;
+
+    /** The number of the first frame sent since the frame size was last
+     *  halved. */
+    private long      recoveryPoint;
+
+    /** The time to wait for an acknowledgment, in bit times, or
+     *  <code>0</code> to derive it from the delay and frame size. */
+    private long      timeout;
+
+    /** The time a bit takes to cross the link, in bit times. */
+    private long      linkDelay;
+
+    /** The time on this layer's clock, in bit times. */
+    private long      clock;
+
+    /** The number of the oldest unacknowledged frame. */
+    private long      base;
+
+    /** The number of the next frame to send. */
+    private long      next;
+
+    /** The payload bytes of every frame acknowledged so far. */
+    private long      bytesAcknowledged;
+
+    /** The outstanding frames, by slot, as sent. */
+    private byte[][]  outstanding;
+
+    /** The payload length of each outstanding frame, by slot. */
+    private int[]     payloadLengths;
+
+    /** When each outstanding frame's timer expires, by slot. */
+    private long[]    deadlines;
+
+    /** Whether each outstanding frame has been acknowledged, by slot; used
+     *  only by selective repeat. */
+    private boolean[] acknowledged;
+
+    /** The number of times each outstanding frame has been sent, by slot. */
+    private int[]     attempts;
+
+    /** Acknowledgments received, in order of arrival. */
+    private final ArrayDeque<Feedback> feedback = new ArrayDeque<Feedback>();
+
+    /** The number of the next frame to deliver to the client. */
+    private long      expected;
+
+    /** Whether a NAK has been sent for the expected frame. */
+    private boolean   nakSent;
+
+    /** Frames received ahead of the expected one, by slot; used only by
+     *  selective repeat. */
+    private byte[][]  buffered;
+
+    /** The checksum for frames built while sending. */
+    private final Checksum    sendChecksum    = CHECK.newChecksum();
+
+    /** The checksum for frames received, and acknowledgments built in
+     *  response. */
+    private final Checksum    receiveChecksum = CHECK.newChecksum();
+
+    /** The parser that finds frames among the received bytes. */
+    private final FrameParser parser          =
+	new FrameParser(START_TAG, STOP_TAG, ESCAPE_TAG, false);
+
+    /** The CRC that protects each frame. */
+    private static final CRCSpecification CHECK = CRCSpecification.CRC32;
+
+    /** The start tag, stop tag, and the escape tag. */
+    private static final byte START_TAG  = (byte)'{';
+    private static final byte STOP_TAG   = (byte)'}';
+    private static final byte ESCAPE_TAG = (byte)'\\';
+
+    /** The number of tag bytes around each frame. */
+    private static final int  TAG_BYTES  = 2;
+
+    /** The number of bytes in a frame's type and sequence number. */
+    private static final int  HEADER_BYTES = 3;
+
+    /** Frame type: a payload. */
+    private static final int  DATA = 0;
+
+    /** Frame type: an acknowledgment. */
+    private static final int  ACK  = 1;
+
+    /** Frame type: a request to send a frame again. */
+    private static final int  NAK  = 2;
+
+    /** The window size if none is set. */
+    public static final int   DEFAULT_WINDOW_SIZE = 8;
+
+    /** The largest window that 16-bit sequence numbers allow: a window
+     *  either side of a reference must stay clear of the point half the
+     *  sequence space away, where the nearest number is ambiguous. */
+    public static final int   MAX_WINDOW_SIZE     = 1 << 14;
+
+    /** The minimum frame size if none is set. */
+    public static final int   DEFAULT_MIN_FRAME_SIZE = 8;
+
+    /** The bytes by which an adaptive sender grows its frames for each sent
+     *  cleanly: half the bytes that every frame adds to its payload. */
+    private static final int  FRAME_SIZE_INCREASE =
+	(TAG_BYTES + HEADER_BYTES + CHECK.checkBytes()) / 2;
+
+    /** The number of times a frame is sent before giving up on the link. */
+    private static final int  MAX_ATTEMPTS        = 100;
+
+    /** The payload of an ACK or a NAK. */
+    private static final byte[] EMPTY = new byte[0];
+    // =========================================================================
+
+
+
+// =============================================================================
+} // class ARQDataLinkLayer
+// =============================================================================
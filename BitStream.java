@@ -0,0 +1,406 @@
+// =============================================================================
+// IMPORTS
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteOrder;
+import java.util.Arrays;
+// =============================================================================
+
+
+
+// =============================================================================
+/**
+ * A sequence of bits packed into words, so that a whole frame can move
+ * through the stack as a few words rather than as one bit or byte at a time.
+ * The bits are kept in order from the most significant bit of the first
+ * word, exactly as they are sent; a byte appended at a byte boundary thus
+ * lands whole in one word, and eight bytes at a word boundary fill it.
+ *
+ * Like the words of bits passed between the layers, any run of up to 64 bits
+ * can be appended or read as a right-aligned <code>long</code>, the most
+ * significant of them first.
+ *
+ * @file   BitStream.java
+ * @date   October 2026
+ */
+public class BitStream {
+// =============================================================================
+
+
+
+    // =========================================================================
+    // PUBLIC METHODS
+    // =========================================================================
+
+
+
+    // =========================================================================
+    /**
+     * The default constructor: an empty stream.
+     */
+    public BitStream () {
+
+	this(Long.SIZE);
+
+    } // BitStream ()
+    // =========================================================================
+
+
+
+    // =========================================================================
+    /**
+     * The constructor.
+     *
+     * @param capacity The number of bits the stream can hold before it must
+     *                 grow.
+     */
+    public BitStream (int capacity) {
+
+	words  = new long[Math.max(1, wordsFor(capacity))];
+	length = 0;
+
+    } // BitStream ()
+    // =========================================================================
+
+
+
+    // =========================================================================
+    /**
+     * @return the number of bits in the stream.
+     */
+    public int length () {
+
+	return length;
+
+    } // length ()
+    // =========================================================================
+
+
+
+    // =========================================================================
+    /**
+     * Empty the stream, keeping its storage.
+     */
+    public void clear () {
+
+	Arrays.fill(words, 0, wordsFor(length), 0);
+	length = 0;
+
+    } // clear ()
+    // =========================================================================
+
+
+
+    // =========================================================================
+    /**
+     * Append a word of bits.
+     *
+     * @param bits  The bits, right-aligned, the most significant of them
+     *              first.
+     * @param count The number of bits (0 to 64).
+     */
+    public void append (long bits, int count) {
+
+	if (count == 0) {
+	    return;
+	}
+	ensureCapacity(length + count);
+
+	// Left-align the bits, then split them between the word being filled
+	// and the next one.
+	long aligned = bits << (Long.SIZE - count);
+	int  index   = length >>> 6;
+	int  used    = length & 63;
+	words[index] |= aligned >>> used;
+	if (used + count > Long.SIZE) {
+	    words[index + 1] = aligned << (Long.SIZE - used);
+	}
+	length += count;
+
+    } // append ()
+    // =========================================================================
+
+
+
+    // =========================================================================
+    /**
+     * Append a run of bytes, each most significant bit first.  At a word
+     * boundary, eight bytes are appended at a time.
+     *
+     * @param data   The buffer holding the bytes.
+     * @param offset The index of the first byte.
+     * @param count  The number of bytes.
+     */
+    public void append (byte[] data, int offset, int count) {
+
+	ensureCapacity(length + count * Byte.SIZE);
+
+	int i   = offset;
+	int end = offset + count;
+	if ((length & 63) == 0) {
+	    int index = length >>> 6;
+	    for (; i + Long.BYTES <= end; i += Long.BYTES) {
+		words[index++] = (long)WORDS.get(data, i);
+	    }
+	    length = index << 6;
+	}
+	for (; i + Long.BYTES <= end; i += Long.BYTES) {
+	    append((long)WORDS.get(data, i), Long.SIZE);
+	}
+	long word = 0;
+	for (int j = i; j < end; j += 1) {
+	    word = (word << Byte.SIZE) | (data[j] & 0xff);
+	}
+	append(word, (end - i) * Byte.SIZE);
+
+    } // append ()
+    // =========================================================================
+
+
+
+    // =========================================================================
+    /**
+     * Append all of another stream.
+     *
+     * @param other The stream whose bits to append.
+     */
+    public void append (BitStream other) {
+
+	for (int from = 0; from < other.length; from += Long.SIZE) {
+	    int count = Math.min(Long.SIZE, other.length - from);
+	    append(other.bits(from, count), count);
+	}
+
+    } // append ()
+    // =========================================================================
+
+
+
+    // =========================================================================
+    /**
+     * Read a run of up to 64 bits.
+     *
+     * @param  from  The index of the first bit.
+     * @param  count The number of bits (0 to 64).
+     * @return the bits, right-aligned, the most significant of them first.
+     * @throws IndexOutOfBoundsException if the run passes the end of the
+     *                                   stream.
+     */
+    public long bits (int from, int count) {
+
+	if ((from < 0) || (count < 0) || (count > Long.SIZE) ||
+	    (from + count > length)) {
+	    throw new IndexOutOfBoundsException("Bits " + from + " to " +
+						(from + count) + " of " +
+						length);
+	}
+	if (count == 0) {
+	    return 0;
+	}
+
+	// Gather the bits left-aligned from the word holding the first one and,
+	// if the run crosses into it, the next.
+	int  index   = from >>> 6;
+	int  skipped = from & 63;
+	long aligned = words[index] << skipped;
+	if (skipped + count > Long.SIZE) {
+	    aligned |= words[index + 1] >>> (Long.SIZE - skipped);
+	}
+	return aligned >>> (Long.SIZE - count);
+
+    } // bits ()
+    // =========================================================================
+
+
+
+    // =========================================================================
+    /**
+     * Copy part of the stream.
+     *
+     * @param  from  The index of the first bit to copy.
+     * @param  count The number of bits to copy.
+     * @return a new stream holding those bits.
+     * @throws IndexOutOfBoundsException if the part passes the end of the
+     *                                   stream.
+     */
+    public BitStream slice (int from, int count) {
+
+	if ((from < 0) || (count < 0) || (from + count > length)) {
+	    throw new IndexOutOfBoundsException("Slice " + from + " to " +
+						(from + count) + " of " +
+						length);
+	}
+
+	BitStream slice = new BitStream(count);
+	if ((from & 63) == 0) {
+	    System.arraycopy(words, from >>> 6, slice.words, 0, wordsFor(count));
+	    slice.length = count;
+	    slice.trim();
+	} else {
+	    for (int i = 0; i < count; i += Long.SIZE) {
+		int taken = Math.min(Long.SIZE, count - i);
+		slice.append(bits(from + i, taken), taken);
+	    }
+	}
+	return slice;
+
+    } // slice ()
+    // =========================================================================
+
+
+
+    // =========================================================================
+    /**
+     * Flip the bits of this stream wherever an error mask has a
+     * <code>1</code>, a word at a time.
+     *
+     * @param  mask The error mask, aligned with the start of this stream; any
+     *              bits past the end of this stream are ignored.
+     * @return this stream.
+     */
+    public BitStream xor (BitStream mask) {
+
+	int count = wordsFor(Math.min(length, mask.length));
+	for (int i = 0; i < count; i += 1) {
+	    words[i] ^= mask.words[i];
+	}
+	trim();
+	return this;
+
+    } // xor ()
+    // =========================================================================
+
+
+
+    // =========================================================================
+    /**
+     * @return the number of <code>1</code> bits in the stream.
+     */
+    public int bitCount () {
+
+	int count = 0;
+	for (int i = wordsFor(length) - 1; i >= 0; i -= 1) {
+	    count += Long.bitCount(words[i]);
+	}
+	return count;
+
+    } // bitCount ()
+    // =========================================================================
+
+
+
+    // =========================================================================
+    /**
+     * Read whole bytes from a byte boundary.  From a word boundary, eight
+     * bytes are read at a time.
+     *
+     * @param  from        The index of the first bit, a multiple of eight.
+     * @param  destination The buffer into which to read the bytes.
+     * @param  offset      The index at which to write the first byte.
+     * @param  count       The number of bytes to read.
+     * @throws IllegalArgumentException  if <code>from</code> is not at a byte
+     *                                   boundary.
+     * @throws IndexOutOfBoundsException if the bytes pass the end of the
+     *                                   stream.
+     */
+    public void readBytes (int from, byte[] destination, int offset,
+			   int count) {
+
+	if ((from & (Byte.SIZE - 1)) != 0) {
+	    throw new IllegalArgumentException("Bit " + from +
+					       " is not at a byte boundary");
+	}
+	if ((from < 0) || (from + count * Byte.SIZE > length)) {
+	    throw new IndexOutOfBoundsException("Bytes from bit " + from +
+						" to " +
+						(from + count * Byte.SIZE) +
+						" of " + length);
+	}
+
+	int j   = offset;
+	int end = offset + count;
+	if ((from & 63) == 0) {
+	    for (int index = from >>> 6; j + Long.BYTES <= end; index += 1) {
+		WORDS.set(destination, j, words[index]);
+		j    += Long.BYTES;
+		from += Long.SIZE;
+	    }
+	}
+	for (; j < end; j += 1) {
+	    destination[j] = (byte)bits(from, Byte.SIZE);
+	    from          += Byte.SIZE;
+	}
+
+    } // readBytes ()
+    // =========================================================================
+
+
+
+    // =========================================================================
+    // PRIVATE METHODS
+    // =========================================================================
+
+
+
+    // =========================================================================
+    // The number of words needed to hold some bits.
+    private static int wordsFor (int bits) {
+
+	return (bits + Long.SIZE - 1) >>> 6;
+
+    } // wordsFor ()
+    // =========================================================================
+
+
+
+    // =========================================================================
+    // Make room for some bits, at least doubling the storage when it grows.
+    private void ensureCapacity (int bits) {
+
+	int needed = wordsFor(bits);
+	if (needed > words.length) {
+	    words = Arrays.copyOf(words, Math.max(needed, 2 * words.length));
+	}
+
+    } // ensureCapacity ()
+    // =========================================================================
+
+
+
+    // =========================================================================
+    // Clear any bits past the end of the stream, so that appending can simply
+    // combine words.
+    private void trim () {
+
+	int used = length & 63;
+	if (used != 0) {
+	    words[length >>> 6] &= -1L << (Long.SIZE - used);
+	}
+
+    } // trim ()
+    // =========================================================================
+
+
+
+    // =========================================================================
+    // DATA MEMBERS
+
+    /** The bits, in order from the most significant bit of the first word.
+     *  Bits past the end of the stream are always <code>0</code>. */
+    private long[] words;
+
+    /** The number of bits in the stream. */
+    private int    length;
+
+    /** Reads and writes eight bytes of an array as a word, the first byte
+     *  most significant. */
+    private static final VarHandle WORDS =
+	MethodHandles.byteArrayViewVarHandle(long[].class, ByteOrder.BIG_ENDIAN);
+    // =========================================================================
+
+
+
+// =============================================================================
+} // class BitStream
+// =============================================================================
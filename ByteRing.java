@@ -0,0 +1,242 @@
+// =============================================================================
+/**
+ * A first-in, first-out queue of bytes held in a circular, growable array.
+ * Unlike a <code>Queue&lt;Byte&gt;</code>, adding and removing bytes allocates
+ * nothing once the array is large enough, and any buffered byte can be read by
+ * its position from the head.
+ *
+ * @file   ByteRing.java
+ * @date   October 2026
+ */
+public class ByteRing {
+// =============================================================================
+
+
+
+    // =========================================================================
+    // PUBLIC METHODS
+    // =========================================================================
+
+
+
+    // =========================================================================
+    /**
+     * The constructor.  Start with a small array.
+     */
+    public ByteRing () {
+
+	this(INITIAL_CAPACITY);
+
+    } // ByteRing ()
+    // =========================================================================
+
+
+
+    // =========================================================================
+    /**
+     * The constructor.
+     *
+     * @param capacity The number of bytes to make room for initially.
+     */
+    public ByteRing (int capacity) {
+
+	// Keep the capacity a power of two so that positions wrap with a mask.
+	buffer = new byte[Integer.highestOneBit(Math.max(capacity - 1, 1)) << 1];
+	head   = 0;
+	size   = 0;
+
+    } // ByteRing ()
+    // =========================================================================
+
+
+
+    // =========================================================================
+    /**
+     * Append a byte at the tail.
+     *
+     * @param value The byte to append.
+     */
+    public void add (byte value) {
+
+	if (size == buffer.length) {
+	    grow();
+	}
+	buffer[(head + size) & (buffer.length - 1)] = value;
+	size += 1;
+
+    } // add ()
+    // =========================================================================
+
+
+
+    // =========================================================================
+    /**
+     * Read a buffered byte without removing it.
+     *
+     * @param  index The position of the byte, where <code>0</code> is the
+     *               head.
+     * @return the byte at that position.
+     * @throws IndexOutOfBoundsException if there is no such byte.
+     */
+    public byte get (int index) {
+
+	if ((index < 0) || (index >= size)) {
+	    throw new IndexOutOfBoundsException("Index " + index +
+						", size " + size);
+	}
+	return buffer[(head + index) & (buffer.length - 1)];
+
+    } // get ()
+    // =========================================================================
+
+
+
+    // =========================================================================
+    /**
+     * Remove and return the byte at the head.
+     *
+     * @return the removed byte.
+     * @throws RuntimeException if the ring is empty.
+     */
+    public byte remove () {
+
+	if (size == 0) {
+	    throw new RuntimeException("Remove from an empty ring");
+	}
+	byte value = buffer[head];
+	head  = (head + 1) & (buffer.length - 1);
+	size -= 1;
+	return value;
+
+    } // remove ()
+    // =========================================================================
+
+
+
+    // =========================================================================
+    /**
+     * Remove bytes from the head.
+     *
+     * @param count The number of bytes to remove; if more than are buffered,
+     *              all of them.
+     */
+    public void discard (int count) {
+
+	count = Math.min(count, size);
+	head  = (head + count) & (buffer.length - 1);
+	size -= count;
+
+    } // discard ()
+    // =========================================================================
+
+
+
+    // =========================================================================
+    /**
+     * Remove every buffered byte.
+     */
+    public void clear () {
+
+	head = 0;
+	size = 0;
+
+    } // clear ()
+    // =========================================================================
+
+
+
+    // =========================================================================
+    /**
+     * Copy buffered bytes, starting at the head, into an array.
+     *
+     * @param index  The position of the first byte to copy.
+     * @param dest   The array into which to copy.
+     * @param offset The index in <code>dest</code> of the first byte copied.
+     * @param length The number of bytes to copy.
+     */
+    public void copyTo (int index, byte[] dest, int offset, int length) {
+
+	if ((index < 0) || (length < 0) || (index + length > size)) {
+	    throw new IndexOutOfBoundsException("Range " + index + "+" + length +
+						", size " + size);
+	}
+
+	// Copy in at most two pieces: up to the end of the array, then from
+	// its start.
+	int start = (head + index) & (buffer.length - 1);
+	int first = Math.min(length, buffer.length - start);
+	System.arraycopy(buffer, start, dest, offset, first);
+	System.arraycopy(buffer, 0, dest, offset + first, length - first);
+
+    } // copyTo ()
+    // =========================================================================
+
+
+
+    // =========================================================================
+    /**
+     * @return the number of buffered bytes.
+     */
+    public int size () {
+
+	return size;
+
+    } // size ()
+    // =========================================================================
+
+
+
+    // =========================================================================
+    /**
+     * @return whether no bytes are buffered.
+     */
+    public boolean isEmpty () {
+
+	return size == 0;
+
+    } // isEmpty ()
+    // =========================================================================
+
+
+
+    // =========================================================================
+    // PRIVATE METHODS
+    // =========================================================================
+
+
+
+    // =========================================================================
+    // Double the array, unwrapping the buffered bytes to its start.
+    private void grow () {
+
+	byte[] larger = new byte[buffer.length << 1];
+	copyTo(0, larger, 0, size);
+	buffer = larger;
+	head   = 0;
+
+    } // grow ()
+    // =========================================================================
+
+
+
+    // =========================================================================
+    // DATA MEMBERS
+
+    /** The circular storage, whose length is always a power of two. */
+    private byte[] buffer;
+
+    /** The position in <code>buffer</code> of the head byte. */
+    private int    head;
+
+    /** The number of buffered bytes. */
+    private int    size;
+
+    /** The capacity of a ring created without one. */
+    private static final int INITIAL_CAPACITY = 64;
+    // =========================================================================
+
+
+
+// =============================================================================
+} // class ByteRing
+// =============================================================================
@@ -0,0 +1,199 @@
+// =============================================================================
+// IMPORTS
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteOrder;
+// =============================================================================
+
+
+
+// =============================================================================
+/**
+ * Consistent overhead byte stuffing.  Encoding removes every zero byte from a
+ * buffer, so that a single zero can mark the end of a frame.  The buffer is
+ * cut into runs of non-zero bytes, each preceded by a code byte giving its
+ * length plus one; a run shorter than the longest possible one stands for
+ * the run and a zero after it.  However the data is made up, encoding adds
+ * at most one byte per 254, plus one.
+ *
+ * Both directions work on whole buffers, copying each run at once rather
+ * than examining and copying each byte in turn.  The encoder looks for zeros
+ * eight bytes at a time.
+ *
+ * @file   COBS.java
+ * @date   October 2026
+ */
+public class COBS {
+// =============================================================================
+
+
+
+    // =========================================================================
+    // PUBLIC METHODS
+    // =========================================================================
+
+
+
+    // =========================================================================
+    /**
+     * @param  length The number of bytes to encode.
+     * @return the largest number of bytes to which they can encode.
+     */
+    public static int maxEncodedLength (int length) {
+
+	return length + length / MAX_RUN + 1;
+
+    } // maxEncodedLength ()
+    // =========================================================================
+
+
+
+    // =========================================================================
+    /**
+     * Encode a buffer, writing no zero bytes.
+     *
+     * @param  source       The buffer holding the bytes to encode.
+     * @param  offset       The index of the first byte to encode.
+     * @param  length       The number of bytes to encode.
+     * @param  destination  The buffer into which to write the encoding, with
+     *                      room for <code>maxEncodedLength(length)</code>
+     *                      bytes; it must not overlap the source.
+     * @param  outputOffset The index at which to write the first byte.
+     * @return the number of bytes written.
+     */
+    public static int encode (byte[] source, int offset, int length,
+			      byte[] destination, int outputOffset) {
+
+	int end = offset + length;
+	int out = outputOffset;
+	int i   = offset;
+	while (true) {
+
+	    // Find the end of the run: a zero, the end of the data, or the
+	    // longest run a code can describe.
+	    int j   = indexOfZero(source, i, Math.min(end, i + MAX_RUN));
+	    int run = j - i;
+	    destination[out] = (byte)(run + 1);
+	    System.arraycopy(source, i, destination, out + 1, run);
+	    out += run + 1;
+
+	    if (j == end) {
+		break;
+	    }
+	    // A full-length run implies no zero, so the next run starts right
+	    // after it; otherwise, skip the zero that ended it.
+	    i = (run == MAX_RUN) ? j : j + 1;
+
+	}
+
+	return out - outputOffset;
+
+    } // encode ()
+    // =========================================================================
+
+
+
+    // =========================================================================
+    /**
+     * Decode a buffer.  Decoding may be done in place, since the output never
+     * gets ahead of the input.
+     *
+     * @param  source       The buffer holding the encoded bytes, without the
+     *                      zero that ended them.
+     * @param  offset       The index of the first encoded byte.
+     * @param  length       The number of encoded bytes.
+     * @param  destination  The buffer into which to write the decoded bytes,
+     *                      with room for <code>length</code> bytes.
+     * @param  outputOffset The index at which to write the first byte, no
+     *                      later than <code>offset</code> if decoding in
+     *                      place.
+     * @return the number of bytes decoded, or <code>-1</code> if the encoding
+     *         is malformed.
+     */
+    public static int decode (byte[] source, int offset, int length,
+			      byte[] destination, int outputOffset) {
+
+	int end = offset + length;
+	int out = outputOffset;
+	int i   = offset;
+	while (i < end) {
+
+	    // Each code must be followed by the whole of its run.
+	    int code = source[i] & 0xff;
+	    if ((code == 0) || (code > end - i)) {
+		return -1;
+	    }
+
+	    System.arraycopy(source, i + 1, destination, out, code - 1);
+	    out += code - 1;
+	    i   += code;
+	    if ((code <= MAX_RUN) && (i < end)) {
+		destination[out++] = 0;
+	    }
+
+	}
+
+	return out - outputOffset;
+
+    } // decode ()
+    // =========================================================================
+
+
+
+    // =========================================================================
+    // PRIVATE METHODS
+    // =========================================================================
+
+
+
+    // =========================================================================
+    // Find the first zero byte in a range of a buffer, or the end of the range
+    // if there is none.  Whole words are tested at once: subtracting one from
+    // each byte borrows out of the top of only those bytes that were zero,
+    // or that follow a zero, so the lowest flagged byte is the first zero.
+    private static int indexOfZero (byte[] source, int from, int limit) {
+
+	int j = from;
+	for (; j + Long.BYTES <= limit; j += Long.BYTES) {
+	    long word  = (long)WORDS.get(source, j);
+	    long zeros = (word - LOW_BITS) & ~word & HIGH_BITS;
+	    if (zeros != 0) {
+		return j + (Long.numberOfTrailingZeros(zeros) >>> 3);
+	    }
+	}
+	while ((j < limit) && (source[j] != 0)) {
+	    j += 1;
+	}
+	return j;
+
+    } // indexOfZero ()
+    // =========================================================================
+
+
+
+    // =========================================================================
+    // DATA MEMBERS
+
+    /** The most non-zero bytes one code can describe. */
+    public static final int  MAX_RUN   = 254;
+
+    /** The byte that ends each encoded frame. */
+    public static final byte DELIMITER = 0;
+
+    /** Reads eight bytes of an array as a word, the first byte lowest. */
+    private static final VarHandle WORDS =
+	MethodHandles.byteArrayViewVarHandle(long[].class, ByteOrder.LITTLE_ENDIAN);
+
+    /** The lowest bit of every byte in a word. */
+    private static final long LOW_BITS  = 0x0101010101010101L;
+
+    /** The highest bit of every byte in a word. */
+    private static final long HIGH_BITS = 0x8080808080808080L;
+    // =========================================================================
+
+
+
+// =============================================================================
+} // class COBS
+// =============================================================================
@@ -0,0 +1,105 @@
+// =============================================================================
+// IMPORTS
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+// =============================================================================
+
+
+
+// =============================================================================
+/**
+ * The self-check for <code>COBS</code>: zero-free encodings within the bound
+ * that decode to what was encoded, in place or not.
+ *
+ * @file   COBSCheck.java
+ * @date   October 2026
+ */
+public class COBSCheck extends SelfCheck {
+// =============================================================================
+
+
+
+    // =========================================================================
+    // PACKAGE METHODS
+    // =========================================================================
+
+
+
+    // =========================================================================
+    /**
+     * COBS must encode without zeros, within its bound, and decode to what it
+     * was given: runs of the longest length and either side of it, trailing
+     * and leading zeros, nothing but zeros, and random mixes.
+     */
+    static void run () {
+
+	SplittableRandom random = new SplittableRandom(SEED);
+	int[] runs = { 0, 1, 253, 254, 255, 508, 509, 1000 };
+	for (int run : runs) {
+	    byte[] nonZero = new byte[run];
+	    Arrays.fill(nonZero, (byte)0x5a);
+	    roundTrip("a run of " + run, nonZero);
+
+	    byte[] trailing = Arrays.copyOf(nonZero, run + 1);
+	    roundTrip("a run of " + run + " and a trailing zero", trailing);
+
+	    byte[] leading = new byte[run + 1];
+	    System.arraycopy(nonZero, 0, leading, 1, run);
+	    roundTrip("a leading zero and a run of " + run, leading);
+
+	    roundTrip(run + " zeros", new byte[run]);
+	}
+
+	for (int trial = 0; trial < TRIALS; trial += 1) {
+	    byte[] data    = randomBytes(random, random.nextInt(2000));
+	    int    density = 1 + random.nextInt(300);
+	    for (int i = 0; i < data.length; i += 1) {
+		if (random.nextInt(density) == 0) {
+		    data[i] = 0;
+		}
+	    }
+	    roundTrip(data.length + " random bytes", data);
+	}
+
+    } // run ()
+    // =========================================================================
+
+
+
+    // =========================================================================
+    // PRIVATE METHODS
+    // =========================================================================
+
+
+
+    // =========================================================================
+    private static void roundTrip (String description, byte[] data) {
+
+	byte[]  encoded = new byte[COBS.maxEncodedLength(data.length)];
+	int     length  = COBS.encode(data, 0, data.length, encoded, 0);
+	boolean zeroFree = true;
+	for (int i = 0; i < length; i += 1) {
+	    zeroFree &= (encoded[i] != COBS.DELIMITER);
+	}
+	byte[] decoded = new byte[length];
+	int    count   = COBS.decode(encoded, 0, length, decoded, 0);
+	check("COBS round trip of " + description,
+	      zeroFree && (length <= COBS.maxEncodedLength(data.length)) &&
+	      Arrays.equals(data, 0, data.length, decoded, 0, Math.max(0, count)) &&
+	      (count == data.length));
+
+	// Decoding in place must give the same answer.
+	count = COBS.decode(encoded, 0, length, encoded, 0);
+	check("COBS in-place decoding of " + description,
+	      (count == data.length) &&
+	      Arrays.equals(data, 0, data.length, encoded, 0, count));
+
+    } // roundTrip ()
+    // =========================================================================
+
+
+
+// =============================================================================
+} // class COBSCheck
+// =============================================================================
@@ -0,0 +1,145 @@
+// =============================================================================
+// IMPORTS
+
+import java.nio.charset.StandardCharsets;
+import java.util.SplittableRandom;
+import java.util.zip.Checksum;
+// =============================================================================
+
+
+
+// =============================================================================
+/**
+ * The self-check for the CRC engine: each predefined specification against
+ * its catalogue check value, and the table engine against a bit-at-a-time
+ * division of random inputs.
+ *
+ * @file   CRCCheck.java
+ * @date   October 2026
+ */
+public class CRCCheck extends SelfCheck {
+// =============================================================================
+
+
+
+    // =========================================================================
+    // PACKAGE METHODS
+    // =========================================================================
+
+
+
+    // =========================================================================
+    /**
+     * Each predefined CRC must give its catalogue check value for "123456789",
+     * and the table engine must agree with a bit-at-a-time division however
+     * the input is split between updates.
+     */
+    static void run () {
+
+	byte[] digits = "123456789".getBytes(StandardCharsets.US_ASCII);
+	check("CRC-8 check value",   value(CRCSpecification.CRC8,   digits) == 0xf4L);
+	check("CRC-16 check value",  value(CRCSpecification.CRC16,  digits) == 0x29b1L);
+	check("CRC-32 check value",  value(CRCSpecification.CRC32,  digits) == 0xcbf43926L);
+	check("CRC-32C check value", value(CRCSpecification.CRC32C, digits) == 0xe3069283L);
+	check("CRC-64 check value",  value(CRCSpecification.CRC64,  digits) == 0x995dc9bbdf1939faL);
+
+	// The JDK computes CRC-32 and CRC-32C; the same parameters under
+	// another name run through the table engine instead.
+	CRCSpecification crc32  =
+	    new CRCSpecification("CRC-32 (table)", 32, 0x04c11db7L,
+				 0xffffffffL, true, true, 0xffffffffL);
+	CRCSpecification crc32c =
+	    new CRCSpecification("CRC-32C (table)", 32, 0x1edc6f41L,
+				 0xffffffffL, true, true, 0xffffffffL);
+	check("CRC-32 table check value",  value(crc32,  digits) == 0xcbf43926L);
+	check("CRC-32C table check value", value(crc32c, digits) == 0xe3069283L);
+	check("LEGACY names the original generator",
+	      CRCSpecification.forName("LEGACY") == CRCSpecification.LEGACY);
+
+	// The original 4-bit generator has no catalogue entry, so compare it,
+	// and the others, with long division.
+	SplittableRandom random = new SplittableRandom(SEED);
+	CRCSpecification[] all = { CRCSpecification.LEGACY,
+				   CRCSpecification.CRC8,
+				   CRCSpecification.CRC16,
+				   crc32, crc32c,
+				   CRCSpecification.CRC64 };
+	long[][] parameters = { { 4,  0x3L,                0,           0, 0,           0 },
+				{ 8,  0x07L,               0,           0, 0,           0 },
+				{ 16, 0x1021L,             0xffffL,     0, 0,           0 },
+				{ 32, 0x04c11db7L,         0xffffffffL, 1, 1, 0xffffffffL },
+				{ 32, 0x1edc6f41L,         0xffffffffL, 1, 1, 0xffffffffL },
+				{ 64, 0x42f0e1eba9ea3693L, -1L,         1, 1, -1L } };
+	for (int s = 0; s < all.length; s += 1) {
+	    long[] p = parameters[s];
+	    for (int trial = 0; trial < TRIALS; trial += 1) {
+		byte[]   data     = randomBytes(random, random.nextInt(100));
+		int      split    = random.nextInt(data.length + 1);
+		Checksum checksum = all[s].newChecksum();
+		checksum.update(data, 0, split);
+		for (int i = split; i < data.length; i += 1) {
+		    checksum.update(data[i]);
+		}
+		long expected = divide(data, (int)p[0], p[1], p[2],
+				       p[3] != 0, p[4] != 0, p[5]);
+		check(all[s] + " matches long division on " + data.length +
+		      " bytes split at " + split,
+		      checksum.getValue() == expected);
+	    }
+	}
+
+    } // run ()
+    // =========================================================================
+
+
+
+    // =========================================================================
+    // PRIVATE METHODS
+    // =========================================================================
+
+
+
+    // =========================================================================
+    private static long value (CRCSpecification specification, byte[] data) {
+
+	Checksum checksum = specification.newChecksum();
+	checksum.update(data, 0, data.length);
+	return checksum.getValue();
+
+    } // value ()
+    // =========================================================================
+
+
+
+    // =========================================================================
+    // Compute a CRC one bit at a time, straight from its parameters.
+    private static long divide (byte[] data, int width, long polynomial,
+				long init, boolean reflectIn,
+				boolean reflectOut, long xorOut) {
+
+	long top      = 1L << (width - 1);
+	long mask     = (width == Long.SIZE) ? -1L : ((1L << width) - 1);
+	long register = init & mask;
+	for (byte b : data) {
+	    int value = reflectIn ? (Integer.reverse(b & 0xff) >>> 24) : (b & 0xff);
+	    for (int i = Byte.SIZE - 1; i >= 0; i -= 1) {
+		boolean feedback = ((register & top) != 0) ^ (((value >>> i) & 1) != 0);
+		register = (register << 1) & mask;
+		if (feedback) {
+		    register ^= polynomial & mask;
+		}
+	    }
+	}
+	if (reflectOut) {
+	    register = Long.reverse(register) >>> (Long.SIZE - width);
+	}
+	return (register ^ xorOut) & mask;
+
+    } // divide ()
+    // =========================================================================
+
+
+
+// =============================================================================
+} // class CRCCheck
+// =============================================================================
@@ -4,17 +4,21 @@
 import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.Queue;
+import java.util.zip.Checksum;
 // =============================================================================
 
 
 // =============================================================================
 /**
- * @file   DumbDataLinkLayer.java
+ * @file   CRCDataLinkLayer.java
  * @author Scott F. Kaplan (sfkaplan@cs.amherst.edu)
  * @date   August 2018, original September 2004
  *
- * A data link layer that uses start/stop tags and byte packing to frame the
- * data, and that performs no error management.
+ * A data link layer that uses start/stop tags and byte packing, or COBS
+ * byte stuffing, to frame the data.  Each frame ends with the CRC remainder
+ * of its data, computed by the layer's <code>CRCSpecification</code>.  Once
+ * a damaged frame is detected, no later frame is accepted, unless the layer
+ * is resynchronizing, in which case only the damaged frame is dropped.
  */
 public class CRCDataLinkLayer extends DataLinkLayer {
 // =============================================================================
@@ -30,28 +34,40 @@ public class CRCDataLinkLayer extends DataLinkLayer {
      */
     protected byte[] createFrame (byte[] data) {
 
+        // With byte stuffing, the contents are the data and then the check
+        // bytes, stuffed as a whole.
+        if (framing == COBS_FRAMING) {
+            int    checkBytes = specification.checkBytes();
+            byte[] contents   = new byte[data.length + checkBytes];
+            System.arraycopy(data, 0, contents, 0, data.length);
+            sendChecksum.reset();
+            sendChecksum.update(data, 0, data.length);
+            long remainder = sendChecksum.getValue();
+            for (int k = 0; k < checkBytes; k += 1) {
+                contents[data.length + k] =
+                    (byte)(remainder >>> ((checkBytes - 1 - k) * BITS_PER_BYTE));
+            }
+            return stuffFrame(contents, contents.length);
+        }
+
         Queue<Byte> framingData = new LinkedList<Byte>();
         
         // Begin with the start tag.
         framingData.add(startTag);
 
-        // Add each byte of original data and a byte with CRC calculation data.
+        // Add each byte of original data, escaped if it is a metadata tag.
         for (int i = 0; i < data.length; i += 1) {
+            addEscaped(framingData, data[i]);
+        }
 
-            // If the current data byte is itself a metadata tag, then precede
-            // it with an escape tag.
-            byte currentByte = data[i];
-            if ((currentByte == startTag) || (currentByte == stopTag) || (currentByte == escapeTag)) {
-                framingData.add(escapeTag);
-            }
-
-            // Add the data byte itself.
-            framingData.add(currentByte);
-
-            //Get CRC Remainder and send it in next byte.
-            byte byteCRC = getRemainder(currentByte);
-            framingData.add(byteCRC);
-
+        // Follow the data with the CRC remainder of the whole frame, most
+        // significant byte first.  Check bytes may collide with the tags too,
+        // so they are escaped in the same way.
+        sendChecksum.reset();
+        sendChecksum.update(data, 0, data.length);
+        long remainder = sendChecksum.getValue();
+        for (int k = specification.checkBytes() - 1; k >= 0; k -= 1) {
+            addEscaped(framingData, (byte)(remainder >>> (k * BITS_PER_BYTE)));
         }
 
         // End with a stop tag.
@@ -74,10 +90,10 @@ public class CRCDataLinkLayer extends DataLinkLayer {
     
     // =========================================================================
     /**
-     * Determine whether the received, buffered data constitutes a complete
-     * frame.  If so, then remove the framing metadata and return the original
-     * data.  Note that any data preceding an escaped start tag is assumed to be
-     * part of a damaged frame, and is thus discarded.
+     * Feed the newly received bytes to the frame parser.  If they complete a
+     * frame, then remove the framing metadata, verify the check bytes, and
+     * return the original data.  The parser remembers its progress, so each
+     * byte is examined only once.
      *
      * @return If the buffer contains a complete frame, the extracted, original
      * data; <code>null</code> otherwise.
@@ -86,122 +102,83 @@ public class CRCDataLinkLayer extends DataLinkLayer {
 
         //If there has been an error in a previous frame, do not accept any more frames.
         if(error){
+            byteBuffer.clear();
             return null;
         }
 
-        // Search for a start tag.  Discard anything prior to it.
-        boolean        startTagFound = false;
-        Iterator<Byte>             i = byteBuffer.iterator();
-        while (!startTagFound && i.hasNext()) {
-            byte current = i.next();
-            if (current != startTag) {
-            i.remove();
-            } else {
-            startTagFound = true;
-            }
-        }
+        byte[] frame;
+        int    length;
+        if (framing == COBS_FRAMING) {
 
-        // If there is no start tag, then there is no frame. Set error to true.
-        if (!startTagFound) {
-            error = true;
-            System.out.println("ERROR - No Stop Tag Found.");
-            return null;
-        }
-        
-        // Try to extract data while waiting for an unescaped stop tag.
-        Queue<Byte> extractedBytes = new LinkedList<Byte>();
-        boolean       stopTagFound = false;
-        while (!stopTagFound && i.hasNext()) {
-
-            // Grab the next byte.  If it is...
-            //   (a) An escape tag: Skip over it and grab what follows as
-            //                      literal data.
-            //   (b) A stop tag:    Remove all processed bytes from the buffer and
-            //                      end extraction.
-            //   (c) A start tag:   All that precedes is damaged, so remove it
-            //                      from the buffer and restart extraction.
-            //   (d) Otherwise:     Take it as literal data.
-            byte current = i.next();
-            if (current == escapeTag) {
-
-                if (i.hasNext()) {
-                    // Take next byte as literal data
-                    current = i.next();
-                    // Check if current has a next byte - otherwise there is no check byte to checkCRC() with.
-                    if(i.hasNext()){
-                        // Check byte with CRC, if it's correct then add the bit, otherwise return null.
-                        boolean correct = checkCRC(current, i);
-                        if(correct){
-                            extractedBytes.add(current);
-                        } else {
-                            System.out.println("ERROR - Data Byte Failed CRC Test.");
-                            System.out.printf("Incorrect Data = %c\n", current);
-                            error = true;
-                            return null;
-                        }
-                    } else {
-                        // Return null and then wait for the check byte to come through.
-                        return null;
-                    }
-                    
-                } else {
-                    // An escape was the last byte available, so this is not a
-                    // complete frame.
-                    return null;
-                } // if, else statement
-
-            } else if (current == stopTag) {
-
-                cleanBufferUpTo(i);
-                stopTagFound = true;
-
-            } else if (current == startTag) {
-
-                cleanBufferUpTo(i);
-                extractedBytes = new LinkedList<Byte>();
-
-            } else {
-                // Check if current has a next byte - otherwise there is no check byte to checkCRC() with.
-                if(i.hasNext()){
-                    // Check byte with CRC, if it's correct then add the bit, otherwise return null.
-                    boolean correct = checkCRC(current, i);
-                    if(correct){
-                        extractedBytes.add(current);
-                    } else {
-                        System.out.println("ERROR - Data Byte Failed CRC Test.");
-                        System.out.printf("Incorrect Data = %c\n", current);
-                        error = true;
-                        return null;
+            // A frame ends at the first zero byte.
+            length = unstuffFrame();
+            if (length == NO_FRAME) {
+                return null;
+            } else if (length == BAD_FRAME) {
+                return reject("ERROR - Frame Stuffing Malformed.");
+            }
+            frame = stuffedFrame;
+
+        } else {
+
+            // Parse each buffered byte exactly once.
+            boolean frameFound = false;
+            while (!frameFound && !byteBuffer.isEmpty()) {
+                int result = parser.accept(byteBuffer.remove());
+                if (result == FrameParser.DISCARDED) {
+                    // A byte outside of any frame means a start tag was damaged.
+                    // While resynchronizing, the rest of that frame is skipped
+                    // as one loss.
+                    boolean first = !discarding;
+                    discarding = true;
+                    if (!resynchronizing) {
+                        return reject("ERROR - No Stop Tag Found.");
+                    } else if (first) {
+                        reportError("ERROR - No Start Tag Found.");
                     }
-                } else {
-                    // Return null and then wait for the check byte to come through.
-                    return null;
+                    continue;
                 }
+                discarding = false;
+                if ((result == FrameParser.RESTARTED) && resynchronizing) {
+                    // A start tag inside a frame means its stop tag was damaged.
+                    reportError("ERROR - No Stop Tag Found.");
+                }
+                frameFound = (result == FrameParser.COMPLETE);
+            }
 
-            } //if, else if, else if, else statement
-
-        } // While loop
+            // If there is no stop tag, then the frame is incomplete.
+            if (!frameFound) {
+                return null;
+            }
+            frame  = parser.frame();
+            length = parser.length();
 
-        // If there is no stop tag, then the frame is incomplete.
-        if (!stopTagFound) {
-            return null;
         }
 
         // Convert to the desired byte array.
         if (debug) {
             System.out.println("CRCDataLinkLayer.processFrame(): Got whole frame!");
         }
-        byte[] extractedData = new byte[extractedBytes.size()];
-        int                j = 0;
-        i = extractedBytes.iterator();
-        while (i.hasNext()) {
-            extractedData[j] = i.next();
-            if (debug) {
-            System.out.printf("CRCDataLinkLayer.processFrame():\tbyte[%d] = %c\n",
-                    j,
-                    extractedData[j]);
+        // The frame must end with a complete set of check bytes.
+        int    checkBytes = specification.checkBytes();
+        if (length < checkBytes) {
+            return reject("ERROR - Frame Has Incomplete Check Bytes.");
+        }
+
+        byte[] extractedData = new byte[length - checkBytes];
+        System.arraycopy(frame, 0, extractedData, 0, extractedData.length);
+        if (debug) {
+            for (int j = 0; j < extractedData.length; j += 1) {
+                System.out.printf("CRCDataLinkLayer.processFrame():\tbyte[%d] = %c\n",
+                        j,
+                        extractedData[j] & 0xff);
             }
-            j += 1;
+        }
+
+        // Check the frame with CRC; if it's incorrect, return null.
+        if (!verifyCRC(frame, extractedData.length)) {
+            return reject("ERROR - Frame Failed CRC Test.\n" +
+                          "Incorrect Data = " + new String(extractedData));
         }
 
         return extractedData;
@@ -212,126 +189,74 @@ public class CRCDataLinkLayer extends DataLinkLayer {
 
 
     // ===============================================================
-    private void cleanBufferUpTo (Iterator<Byte> end) {
+    // Report a damaged frame and drop it.  Unless resynchronizing, refuse
+    // every later frame too.
+    private byte[] reject (String message) {
 
-	Iterator<Byte> i = byteBuffer.iterator();
-	while (i.hasNext() && i != end) {
-	    i.next();
-	    i.remove();
-	}
+        reportError(message);
+        if (!resynchronizing) {
+            error = true;
+        }
+        return null;
 
     }
     // ===============================================================
 
 
 
-    //================================================================
-    @Override
-	public void send (byte[] data) {
-
-		// Call on the underlying physical layer to send the data.
-		for(int j = 0; j < data.length; j+= 1){
-
-			byte[] temp = {data[j]};
-
-			byte[] framedData = createFrame(temp);
-			for (int i = 0; i < framedData.length; i += 1) {
-				transmit(framedData[i]);
-			}
-
-		}
-	
-    }
-    //================================================================
-
-
-    
-    //================================================================
-    public static boolean checkCRC(byte dataByte,Iterator<Byte> i){
-
-        int data = (int) dataByte;
-        if(!i.hasNext()){
-            return false;
-        }
-
-        int byteCRC = (int)(i.next());
-        data = (data << 4) ^ byteCRC;
-
-        int current = 0;
-        for(int j = BITS_PER_BYTE + 3; j >= 0; j--){
-            boolean bit = testBit(data, j);
-            current = injectBit(current, bit);
+    // ===============================================================
+    private void addEscaped (Queue<Byte> framingData, byte value) {
 
-            if(testBit(current, generatorLength - 1)){
-                current = current ^ generator;
-            }
+        // If the byte is itself a metadata tag, then precede it with an
+        // escape tag.
+        if ((value == startTag) || (value == stopTag) || (value == escapeTag)) {
+            framingData.add(escapeTag);
+            metrics().escapesInserted.increment();
         }
+        framingData.add(value);
 
-        return current == 0;
     }
-    //================================================================
-
-
-
-    //================================================================
-    public static int addCRC(int data){
-
-        data = data << generatorLength - 1;
+    // ===============================================================
 
-        int current = 0;
-        for(int i = BITS_PER_BYTE + 3; i >= 0; i--){
-            boolean bit = testBit(data, i);
-            current = injectBit(current, bit);
 
-            if(testBit(current, generatorLength - 1)){
-                current = current ^ generator;
-            }
-        }
 
-        return data ^ current;
-    }
     //================================================================
+    /**
+     * Verify a frame's data against the check bytes that follow it, using
+     * this layer's CRC specification.
+     *
+     * @param  frame  The received frame contents: data, then check bytes,
+     *                most significant first.
+     * @param  length The number of data bytes.
+     * @return <code>true</code> if the received remainder matches.
+     */
+    private boolean verifyCRC(byte[] frame, int length){
 
-
-
-    //================================================================
-    public static int injectBit(int v, boolean bit){
-        int newValue = 0;
-        if(bit){
-            newValue = 1;
+        long received = 0;
+        for(int k = 0; k < specification.checkBytes(); k++){
+            received = (received << BITS_PER_BYTE) | (frame[length + k] & 0xff);
         }
-        v = v << 1;
-        return (v | newValue);
-    }
-    //================================================================
-
-
 
-    //================================================================
-    public static boolean testBit(int v, int position){
-        return ( v & (1 << position)) != 0;
+        receiveChecksum.reset();
+        receiveChecksum.update(frame, 0, length);
+        return receiveChecksum.getValue() == received;
     }
     //================================================================
 
 
 
     //================================================================
-    public static byte getRemainder(byte dataByte){
-
-        int data = (int)dataByte;
-        data = data << generatorLength - 1;
-
-        int current = 0;
-        for(int i = BITS_PER_BYTE + 3; i >= 0; i--){
-            boolean bit = testBit(data, i);
-            current = injectBit(current, bit);
-
-            if(testBit(current, generatorLength - 1)){
-                current = current ^ generator;
-            }
-        }
+    /**
+     * Select the CRC algorithm used on this link.  Both ends of a link must
+     * use the same specification.
+     *
+     * @param specification The CRC parameters to use.
+     */
+    public void setSpecification(CRCSpecification specification){
 
-        return (byte)current;
+        this.specification = specification;
+        this.sendChecksum    = specification.newChecksum();
+        this.receiveChecksum = specification.newChecksum();
     }
     //================================================================
 
@@ -348,9 +273,17 @@ public class CRCDataLinkLayer extends DataLinkLayer {
     private final byte startTag  = (byte)'{';
     private final byte stopTag   = (byte)'}';
     private final byte escapeTag = (byte)'\\';
-    private static final int generator = 0b10011;
-    private static final int generatorLength = 5;
-    private static boolean error = false;
+    private boolean error = false;
+    // Whether the bytes most recently parsed fell outside of any frame.
+    private boolean discarding = false;
+    // A frame carries many bytes, far more than the original 4-bit remainder
+    // can guard, so the default is CRC-32.
+    private CRCSpecification specification = CRCSpecification.CRC32;
+    // Sending and receiving may run on different threads, so each has its
+    // own checksum.
+    private Checksum sendChecksum = specification.newChecksum();
+    private Checksum receiveChecksum = specification.newChecksum();
+    private final FrameParser parser = new FrameParser(startTag, stopTag, escapeTag, false);
     // ===============================================================
 
 
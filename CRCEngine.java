@@ -0,0 +1,312 @@
+// =============================================================================
+/**
+ * A table-driven CRC calculator.  The remainder register is kept left-aligned
+ * in a <code>long</code>, so a single 256-entry table serves any generator of
+ * up to 64 bits, and eight such tables allow the register to consume eight
+ * data bytes per step (slicing-by-8).  A reflected engine processes each byte
+ * least significant bit first instead, keeping its register right-aligned and
+ * in reflected bit order.
+ *
+ * @file   CRCEngine.java
+ * @date   October 2026
+ */
+public class CRCEngine {
+// =============================================================================
+
+
+
+    // =========================================================================
+    // PUBLIC METHODS
+    // =========================================================================
+
+
+
+    // =========================================================================
+    /**
+     * The constructor.  Precompute the remainder tables for the given
+     * generator.
+     *
+     * @param width      The degree of the generator polynomial, which is also
+     *                   the number of bits in a remainder (1 to 64).
+     * @param polynomial The generator polynomial without its leading
+     *                   <code>x^width</code> term; e.g., <code>0b0011</code>
+     *                   for the generator <code>0b10011</code>.
+     * @throws RuntimeException if the width is out of range.
+     */
+    public CRCEngine (int width, long polynomial) {
+
+	this(width, polynomial, false);
+
+    } // CRCEngine ()
+    // =========================================================================
+
+
+
+    // =========================================================================
+    /**
+     * The constructor.  Precompute the remainder tables for the given
+     * generator, processing bytes in the given bit order.
+     *
+     * @param width      The degree of the generator polynomial (1 to 64).
+     * @param polynomial The generator polynomial without its leading term,
+     *                   written most significant bit first.
+     * @param reflected  Whether bytes are processed least significant bit
+     *                   first.
+     * @throws RuntimeException if the width is out of range.
+     */
+    public CRCEngine (int width, long polynomial, boolean reflected) {
+
+	if ((width < 1) || (width > Long.SIZE)) {
+	    throw new RuntimeException("Invalid CRC width " + width);
+	}
+
+	this.width     = width;
+	this.reflected = reflected;
+	this.shift     = reflected ? 0 : Long.SIZE - width;
+	this.mask      = (width == Long.SIZE) ? -1L : ((1L << width) - 1);
+	tables = new long[SLICES][TABLE_SIZE];
+
+	if (reflected) {
+
+	    // Mirror image of the construction below: the register shifts
+	    // right, and each byte enters at the bottom.
+	    long reflectedPolynomial =
+		Long.reverse(polynomial & mask) >>> (Long.SIZE - width);
+	    for (int b = 0; b < TABLE_SIZE; b += 1) {
+		long current = b;
+		for (int i = 0; i < BITS_PER_BYTE; i += 1) {
+		    if ((current & 1) != 0) {
+			current = (current >>> 1) ^ reflectedPolynomial;
+		    } else {
+			current = current >>> 1;
+		    }
+		}
+		tables[0][b] = current;
+	    }
+	    for (int k = 1; k < SLICES; k += 1) {
+		for (int b = 0; b < TABLE_SIZE; b += 1) {
+		    long previous = tables[k - 1][b];
+		    tables[k][b] = (previous >>> BITS_PER_BYTE) ^
+			           tables[0][(int)previous & 0xff];
+		}
+	    }
+	    return;
+
+	}
+
+	// The first table holds the remainder of each byte shifted through the
+	// register; each following table pushes that byte through one more
+	// zero byte.
+	long alignedPolynomial = (polynomial & mask) << shift;
+	for (int b = 0; b < TABLE_SIZE; b += 1) {
+	    long current = (long)b << (Long.SIZE - BITS_PER_BYTE);
+	    for (int i = 0; i < BITS_PER_BYTE; i += 1) {
+		if (current < 0) {
+		    current = (current << 1) ^ alignedPolynomial;
+		} else {
+		    current = current << 1;
+		}
+	    }
+	    tables[0][b] = current;
+	}
+	for (int k = 1; k < SLICES; k += 1) {
+	    for (int b = 0; b < TABLE_SIZE; b += 1) {
+		long previous = tables[k - 1][b];
+		tables[k][b] = (previous << BITS_PER_BYTE) ^
+		               tables[0][(int)(previous >>> (Long.SIZE - BITS_PER_BYTE))];
+	    }
+	}
+
+    } // CRCEngine ()
+    // =========================================================================
+
+
+
+    // =========================================================================
+    /**
+     * Feed a single byte through the remainder register.
+     *
+     * @param  crc  The current remainder, right-aligned.
+     * @param  data The byte to append.
+     * @return the new remainder, right-aligned.
+     */
+    public long update (long crc, byte data) {
+
+	if (reflected) {
+	    return (crc >>> BITS_PER_BYTE) ^ tables[0][(int)(crc ^ data) & 0xff];
+	}
+
+	long register = crc << shift;
+	register = (register << BITS_PER_BYTE) ^
+	           tables[0][(int)(register >>> (Long.SIZE - BITS_PER_BYTE)) ^
+			     (data & 0xff)];
+	return (register >>> shift) & mask;
+
+    } // update ()
+    // =========================================================================
+
+
+
+    // =========================================================================
+    /**
+     * Feed a run of bytes through the remainder register, eight at a time
+     * where possible.
+     *
+     * @param  crc    The current remainder, right-aligned.
+     * @param  data   The buffer holding the bytes to append.
+     * @param  offset The index of the first byte to append.
+     * @param  length The number of bytes to append.
+     * @return the new remainder, right-aligned.
+     */
+    public long update (long crc, byte[] data, int offset, int length) {
+
+	if (reflected) {
+	    return updateReflected(crc, data, offset, length);
+	}
+
+	long register = crc << shift;
+	int  i        = offset;
+	int  end      = offset + length;
+
+	// Consume whole 8-byte words through the sliced tables.
+	while (end - i >= SLICES) {
+	    register ^= ((long)(data[i]     & 0xff) << 56) |
+		        ((long)(data[i + 1] & 0xff) << 48) |
+		        ((long)(data[i + 2] & 0xff) << 40) |
+		        ((long)(data[i + 3] & 0xff) << 32) |
+		        ((long)(data[i + 4] & 0xff) << 24) |
+		        ((long)(data[i + 5] & 0xff) << 16) |
+		        ((long)(data[i + 6] & 0xff) <<  8) |
+		        ((long)(data[i + 7] & 0xff));
+	    register = tables[7][(int)(register >>> 56)]         ^
+		       tables[6][(int)(register >>> 48) & 0xff] ^
+		       tables[5][(int)(register >>> 40) & 0xff] ^
+		       tables[4][(int)(register >>> 32) & 0xff] ^
+		       tables[3][(int)(register >>> 24) & 0xff] ^
+		       tables[2][(int)(register >>> 16) & 0xff] ^
+		       tables[1][(int)(register >>>  8) & 0xff] ^
+		       tables[0][(int)register & 0xff];
+	    i += SLICES;
+	}
+
+	// Finish any remaining bytes one at a time.
+	while (i < end) {
+	    register = (register << BITS_PER_BYTE) ^
+		       tables[0][(int)(register >>> (Long.SIZE - BITS_PER_BYTE)) ^
+				 (data[i] & 0xff)];
+	    i += 1;
+	}
+
+	return (register >>> shift) & mask;
+
+    } // update ()
+    // =========================================================================
+
+
+
+    // =========================================================================
+    // The least-significant-bit-first counterpart of the sliced update.
+    private long updateReflected (long crc, byte[] data, int offset, int length) {
+
+	long register = crc;
+	int  i        = offset;
+	int  end      = offset + length;
+
+	while (end - i >= SLICES) {
+	    register ^= ((long)(data[i]     & 0xff))       |
+		        ((long)(data[i + 1] & 0xff) <<  8) |
+		        ((long)(data[i + 2] & 0xff) << 16) |
+		        ((long)(data[i + 3] & 0xff) << 24) |
+		        ((long)(data[i + 4] & 0xff) << 32) |
+		        ((long)(data[i + 5] & 0xff) << 40) |
+		        ((long)(data[i + 6] & 0xff) << 48) |
+		        ((long)(data[i + 7] & 0xff) << 56);
+	    register = tables[7][(int)register & 0xff]           ^
+		       tables[6][(int)(register >>>  8) & 0xff] ^
+		       tables[5][(int)(register >>> 16) & 0xff] ^
+		       tables[4][(int)(register >>> 24) & 0xff] ^
+		       tables[3][(int)(register >>> 32) & 0xff] ^
+		       tables[2][(int)(register >>> 40) & 0xff] ^
+		       tables[1][(int)(register >>> 48) & 0xff] ^
+		       tables[0][(int)(register >>> 56)];
+	    i += SLICES;
+	}
+
+	while (i < end) {
+	    register = (register >>> BITS_PER_BYTE) ^
+		       tables[0][(int)(register ^ data[i]) & 0xff];
+	    i += 1;
+	}
+
+	return register;
+
+    } // updateReflected ()
+    // =========================================================================
+
+
+
+    // =========================================================================
+    /**
+     * Calculate the remainder of a run of bytes, starting from a zero
+     * register.
+     *
+     * @param  data   The buffer holding the bytes.
+     * @param  offset The index of the first byte.
+     * @param  length The number of bytes.
+     * @return the remainder, right-aligned.
+     */
+    public long compute (byte[] data, int offset, int length) {
+
+	return update(0, data, offset, length);
+
+    } // compute ()
+    // =========================================================================
+
+
+
+    // =========================================================================
+    /**
+     * @return the number of bits in a remainder.
+     */
+    public int width () {
+
+	return width;
+
+    } // width ()
+    // =========================================================================
+
+
+
+    // =========================================================================
+    // DATA MEMBERS
+
+    /** The number of bits in a remainder. */
+    private final int      width;
+
+    /** Whether bytes are processed least significant bit first. */
+    private final boolean  reflected;
+
+    /** The distance by which a remainder is shifted to left-align it. */
+    private final int      shift;
+
+    /** A mask selecting the <code>width</code> low bits of a value. */
+    private final long     mask;
+
+    /** The remainder tables, one per byte position within a word. */
+    private final long[][] tables;
+
+    /** The number of bytes consumed per step of the sliced update. */
+    private static final int SLICES        = 8;
+
+    /** The number of entries in each remainder table. */
+    private static final int TABLE_SIZE    = 256;
+
+    /** The number of bits in a byte. */
+    private static final int BITS_PER_BYTE = 8;
+    // =========================================================================
+
+
+
+// =============================================================================
+} // class CRCEngine
+// =============================================================================
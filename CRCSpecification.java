@@ -0,0 +1,315 @@
+// =============================================================================
+// IMPORTS
+
+import java.util.zip.CRC32;
+import java.util.zip.CRC32C;
+import java.util.zip.Checksum;
+// =============================================================================
+
+
+
+// =============================================================================
+/**
+ * The parameters of a CRC algorithm in the usual Rocksoft form: the width and
+ * generator polynomial, the initial register value, whether input bytes and the
+ * final remainder are bit-reflected, and a value XORed into the result.
+ * Specifications hand out <code>Checksum</code> objects that compute them,
+ * backed by the JDK's intrinsic CRC-32 and CRC-32C where those match, and by a
+ * shared <code>CRCEngine</code> table otherwise.
+ *
+ * @file   CRCSpecification.java
+ * @date   October 2026
+ */
+public class CRCSpecification {
+// =============================================================================
+
+
+
+    // =========================================================================
+    // PUBLIC METHODS
+    // =========================================================================
+
+
+
+    // =========================================================================
+    /**
+     * Look up one of the predefined specifications by name.  The original
+     * layer's generator is also known as <code>"LEGACY"</code>.
+     *
+     * @param  name The name of the specification, e.g. <code>"CRC-32"</code>.
+     * @return the matching specification.
+     * @throws RuntimeException if no predefined specification has that name.
+     */
+    public static CRCSpecification forName (String name) {
+
+	if (name.equalsIgnoreCase("LEGACY")) {
+	    return LEGACY;
+	}
+	CRCSpecification[] all = { LEGACY, CRC8, CRC16, CRC32, CRC32C, CRC64 };
+	for (int i = 0; i < all.length; i += 1) {
+	    if (all[i].name.equalsIgnoreCase(name)) {
+		return all[i];
+	    }
+	}
+	throw new RuntimeException("Unknown CRC specification " + name);
+
+    } // forName ()
+    // =========================================================================
+
+
+
+    // =========================================================================
+    /**
+     * The constructor.
+     *
+     * @param name       A descriptive name.
+     * @param width      The number of bits in the remainder (1 to 64).
+     * @param polynomial The generator without its leading term, unreflected.
+     * @param init       The initial register value, unreflected.
+     * @param reflectIn  Whether each input byte is processed least significant
+     *                   bit first.
+     * @param reflectOut Whether the final remainder is bit-reflected.
+     * @param xorOut     The value XORed into the final remainder.
+     */
+    public CRCSpecification (String  name,
+			     int     width,
+			     long    polynomial,
+			     long    init,
+			     boolean reflectIn,
+			     boolean reflectOut,
+			     long    xorOut) {
+
+	if ((width < 1) || (width > Long.SIZE)) {
+	    throw new RuntimeException("Invalid CRC width " + width);
+	}
+
+	this.name       = name;
+	this.width      = width;
+	this.polynomial = polynomial & mask(width);
+	this.init       = init & mask(width);
+	this.reflectIn  = reflectIn;
+	this.reflectOut = reflectOut;
+	this.xorOut     = xorOut & mask(width);
+
+    } // CRCSpecification ()
+    // =========================================================================
+
+
+
+    // =========================================================================
+    /**
+     * Create a calculator for this specification.  The returned object is not
+     * thread-safe, but the tables behind it are shared.
+     *
+     * @return a newly reset checksum.
+     */
+    public Checksum newChecksum () {
+
+	if (this == CRC32) {
+	    return new CRC32();
+	}
+	if (this == CRC32C) {
+	    return new CRC32C();
+	}
+	return new TableChecksum(this, engine());
+
+    } // newChecksum ()
+    // =========================================================================
+
+
+
+    // =========================================================================
+    /**
+     * @return the number of whole bytes needed to carry a remainder.
+     */
+    public int checkBytes () {
+
+	return (width + BITS_PER_BYTE - 1) / BITS_PER_BYTE;
+
+    } // checkBytes ()
+    // =========================================================================
+
+
+
+    // =========================================================================
+    /**
+     * @return the descriptive name of this specification.
+     */
+    public String name () {
+
+	return name;
+
+    } // name ()
+    // =========================================================================
+
+
+
+    // =========================================================================
+    public String toString () {
+
+	return name;
+
+    } // toString ()
+    // =========================================================================
+
+
+
+    // =========================================================================
+    // PRIVATE METHODS
+    // =========================================================================
+
+
+
+    // =========================================================================
+    // Build the remainder tables on first use, then share them.
+    private synchronized CRCEngine engine () {
+
+	if (engine == null) {
+	    engine = new CRCEngine(width, polynomial, reflectIn);
+	}
+	return engine;
+
+    } // engine ()
+    // =========================================================================
+
+
+
+    // =========================================================================
+    // A mask selecting the low bits of a value of the given width.
+    private static long mask (int width) {
+
+	return (width == Long.SIZE) ? -1L : ((1L << width) - 1);
+
+    } // mask ()
+    // =========================================================================
+
+
+
+    // =========================================================================
+    // Reverse the low bits of a value of the given width.
+    private static long reflect (long value, int width) {
+
+	return Long.reverse(value) >>> (Long.SIZE - width);
+
+    } // reflect ()
+    // =========================================================================
+
+
+
+    // =========================================================================
+    /**
+     * A checksum that runs a specification through its table engine.
+     */
+    private static class TableChecksum implements Checksum {
+
+	TableChecksum (CRCSpecification specification, CRCEngine engine) {
+
+	    this.specification = specification;
+	    this.engine        = engine;
+	    reset();
+
+	}
+
+	public void update (int b) {
+
+	    register = engine.update(register, (byte)b);
+
+	}
+
+	public void update (byte[] b, int off, int len) {
+
+	    register = engine.update(register, b, off, len);
+
+	}
+
+	public long getValue () {
+
+	    // A reflected engine holds its register in reflected order.
+	    long value = register;
+	    if (specification.reflectIn != specification.reflectOut) {
+		value = reflect(value, specification.width);
+	    }
+	    return value ^ specification.xorOut;
+
+	}
+
+	public void reset () {
+
+	    register = specification.reflectIn
+		? reflect(specification.init, specification.width)
+		: specification.init;
+
+	}
+
+	private final CRCSpecification specification;
+	private final CRCEngine        engine;
+	private long                   register;
+
+    } // class TableChecksum
+    // =========================================================================
+
+
+
+    // =========================================================================
+    // DATA MEMBERS
+
+    /** The generator used by the original CRC layer: x^4 + x + 1. */
+    public static final CRCSpecification LEGACY =
+	new CRCSpecification("CRC-4", 4, 0x3L, 0, false, false, 0);
+
+    /** CRC-8/SMBUS. */
+    public static final CRCSpecification CRC8 =
+	new CRCSpecification("CRC-8", 8, 0x07L, 0, false, false, 0);
+
+    /** CRC-16/IBM-3740, also known as CRC-16/CCITT-FALSE. */
+    public static final CRCSpecification CRC16 =
+	new CRCSpecification("CRC-16", 16, 0x1021L, 0xffffL, false, false, 0);
+
+    /** CRC-32/ISO-HDLC, as used by Ethernet and zip. */
+    public static final CRCSpecification CRC32 =
+	new CRCSpecification("CRC-32", 32, 0x04c11db7L, 0xffffffffL,
+			     true, true, 0xffffffffL);
+
+    /** CRC-32C (Castagnoli). */
+    public static final CRCSpecification CRC32C =
+	new CRCSpecification("CRC-32C", 32, 0x1edc6f41L, 0xffffffffL,
+			     true, true, 0xffffffffL);
+
+    /** CRC-64/XZ. */
+    public static final CRCSpecification CRC64 =
+	new CRCSpecification("CRC-64", 64, 0x42f0e1eba9ea3693L, -1L,
+			     true, true, -1L);
+
+    /** A descriptive name. */
+    private final String    name;
+
+    /** The number of bits in the remainder. */
+    private final int       width;
+
+    /** The generator without its leading term. */
+    private final long      polynomial;
+
+    /** The initial register value. */
+    private final long      init;
+
+    /** Whether input bytes are processed least significant bit first. */
+    private final boolean   reflectIn;
+
+    /** Whether the final remainder is bit-reflected. */
+    private final boolean   reflectOut;
+
+    /** The value XORed into the final remainder. */
+    private final long      xorOut;
+
+    /** The remainder tables, built on first use. */
+    private CRCEngine       engine;
+
+    /** The number of bits in a byte. */
+    private static final int BITS_PER_BYTE = 8;
+    // =========================================================================
+
+
+
+// =============================================================================
+} // class CRCSpecification
+// =============================================================================
@@ -1,10 +1,9 @@
 // =============================================================================
 // IMPORTS
 
-import java.util.LinkedList;
-import java.util.Queue;
 import java.lang.reflect.Constructor;
 import java.lang.reflect.InvocationTargetException;
+import java.util.Arrays;
 // =============================================================================
 
 
@@ -86,8 +85,9 @@ public abstract class DataLinkLayer {
 	dataLinkLayer.register(host);
 	
 	// Create incoming buffer space.
-	dataLinkLayer.bitBuffer  = new LinkedList<Boolean>();
-	dataLinkLayer.byteBuffer = new LinkedList<Byte>();
+	dataLinkLayer.bitBuffer  = 0;
+	dataLinkLayer.bitCount   = 0;
+	dataLinkLayer.byteBuffer = new ByteRing();
 	return dataLinkLayer;
 
     } // create ()
@@ -116,16 +116,30 @@ public abstract class DataLinkLayer {
     // =========================================================================
     /**
      * Send a sequence of bytes through the physical layer.  Expected to be
-     * called by the client.
+     * called by the client.  The data is divided into frames carrying at most
+     * <code>maxFrameSize</code> bytes each.
      *
      * @param data The sequence of bytes to send.
      */
     public void send (byte[] data) {
 
-	// Call on the underlying physical layer to send the data.
-	byte[] framedData = createFrame(data);
-	for (int i = 0; i < framedData.length; i += 1) {
-	    transmit(framedData[i]);
+	// Call on the underlying physical layer to send the data, one frame's
+	// worth at a time.
+	for (int start = 0; start < data.length; start += maxFrameSize) {
+
+	    int    length  = Math.min(maxFrameSize, data.length - start);
+	    byte[] payload = data;
+	    if (length != data.length) {
+		payload = new byte[length];
+		System.arraycopy(data, start, payload, 0, length);
+	    }
+
+	    long   began      = System.nanoTime();
+	    byte[] framedData = createFrame(payload);
+	    transmit(framedData, 0, framedData.length);
+	    metrics().framesSent.increment();
+	    metrics().frameLatency.record(System.nanoTime() - began);
+
 	}
 
     }
@@ -133,6 +147,158 @@ public abstract class DataLinkLayer {
 
 
 
+    // =========================================================================
+    /**
+     * Set the largest number of data bytes that a single frame may carry.
+     * Larger frames amortize the tags and check bytes over more data, while
+     * smaller ones lose less to each detected error.
+     *
+     * @param  maxFrameSize The maximum payload per frame, in bytes.
+     * @throws RuntimeException if the size is not positive.
+     */
+    public void setMaxFrameSize (int maxFrameSize) {
+
+	if (maxFrameSize < 1) {
+	    throw new RuntimeException("Invalid maximum frame size " +
+				       maxFrameSize);
+	}
+	this.maxFrameSize = maxFrameSize;
+
+    } // setMaxFrameSize ()
+    // =========================================================================
+
+
+
+    // =========================================================================
+    /**
+     * @return the largest number of data bytes that a single frame may carry.
+     */
+    public int getMaxFrameSize () {
+
+	return maxFrameSize;
+
+    } // getMaxFrameSize ()
+    // =========================================================================
+
+
+
+    // =========================================================================
+    /**
+     * Choose how frames are delimited: by start and stop tags, with an escape
+     * byte before any data byte that looks like a tag, or by consistent
+     * overhead byte stuffing, with a zero byte after each frame.  Stuffing
+     * adds at most one byte per 254, however the data is made up, while
+     * escaping can nearly double data full of tag bytes.  Layers whose frames
+     * carry no tags ignore the choice.  Both ends must make the same choice.
+     *
+     * @param  framing Either <code>TAG_FRAMING</code> or
+     *                 <code>COBS_FRAMING</code>.
+     * @throws RuntimeException if the framing is unknown.
+     */
+    public void setFraming (int framing) {
+
+	if ((framing != TAG_FRAMING) && (framing != COBS_FRAMING)) {
+	    throw new RuntimeException("Unknown framing " + framing);
+	}
+	this.framing = framing;
+
+    } // setFraming ()
+    // =========================================================================
+
+
+
+    // =========================================================================
+    /**
+     * @return how frames are delimited: <code>TAG_FRAMING</code> or
+     *         <code>COBS_FRAMING</code>.
+     */
+    public int getFraming () {
+
+	return framing;
+
+    } // getFraming ()
+    // =========================================================================
+
+
+
+    // =========================================================================
+    /**
+     * Choose whether detected errors are described on standard output.  Many
+     * simulations run side by side should be quiet and consult
+     * <code>getErrorsDetected()</code> instead.
+     *
+     * @param verbose Whether to print a message for each detected error.
+     */
+    public void setVerbose (boolean verbose) {
+
+	this.verbose = verbose;
+
+    } // setVerbose ()
+    // =========================================================================
+
+
+
+    // =========================================================================
+    /**
+     * Choose what a layer does once it detects an error.  By default, layers
+     * that keep no other means of recovery refuse every later frame.  While
+     * resynchronizing, a layer drops only the damaged frame, hunts for the
+     * start of the next one, and goes on accepting frames, so that a long
+     * run on a noisy medium loses only the frames that were damaged.
+     *
+     * @param resynchronizing Whether to go on after a damaged frame.
+     */
+    public void setResynchronizing (boolean resynchronizing) {
+
+	this.resynchronizing = resynchronizing;
+
+    } // setResynchronizing ()
+    // =========================================================================
+
+
+
+    // =========================================================================
+    /**
+     * @return whether this layer goes on after a damaged frame.
+     */
+    public boolean isResynchronizing () {
+
+	return resynchronizing;
+
+    } // isResynchronizing ()
+    // =========================================================================
+
+
+
+    // =========================================================================
+    /**
+     * @return for each error detected, the number of bytes that had been
+     *         received when it was detected, in order.  The damaged frame
+     *         ends at or just before that offset.
+     */
+    public long[] getLossOffsets () {
+
+	return Arrays.copyOf(lossOffsets, (int)Math.min(errorsDetected,
+							 lossOffsets.length));
+
+    } // getLossOffsets ()
+    // =========================================================================
+
+
+
+    // =========================================================================
+    /**
+     * @return the number of errors this layer has detected in received data.
+     */
+    public long getErrorsDetected () {
+
+	return errorsDetected;
+
+    } // getErrorsDetected ()
+    // =========================================================================
+
+
+
     // =========================================================================
     /**
      * Embed a raw sequence of bytes into a framed sequence.
@@ -159,16 +325,28 @@ public abstract class DataLinkLayer {
 			      data);
 	}
 
-	// Transmit one bit at a time, most to least significant.
-	for (int i = BITS_PER_BYTE - 1; i >= 0; i -= 1) {
+	// Transmit the whole byte as one word, most to least significant bit.
+	physicalLayer.send(data & 0xff, BITS_PER_BYTE);
 
-	    // Grab the current bit...
-	    boolean bit = ((1 << i) & data) != 0;
+    }
+    // =========================================================================
 
-	    // ...and send it.
-	    physicalLayer.send(bit);
 
-	}
+
+    // =========================================================================
+    /**
+     * Transmit a run of bytes as bits, packed into a stream that the physical
+     * layer and the medium carry as a whole.
+     *
+     * @param data   The buffer holding the bytes to send.
+     * @param offset The index of the first byte to send.
+     * @param length The number of bytes to send.
+     */
+    protected void transmit (byte[] data, int offset, int length) {
+
+	BitStream stream = new BitStream(length * BITS_PER_BYTE);
+	stream.append(data, offset, length);
+	physicalLayer.send(stream);
 
     }
     // =========================================================================
@@ -179,9 +357,7 @@ public abstract class DataLinkLayer {
     /**
      * Deliver a bit into this layer.  Expected to be called by the physical
      * layer.  Accumulate bits into a buffer, and with each full byte received,
-     * accumulate those bits into a byte buffer.  Each byte added to the buffer
-     * is examined to determine whether a whole frame has been received, and if
-     * so, then processed.
+     * add that byte to the byte buffer.
      *
      * @param bit The value to receive, where <code>false</code> indicates a
      *            <code>0</code>, and <code>true</code> indicates a
@@ -189,37 +365,111 @@ public abstract class DataLinkLayer {
      */
     public void receive (boolean bit) {
 
-	// Add the new bit to the buffer.
-	bitBuffer.add(bit);
+	// Shift the new bit into the buffer.
+	bitBuffer = (bitBuffer << 1) | (bit ? 1 : 0);
+	bitCount += 1;
 
 	// If this bit completes a byte, then add it to the byte buffer.
-	if (bitBuffer.size() >= BITS_PER_BYTE) {
+	if (bitCount == BITS_PER_BYTE) {
+	    bitCount = 0;
+	    receive((byte)bitBuffer);
+	}
 
-	    // Build up the byte from the bits...
-	    byte newByte = 0;
-	    for (int i = 0; i < BITS_PER_BYTE; i += 1) {
-		bit = bitBuffer.remove();
-		newByte = (byte)((newByte << 1) | (bit ? 1 : 0));
-	    }
+    } // receive ()
+    // =========================================================================
 
-	    // ...and add it to the byte buffer.
-	    byteBuffer.add(newByte);
-	    if (debug) {
-		System.out.printf("DataLinkLayer.receive(): Got new byte = %c\n",
-				  newByte);
+
+
+    // =========================================================================
+    /**
+     * Deliver a word of bits into this layer.  Expected to be called by the
+     * physical layer.  The bits, most significant first, are shifted into the
+     * bit buffer as many at a time as will complete its current byte.
+     *
+     * @param bits  The bits received, right-aligned.
+     * @param count The number of bits received (1 to 64).
+     */
+    public void receive (long bits, int count) {
+
+	while (count > 0) {
+
+	    // Take as many of the leading bits as fit in the current byte.
+	    int taken = Math.min(BITS_PER_BYTE - bitCount, count);
+	    count    -= taken;
+	    bitBuffer = (bitBuffer << taken) |
+		        (int)((bits >>> count) & ((1 << taken) - 1));
+	    bitCount += taken;
+
+	    if (bitCount == BITS_PER_BYTE) {
+		bitCount = 0;
+		receive((byte)bitBuffer);
 	    }
 
-	    // Attempt to process the buffered bytes as a frame.  If a complete
-	    // frame is found and its contents extraction, deliver those
-        // contents to the client.
-	    byte[] originalData = processFrame();
-	    if (originalData != null) {
-		if (debug) {
-		    System.out.println("DataLinkLayer.receive(): Got a whole frame!");
-		}
-		client.receive(originalData);
+	}
+
+    } // receive ()
+    // =========================================================================
+
+
+
+    // =========================================================================
+    /**
+     * Deliver a stream of bits into this layer.  Expected to be called by the
+     * physical layer.  If no byte is partly assembled, the stream's whole
+     * bytes are read out directly; any other bits go through the bit buffer.
+     *
+     * @param stream The bits received.
+     */
+    public void receive (BitStream stream) {
+
+	int from = 0;
+	if (bitCount == 0) {
+	    int    bytes    = stream.length() / BITS_PER_BYTE;
+	    byte[] received = new byte[bytes];
+	    stream.readBytes(0, received, 0, bytes);
+	    for (int i = 0; i < bytes; i += 1) {
+		receive(received[i]);
 	    }
+	    from = bytes * BITS_PER_BYTE;
+	}
+	for (; from < stream.length(); from += Long.SIZE) {
+	    int count = Math.min(Long.SIZE, stream.length() - from);
+	    receive(stream.bits(from, count), count);
+	}
 
+    } // receive ()
+    // =========================================================================
+
+
+
+    // =========================================================================
+    /**
+     * Accept a completed byte into the byte buffer.  Each byte added to the
+     * buffer is examined to determine whether a whole frame has been received,
+     * and if so, then processed.
+     *
+     * @param newByte The byte most recently assembled from received bits.
+     */
+    protected void receive (byte newByte) {
+
+	// Add the byte to the byte buffer.
+	byteBuffer.add(newByte);
+	bytesReceived += 1;
+	if (debug) {
+	    System.out.printf("DataLinkLayer.receive(): Got new byte = %c\n",
+			      newByte & 0xff);
+	}
+
+	// Attempt to process the buffered bytes as a frame.  If a complete
+	// frame is found and its contents extraction, deliver those
+	// contents to the client.
+	byte[] originalData = processFrame();
+	if (originalData != null) {
+	    metrics().framesAccepted.increment();
+	    if (debug) {
+		System.out.println("DataLinkLayer.receive(): Got a whole frame!");
+	    }
+	    client.receive(originalData);
 	}
 
     } // receive ()
@@ -241,6 +491,109 @@ public abstract class DataLinkLayer {
 
 
 
+    // =========================================================================
+    /**
+     * Delimit a frame by consistent overhead byte stuffing.  Expected to be
+     * called by a subclass's <code>createFrame()</code> when
+     * <code>COBS_FRAMING</code> is chosen.
+     *
+     * @param  contents The frame's contents: data, check bytes, and so on.
+     * @param  length   The number of bytes of contents.
+     * @return the encoded contents, followed by a zero byte.
+     */
+    protected byte[] stuffFrame (byte[] contents, int length) {
+
+	byte[] encoded = new byte[COBS.maxEncodedLength(length) + 1];
+	int    size    = COBS.encode(contents, 0, length, encoded, 0);
+	encoded[size]  = COBS.DELIMITER;
+	metrics().escapesInserted.add(size - length);
+
+	return (size + 1 == encoded.length) ? encoded
+	                                    : Arrays.copyOf(encoded, size + 1);
+
+    } // stuffFrame ()
+    // =========================================================================
+
+
+
+    // =========================================================================
+    /**
+     * Extract a frame delimited by consistent overhead byte stuffing.
+     * Expected to be called by a subclass's <code>processFrame()</code> when
+     * <code>COBS_FRAMING</code> is chosen.  If the most recently received
+     * byte ends a frame, the frame is removed from the byte buffer and its
+     * decoded contents are left at the start of <code>stuffedFrame</code>.
+     *
+     * @return the number of bytes of contents, <code>NO_FRAME</code> if no
+     *         frame has ended, or <code>BAD_FRAME</code> if the frame that
+     *         ended is malformed.
+     */
+    protected int unstuffFrame () {
+
+	int size = byteBuffer.size();
+	if ((size == 0) || (byteBuffer.get(size - 1) != COBS.DELIMITER)) {
+	    return NO_FRAME;
+	}
+
+	if (stuffedFrame.length < size) {
+	    stuffedFrame = new byte[Math.max(size, 2 * stuffedFrame.length)];
+	}
+	byteBuffer.copyTo(0, stuffedFrame, 0, size - 1);
+	byteBuffer.discard(size);
+
+	int length = COBS.decode(stuffedFrame, 0, size - 1, stuffedFrame, 0);
+	return (length < 0) ? BAD_FRAME : length;
+
+    } // unstuffFrame ()
+    // =========================================================================
+
+
+
+    // =========================================================================
+    /**
+     * Record that an error was detected in received data, describing it if
+     * this layer is verbose.  Expected to be called by a subclass once for
+     * each error it detects.
+     *
+     * @param message The description of the error.
+     */
+    protected void reportError (String message) {
+
+	if (errorsDetected < MAX_LOSS_OFFSETS) {
+	    if (errorsDetected == lossOffsets.length) {
+		lossOffsets = Arrays.copyOf(lossOffsets, 2 * lossOffsets.length);
+	    }
+	    lossOffsets[(int)errorsDetected] = bytesReceived;
+	}
+	errorsDetected += 1;
+	metrics().framesRejected.increment();
+	if (verbose) {
+	    if (resynchronizing) {
+		System.out.printf("%s Dropped at byte %d.%n", message,
+				  bytesReceived);
+	    } else {
+		System.out.println(message);
+	    }
+	}
+
+    } // reportError ()
+    // =========================================================================
+
+
+
+    // =========================================================================
+    /**
+     * @return the counters into which this layer records its activity.
+     */
+    protected Metrics metrics () {
+
+	return physicalLayer.getMetrics();
+
+    } // metrics ()
+    // =========================================================================
+
+
+
     // =========================================================================
     // DATA MEMBERS
 
@@ -250,11 +603,61 @@ public abstract class DataLinkLayer {
     /** The host that is using this layer. */
     protected Host           client;
 
-    /** The buffer of bits recently received, building up the current byte. */
-    protected Queue<Boolean> bitBuffer;
+    /** The bits recently received, building up the current byte. */
+    protected int            bitBuffer;
+
+    /** The number of bits in <code>bitBuffer</code>. */
+    protected int            bitCount;
 
     /** The buffer of bytes recently received, building up the current frame. */
-    protected Queue<Byte>    byteBuffer;
+    protected ByteRing       byteBuffer;
+
+    /** The largest number of data bytes carried by one frame. */
+    protected int            maxFrameSize = DEFAULT_MAX_FRAME_SIZE;
+
+    /** How frames are delimited: <code>TAG_FRAMING</code> or
+     *  <code>COBS_FRAMING</code>. */
+    protected int            framing      = TAG_FRAMING;
+
+    /** The decoded contents of the frame most recently extracted by
+     *  <code>unstuffFrame()</code>. */
+    protected byte[]         stuffedFrame = new byte[DEFAULT_MAX_FRAME_SIZE];
+
+    /** Whether to print a message for each detected error. */
+    private boolean          verbose = true;
+
+    /** The number of errors detected in received data. */
+    private long             errorsDetected;
+
+    /** Whether to go on after a damaged frame, rather than refuse every
+     *  later frame. */
+    protected boolean        resynchronizing;
+
+    /** The number of bytes assembled from received bits. */
+    protected long           bytesReceived;
+
+    /** The first <code>MAX_LOSS_OFFSETS</code> values of
+     *  <code>bytesReceived</code> at which errors were detected. */
+    private long[]           lossOffsets = new long[16];
+
+    /** Framing: start and stop tags, with escape bytes. */
+    public static final int     TAG_FRAMING  = 0;
+
+    /** Framing: consistent overhead byte stuffing, with a zero after each
+     *  frame. */
+    public static final int     COBS_FRAMING = 1;
+
+    /** Result of <code>unstuffFrame()</code>: no frame has ended yet. */
+    protected static final int  NO_FRAME     = -1;
+
+    /** Result of <code>unstuffFrame()</code>: the frame is malformed. */
+    protected static final int  BAD_FRAME    = -2;
+
+    /** The most loss offsets recorded. */
+    public static final int     MAX_LOSS_OFFSETS = 1 << 20;
+
+    /** The default for the largest number of data bytes per frame. */
+    public static final int     DEFAULT_MAX_FRAME_SIZE = 64;
 
     /** The number of bits in a byte. */
     public static final int     BITS_PER_BYTE = 8;
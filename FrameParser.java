@@ -0,0 +1,266 @@
+// =============================================================================
+/**
+ * An incremental parser for frames delimited by start and stop tags, with an
+ * escape tag marking literal bytes.  The parser keeps its state between calls,
+ * so each received byte is examined exactly once, no matter how long the frame
+ * grows.  Optionally, each data byte is followed by one unescaped check
+ * byte.
+ *
+ * @file   FrameParser.java
+ * @date   October 2026
+ */
+public class FrameParser {
+// =============================================================================
+
+
+
+    // =========================================================================
+    // PUBLIC METHODS
+    // =========================================================================
+
+
+
+    // =========================================================================
+    /**
+     * The constructor.
+     *
+     * @param startTag           The byte that begins a frame.
+     * @param stopTag            The byte that ends a frame.
+     * @param escapeTag          The byte that makes the following byte literal.
+     * @param checkAfterEachByte Whether every data byte is followed by a raw
+     *                           check byte that is never escaped.
+     */
+    public FrameParser (byte    startTag,
+			byte    stopTag,
+			byte    escapeTag,
+			boolean checkAfterEachByte) {
+
+	this.startTag           = startTag;
+	this.stopTag            = stopTag;
+	this.escapeTag          = escapeTag;
+	this.checkAfterEachByte = checkAfterEachByte;
+	this.frame              = new byte[INITIAL_CAPACITY];
+	this.length             = 0;
+	this.state              = HUNTING;
+
+    } // FrameParser ()
+    // =========================================================================
+
+
+
+    // =========================================================================
+    /**
+     * Advance the parser by one received byte.  Outside a frame:
+     *   (a) A start tag begins a new frame.
+     *   (b) Anything else is discarded.
+     * Inside a frame, the byte is...
+     *   (a) An escape tag: The following byte is taken as literal data.
+     *   (b) A stop tag:    The frame is complete.
+     *   (c) A start tag:   All that precedes is damaged, so extraction
+     *                      restarts.
+     *   (d) Otherwise:     Taken as literal data.
+     * A check byte is always taken as is, unless it is a start tag, which
+     * means that the expected stop tag was damaged.
+     *
+     * @param  current The byte received.
+     * @return one of <code>INCOMPLETE</code>, <code>COMPLETE</code>,
+     *         <code>DISCARDED</code>, <code>RESTARTED</code>, or
+     *         <code>ABORTED</code>.
+     */
+    public int accept (byte current) {
+
+	switch (state) {
+
+	case HUNTING:
+	    if (current != startTag) {
+		return DISCARDED;
+	    }
+	    length = 0;
+	    state  = IN_FRAME;
+	    return INCOMPLETE;
+
+	case IN_FRAME:
+	    if (current == escapeTag) {
+		state = AFTER_ESCAPE;
+		return INCOMPLETE;
+	    } else if (current == stopTag) {
+		state = HUNTING;
+		return COMPLETE;
+	    } else if (current == startTag) {
+		length = 0;
+		return RESTARTED;
+	    }
+	    append(current);
+	    return INCOMPLETE;
+
+	case AFTER_ESCAPE:
+	    append(current);
+	    return INCOMPLETE;
+
+	default: // AWAITING_CHECK
+	    if (current == startTag) {
+		length = 0;
+		state  = IN_FRAME;
+		return ABORTED;
+	    }
+	    frameByte(current);
+	    state = IN_FRAME;
+	    return INCOMPLETE;
+
+	}
+
+    } // accept ()
+    // =========================================================================
+
+
+
+    // =========================================================================
+    /**
+     * Abandon any partial frame and return to hunting for a start tag.
+     */
+    public void reset () {
+
+	length = 0;
+	state  = HUNTING;
+
+    } // reset ()
+    // =========================================================================
+
+
+
+    // =========================================================================
+    /**
+     * @return the buffer holding the contents of the current frame, without
+     *         its tags; only the first <code>length()</code> bytes are valid.
+     */
+    public byte[] frame () {
+
+	return frame;
+
+    } // frame ()
+    // =========================================================================
+
+
+
+    // =========================================================================
+    /**
+     * @return the number of bytes of frame contents gathered so far.
+     */
+    public int length () {
+
+	return length;
+
+    } // length ()
+    // =========================================================================
+
+
+
+    // =========================================================================
+    /**
+     * @return the parser's current state: <code>HUNTING</code>,
+     *         <code>IN_FRAME</code>, <code>AFTER_ESCAPE</code>, or
+     *         <code>AWAITING_CHECK</code>.
+     */
+    public int state () {
+
+	return state;
+
+    } // state ()
+    // =========================================================================
+
+
+
+    // =========================================================================
+    // PRIVATE METHODS
+    // =========================================================================
+
+
+
+    // =========================================================================
+    // Take a data byte, then expect its check byte if there is one.
+    private void append (byte value) {
+
+	frameByte(value);
+	state = checkAfterEachByte ? AWAITING_CHECK : IN_FRAME;
+
+    } // append ()
+    // =========================================================================
+
+
+
+    // =========================================================================
+    // Add a byte to the frame contents, growing the buffer if needed.
+    private void frameByte (byte value) {
+
+	if (length == frame.length) {
+	    byte[] larger = new byte[frame.length << 1];
+	    System.arraycopy(frame, 0, larger, 0, length);
+	    frame = larger;
+	}
+	frame[length++] = value;
+
+    } // frameByte ()
+    // =========================================================================
+
+
+
+    // =========================================================================
+    // DATA MEMBERS
+
+    /** Parser state: outside any frame, looking for a start tag. */
+    public static final int HUNTING        = 0;
+
+    /** Parser state: inside a frame. */
+    public static final int IN_FRAME       = 1;
+
+    /** Parser state: the previous byte was an escape tag. */
+    public static final int AFTER_ESCAPE   = 2;
+
+    /** Parser state: the previous byte was data, and its check byte is next. */
+    public static final int AWAITING_CHECK = 3;
+
+    /** Result: more bytes are needed to complete the frame. */
+    public static final int INCOMPLETE     = 0;
+
+    /** Result: a stop tag completed the frame. */
+    public static final int COMPLETE       = 1;
+
+    /** Result: a byte outside any frame was ignored. */
+    public static final int DISCARDED      = 2;
+
+    /** Result: a start tag inside a frame dropped its partial contents. */
+    public static final int RESTARTED      = 3;
+
+    /** Result: a start tag in place of a check byte dropped a damaged frame. */
+    public static final int ABORTED        = 4;
+
+    /** The byte that begins a frame. */
+    private final byte      startTag;
+
+    /** The byte that ends a frame. */
+    private final byte      stopTag;
+
+    /** The byte that makes the following byte literal. */
+    private final byte      escapeTag;
+
+    /** Whether every data byte is followed by a raw check byte. */
+    private final boolean   checkAfterEachByte;
+
+    /** The contents of the current frame. */
+    private byte[]          frame;
+
+    /** The number of valid bytes in <code>frame</code>. */
+    private int             length;
+
+    /** The current parser state. */
+    private int             state;
+
+    /** The initial size of the frame buffer. */
+    private static final int INITIAL_CAPACITY = 64;
+    // =========================================================================
+
+
+
+// =============================================================================
+} // class FrameParser
+// =============================================================================
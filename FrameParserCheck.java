@@ -0,0 +1,96 @@
+// =============================================================================
+// IMPORTS
+
+import java.nio.charset.StandardCharsets;
+// =============================================================================
+
+
+
+// =============================================================================
+/**
+ * The self-check for <code>FrameParser</code>: frames pulled from between
+ * their tags, escapes, restarts, and check bytes.
+ *
+ * @file   FrameParserCheck.java
+ * @date   October 2026
+ */
+public class FrameParserCheck extends SelfCheck {
+// =============================================================================
+
+
+
+    // =========================================================================
+    // PACKAGE METHODS
+    // =========================================================================
+
+
+
+    // =========================================================================
+    /**
+     * The frame parser must pull frames out from between their tags, honour
+     * escapes, restart on a stray start tag, and discard what is outside.
+     */
+    static void run () {
+
+	FrameParser parser = new FrameParser((byte)'{', (byte)'}', (byte)'\\',
+					     false);
+	check("FrameParser discards bytes outside a frame",
+	      parse(parser, "x") == FrameParser.DISCARDED);
+	check("FrameParser completes a frame",
+	      (parse(parser, "{a\\}b\\\\c}") == FrameParser.COMPLETE) &&
+	      contents(parser).equals("a}b\\c"));
+	check("FrameParser restarts on a start tag",
+	      (parse(parser, "{ab{") == FrameParser.RESTARTED) &&
+	      (parse(parser, "cd}") == FrameParser.COMPLETE) &&
+	      contents(parser).equals("cd"));
+
+	FrameParser checked = new FrameParser((byte)'{', (byte)'}', (byte)'\\',
+					      true);
+	check("FrameParser takes a check byte after each data byte",
+	      (parse(checked, "{a}b\\}") == FrameParser.COMPLETE) &&
+	      contents(checked).equals("a}b\\"));
+	check("FrameParser aborts on a start tag for a check byte",
+	      (parse(checked, "{a{") == FrameParser.ABORTED) &&
+	      (checked.state() == FrameParser.IN_FRAME));
+
+    } // run ()
+    // =========================================================================
+
+
+
+    // =========================================================================
+    // PRIVATE METHODS
+    // =========================================================================
+
+
+
+    // =========================================================================
+    // Feed the characters of a string to a parser, returning the result of
+    // the last.
+    private static int parse (FrameParser parser, String input) {
+
+	int result = FrameParser.INCOMPLETE;
+	for (int i = 0; i < input.length(); i += 1) {
+	    result = parser.accept((byte)input.charAt(i));
+	}
+	return result;
+
+    } // parse ()
+    // =========================================================================
+
+
+
+    // =========================================================================
+    private static String contents (FrameParser parser) {
+
+	return new String(parser.frame(), 0, parser.length(),
+			  StandardCharsets.US_ASCII);
+
+    } // contents ()
+    // =========================================================================
+
+
+
+// =============================================================================
+} // class FrameParserCheck
+// =============================================================================
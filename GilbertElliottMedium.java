@@ -0,0 +1,353 @@
+// =============================================================================
+// IMPORTS
+
+import java.util.SplittableRandom;
+// =============================================================================
+
+
+
+// =============================================================================
+/**
+ * A medium whose errors come in bursts, following the Gilbert-Elliott model.
+ * The channel is in either a good or a bad state, each with its own bit error
+ * probability, and moves between them with fixed per-bit probabilities.
+ * Rather than deciding each bit separately, the medium draws how long it stays
+ * in each state and how far it is to each error, and skips between those
+ * events.
+ *
+ * @file   GilbertElliottMedium.java
+ * @date   October 2026
+ */
+public class GilbertElliottMedium extends Medium implements Medium.Noise {
+// =============================================================================
+
+
+
+    // =========================================================================
+    // PUBLIC METHODS
+    // =========================================================================
+
+
+
+    // =========================================================================
+    /**
+     * The constructor.  Start in the good state with the default parameters,
+     * seeded from an unpredictable source.
+     */
+    public GilbertElliottMedium () {
+
+	random = new SplittableRandom();
+	enterState(GOOD);
+
+    } // GilbertElliottMedium ()
+    // =========================================================================
+
+
+
+    // =========================================================================
+    /**
+     * Send a bit from one client to the other clients, flipping it if the
+     * channel says so.
+     *
+     * @param sender The client physical layer sending the bit.
+     * @param bit The value to be sent, where <code>false</code> sends a
+     *            <code>0</code> bit, and <code>true</code> sends a
+     *            <code>1</code> bit.
+     * @throws RuntimeException if the sender is not registered with this
+     *                          medium.
+     */
+    public void transmit (PhysicalLayer sender, boolean bit) {
+
+	transmit(sender, bit ? 1 : 0, 1);
+
+    } // transmit ()
+    // =========================================================================
+
+
+
+    // =========================================================================
+    /**
+     * Send a word of bits from one client to the other clients.  Each
+     * delivery advances the channel by the number of bits in the word.
+     *
+     * @param sender The client physical layer sending the bits.
+     * @param bits   The bits to send, right-aligned, the most significant of
+     *               them first.
+     * @param count  The number of bits to send (1 to 64).
+     * @throws RuntimeException if the sender is not registered with this
+     *                          medium.
+     */
+    public void transmit (PhysicalLayer sender, long bits, int count) {
+
+	transmit(sender, bits, count, this);
+
+    } // transmit ()
+    // =========================================================================
+
+
+
+    // =========================================================================
+    /**
+     * Send a stream of bits from one client to the other clients.  Each
+     * delivery advances the channel by the length of the stream, and a copy
+     * that the channel leaves alone is delivered as it is.
+     *
+     * @param sender The client physical layer sending the bits.
+     * @param stream The bits to send.
+     * @throws RuntimeException if the sender is not registered with this
+     *                          medium.
+     */
+    public void transmit (PhysicalLayer sender, BitStream stream) {
+
+	transmit(sender, stream, this);
+
+    } // transmit ()
+    // =========================================================================
+
+
+
+    // =========================================================================
+    /**
+     * Restart the channel in the good state from the given seed, so that a
+     * run can be reproduced.
+     *
+     * @param seed The seed for the channel.
+     */
+    public void setSeed (long seed) {
+
+	random = new SplittableRandom(seed);
+	enterState(GOOD);
+
+    } // setSeed ()
+    // =========================================================================
+
+
+
+    // =========================================================================
+    /**
+     * Set how likely the channel is to change state after each bit.
+     *
+     * @param goodToBad The probability of leaving the good state.
+     * @param badToGood The probability of leaving the bad state.
+     */
+    public void setTransitionProbabilities (double goodToBad, double badToGood) {
+
+	checkProbability(goodToBad);
+	checkProbability(badToGood);
+	leaveProbability[GOOD] = goodToBad;
+	leaveProbability[BAD]  = badToGood;
+	enterState(state);
+
+    } // setTransitionProbabilities ()
+    // =========================================================================
+
+
+
+    // =========================================================================
+    /**
+     * Set how likely a bit is to flip in each state.
+     *
+     * @param good The bit error probability in the good state.
+     * @param bad  The bit error probability in the bad state.
+     */
+    public void setErrorProbabilities (double good, double bad) {
+
+	checkProbability(good);
+	checkProbability(bad);
+	errorProbability[GOOD] = good;
+	errorProbability[BAD]  = bad;
+	enterState(state);
+
+    } // setErrorProbabilities ()
+    // =========================================================================
+
+
+
+    // =========================================================================
+    /**
+     * Scale the bit error probabilities of both states alike, so that the
+     * long-run rate, weighted by the time spent in each state, is the given
+     * probability.  A state's probability is capped at <code>1</code>.
+     *
+     * @param probability The overall probability that a bit will flip.
+     */
+    public void setErrorProbability (double probability) {
+
+	checkProbability(probability);
+	double leaving = leaveProbability[GOOD] + leaveProbability[BAD];
+	double bad     = (leaving == 0.0) ? 0.0 : leaveProbability[GOOD] / leaving;
+	double average = (1.0 - bad) * errorProbability[GOOD] +
+	                 bad * errorProbability[BAD];
+	if (average == 0.0) {
+	    setErrorProbabilities(probability, probability);
+	} else {
+	    double scale = probability / average;
+	    setErrorProbabilities(Math.min(1.0, errorProbability[GOOD] * scale),
+				  Math.min(1.0, errorProbability[BAD] * scale));
+	}
+
+    } // setErrorProbability ()
+    // =========================================================================
+
+
+
+    // =========================================================================
+    /**
+     * Advance the channel by some bits and determine which of them flip.
+     *
+     * @param  count The number of bits (1 to 64).
+     * @return a mask, aligned like a word of <code>count</code> bits sent most
+     *         significant first, with a <code>1</code> for each flipped bit.
+     */
+    public long mask (int count) {
+
+	long mask   = 0;
+	int  offset = 0;
+	while (offset < count) {
+
+	    // Take the bits that remain in the current state...
+	    int start = offset;
+	    int end   = offset + (int)Math.min(count - offset, stateRemaining);
+
+	    // ...flip those that the current error gap lands on...
+	    while (untilError < end - offset) {
+		offset    += (int)untilError;
+		mask      |= 1L << (count - 1 - offset);
+		offset    += 1;
+		untilError = NoiseGenerator.gap(random, errorProbability[state]);
+	    }
+	    untilError     -= end - offset;
+	    stateRemaining -= end - start;
+	    offset          = end;
+
+	    // ...and change state if its time is up.
+	    if (stateRemaining == 0) {
+		enterState(1 - state);
+	    }
+
+	}
+
+	return mask;
+
+    } // mask ()
+    // =========================================================================
+
+
+
+    // =========================================================================
+    /**
+     * Advance the channel past the next bits that are not flipped, stopping
+     * at the first that is.
+     *
+     * @param  count The most bits to pass over.
+     * @return the number of bits passed over; fewer than <code>count</code>
+     *         only if the next bit is flipped.
+     */
+    public long skip (long count) {
+
+	long skipped = 0;
+	while (skipped < count) {
+
+	    // Stop short at an error in the current state...
+	    long run = Math.min(count - skipped, stateRemaining);
+	    if (untilError < run) {
+		stateRemaining -= untilError;
+		skipped        += untilError;
+		untilError      = 0;
+		break;
+	    }
+
+	    // ...or pass over the rest of it, changing state if its time is up.
+	    untilError     -= run;
+	    stateRemaining -= run;
+	    skipped        += run;
+	    if (stateRemaining == 0) {
+		enterState(1 - state);
+	    }
+
+	}
+
+	return skipped;
+
+    } // skip ()
+    // =========================================================================
+
+
+
+    // =========================================================================
+    // PRIVATE METHODS
+    // =========================================================================
+
+
+
+    // =========================================================================
+    // Enter a state, drawing how long to stay there and where its first error
+    // falls.
+    private void enterState (int newState) {
+
+	state          = newState;
+	stateRemaining = NoiseGenerator.gap(random, leaveProbability[state]);
+	if (stateRemaining < Long.MAX_VALUE) {
+	    stateRemaining += 1;
+	}
+	untilError     = NoiseGenerator.gap(random, errorProbability[state]);
+
+    } // enterState ()
+    // =========================================================================
+
+
+
+    // =========================================================================
+    private static void checkProbability (double probability) {
+
+	if (!(probability >= 0.0) || !(probability <= 1.0)) {
+	    throw new RuntimeException("Invalid probability " + probability);
+	}
+
+    } // checkProbability ()
+    // =========================================================================
+
+
+
+    // =========================================================================
+    // DATA MEMBERS
+
+    /** The index of the good state. */
+    private static final int GOOD = 0;
+
+    /** The index of the bad state. */
+    private static final int BAD  = 1;
+
+    /** The default probabilities of leaving each state after a bit.  Bursts
+     *  last 100 bits on average, and the channel is bad about 1% of the
+     *  time. */
+    private static final double[] DEFAULT_LEAVE_PROBABILITY = { 0.0001, 0.01 };
+
+    /** The default bit error probabilities in each state, giving an overall
+     *  rate near that of <code>LowNoiseMedium</code>. */
+    private static final double[] DEFAULT_ERROR_PROBABILITY = { 0.00001, 0.1 };
+
+    /** The probability of leaving each state after a bit. */
+    private final double[] leaveProbability = DEFAULT_LEAVE_PROBABILITY.clone();
+
+    /** The bit error probability in each state. */
+    private final double[] errorProbability = DEFAULT_ERROR_PROBABILITY.clone();
+
+    /** The generator behind every draw. */
+    private SplittableRandom random;
+
+    /** The current state. */
+    private int              state;
+
+    /** The number of bits left before the channel changes state. */
+    private long             stateRemaining;
+
+    /** The number of correct bits remaining before the next error. */
+    private long             untilError;
+    // =========================================================================
+
+
+
+// =============================================================================
+} // class GilbertElliottMedium
+// =============================================================================
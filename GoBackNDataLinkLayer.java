@@ -0,0 +1,30 @@
+// =============================================================================
+/**
+ * A data link layer that recovers from errors by go-back-N: when a frame is
+ * lost, it and every frame sent after it are sent again, and the receiver
+ * accepts frames only in order.
+ *
+ * @file   GoBackNDataLinkLayer.java
+ * @date   October 2026
+ */
+public class GoBackNDataLinkLayer extends ARQDataLinkLayer {
+// =============================================================================
+
+
+
+    // =========================================================================
+    /**
+     * The constructor.
+     */
+    public GoBackNDataLinkLayer () {
+
+	super(false);
+
+    } // GoBackNDataLinkLayer ()
+    // =========================================================================
+
+
+
+// =============================================================================
+} // class GoBackNDataLinkLayer
+// =============================================================================
@@ -0,0 +1,126 @@
+// =============================================================================
+// IMPORTS
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+// =============================================================================
+
+
+
+// =============================================================================
+/**
+ * The self-check for the Hamming SECDED layer: single flipped bits corrected,
+ * double ones detected.
+ *
+ * @file   HammingCheck.java
+ * @date   October 2026
+ */
+public class HammingCheck extends SelfCheck {
+// =============================================================================
+
+
+
+    // =========================================================================
+    // PACKAGE METHODS
+    // =========================================================================
+
+
+
+    // =========================================================================
+    /**
+     * A Hamming frame must be delivered intact with any one bit flipped, and
+     * dropped with an error reported when two bits of one codeword flip.
+     */
+    static void run () {
+
+	SplittableRandom random  = new SplittableRandom(SEED);
+	byte[]           payload = randomBytes(random, 16);
+	byte[]           frame   = hammingHost().getDataLinkLayer()
+	    .createFrame(payload);
+
+	for (int bit = 0; bit < frame.length * Byte.SIZE; bit += 1) {
+	    Host   host     = hammingHost();
+	    byte[] received = flip(frame, bit);
+	    host.getDataLinkLayer().receive(stream(received));
+	    check("Hamming corrects bit " + bit,
+		  Arrays.equals(host.retrieve(), payload) &&
+		  (host.getDataLinkLayer().getErrorsDetected() == 0));
+	}
+
+	// Leave the length alone: a damaged length makes the receiver wait for
+	// a frame of the largest size.
+	for (int codeword = HAMMING_LENGTH_CODEWORDS; codeword < frame.length;
+	     codeword += 1) {
+	    int    first    = random.nextInt(Byte.SIZE);
+	    int    second   = (first + 1 + random.nextInt(Byte.SIZE - 1)) % Byte.SIZE;
+	    Host   host     = hammingHost();
+	    byte[] received = flip(flip(frame, codeword * Byte.SIZE + first),
+				   codeword * Byte.SIZE + second);
+	    host.getDataLinkLayer().receive(stream(received));
+	    check("Hamming flags two bits of codeword " + codeword,
+		  (host.retrieve().length == 0) &&
+		  (host.getDataLinkLayer().getErrorsDetected() == 1));
+	}
+
+    } // run ()
+    // =========================================================================
+
+
+
+    // =========================================================================
+    // PRIVATE METHODS
+    // =========================================================================
+
+
+
+    // =========================================================================
+    // A receiving host whose layer reports nothing.
+    private static Host hammingHost () {
+
+	Host host = new Host(Medium.create("Perfect"), "Hamming");
+	host.getDataLinkLayer().setVerbose(false);
+	return host;
+
+    } // hammingHost ()
+    // =========================================================================
+
+
+
+    // =========================================================================
+    // Copy a frame with one bit flipped, counting from the most significant
+    // bit of the first byte, as it is sent.
+    private static byte[] flip (byte[] frame, int bit) {
+
+	byte[] flipped = frame.clone();
+	flipped[bit / Byte.SIZE] ^= (byte)(0x80 >>> (bit % Byte.SIZE));
+	return flipped;
+
+    } // flip ()
+    // =========================================================================
+
+
+
+    // =========================================================================
+    private static BitStream stream (byte[] data) {
+
+	BitStream stream = new BitStream(data.length * Byte.SIZE);
+	stream.append(data, 0, data.length);
+	return stream;
+
+    } // stream ()
+    // =========================================================================
+
+
+
+    // =========================================================================
+    // DATA MEMBERS
+
+    /** The number of codewords that carry a Hamming frame's length. */
+    private static final int HAMMING_LENGTH_CODEWORDS = 4;
+    // =========================================================================
+
+
+
+// =============================================================================
+} // class HammingCheck
+// =============================================================================
@@ -0,0 +1,319 @@
+// =============================================================================
+/**
+ * A data link layer that corrects errors rather than merely detecting them.
+ * Each byte is sent as two bytes, one per nibble, each holding an extended
+ * Hamming (8,4) codeword: any single flipped bit in a codeword is corrected,
+ * and any two are detected.  Encoding and decoding are each a single table
+ * lookup per nibble.
+ *
+ * Start and stop tags could not themselves be protected, since one flipped
+ * bit would turn data into a tag or a tag into data, so frames are not
+ * tagged.  Instead, each frame begins with its payload length, encoded in the
+ * same way, and the receiver counts off that many bytes.  A frame holding an
+ * uncorrectable codeword is dropped, and the following frames are still
+ * accepted.  The medium never drops or inserts bits, so frames stay aligned;
+ * if a length itself is uncorrectable, the frame is taken to be of the
+ * maximum size, which keeps them aligned unless it was the last, shorter
+ * frame.  Both ends must therefore use the same maximum frame size.
+ *
+ * @file   HammingDataLinkLayer.java
+ * @date   October 2026
+ */
+public class HammingDataLinkLayer extends DataLinkLayer {
+// =============================================================================
+
+
+
+    // =========================================================================
+    /**
+     * Set the largest number of data bytes that a single frame may carry,
+     * which is limited by the two-byte length at the start of each frame.
+     *
+     * @param  maxFrameSize The maximum payload per frame, in bytes.
+     * @throws RuntimeException if the size is not positive or too large.
+     */
+    public void setMaxFrameSize (int maxFrameSize) {
+
+	if (maxFrameSize > MAX_FRAME_SIZE) {
+	    throw new RuntimeException("Invalid maximum frame size " +
+				       maxFrameSize);
+	}
+	super.setMaxFrameSize(maxFrameSize);
+
+    } // setMaxFrameSize ()
+    // =========================================================================
+
+
+
+    // =========================================================================
+    /**
+     * Encode the payload length and then each payload byte, two codewords per
+     * byte, most significant nibble first.
+     *
+     * @param  data The raw sequence of bytes to be framed.
+     * @return A complete frame.
+     */
+    protected byte[] createFrame (byte[] data) {
+
+	byte[] framedData = new byte[CODEWORDS_PER_BYTE *
+				     (LENGTH_BYTES + data.length)];
+	int    j          = 0;
+
+	for (int k = LENGTH_BYTES - 1; k >= 0; k -= 1) {
+	    j = encode(data.length >>> (k * BITS_PER_BYTE), framedData, j);
+	}
+	for (int i = 0; i < data.length; i += 1) {
+	    j = encode(data[i], framedData, j);
+	}
+
+	return framedData;
+
+    } // createFrame ()
+    // =========================================================================
+
+
+
+    // =========================================================================
+    /**
+     * Decode a frame once all of its bytes have arrived: first the length,
+     * then the payload, correcting single-bit errors along the way.
+     *
+     * @return If the buffer contains a complete frame, the extracted, original
+     *         data; <code>null</code> otherwise.
+     */
+    protected byte[] processFrame () {
+
+	// Read the length at the start of the frame.
+	if (expected < 0) {
+
+	    if (byteBuffer.size() < CODEWORDS_PER_BYTE * LENGTH_BYTES) {
+		return null;
+	    }
+	    // If the length is damaged, guess that the frame is full-sized, as
+	    // all but the last of a transmission are, and drop it.
+	    int length = decode(CODEWORDS_PER_BYTE * LENGTH_BYTES);
+	    damaged    = (length < 0) || (length > maxFrameSize);
+	    expected   = damaged ? maxFrameSize : length;
+
+	}
+
+	// Wait for the rest of the frame.
+	if (byteBuffer.size() < CODEWORDS_PER_BYTE * expected) {
+	    return null;
+	}
+
+	byte[]  extractedData = new byte[expected];
+	boolean intact        = true;
+	for (int j = 0; j < extractedData.length; j += 1) {
+	    int value = decode(CODEWORDS_PER_BYTE);
+	    intact          &= (value >= 0);
+	    extractedData[j] = (byte)value;
+	}
+	expected = -1;
+
+	if (damaged) {
+	    reportError("ERROR - Frame Length Uncorrectable.");
+	    return null;
+	}
+	if (!intact) {
+	    reportError("ERROR - Frame Has Uncorrectable Errors.");
+	    return null;
+	}
+	if (debug) {
+	    System.out.println("HammingDataLinkLayer.processFrame(): Got whole frame!");
+	}
+
+	return extractedData;
+
+    } // processFrame ()
+    // =========================================================================
+
+
+
+    // =========================================================================
+    // PRIVATE METHODS
+    // =========================================================================
+
+
+
+    // =========================================================================
+    // Write the two codewords for a byte into a frame.
+    private static int encode (int value, byte[] frame, int offset) {
+
+	frame[offset]     = ENCODE[(value >>> NIBBLE_BITS) & NIBBLE_MASK];
+	frame[offset + 1] = ENCODE[value & NIBBLE_MASK];
+	return offset + CODEWORDS_PER_BYTE;
+
+    } // encode ()
+    // =========================================================================
+
+
+
+    // =========================================================================
+    // Remove the given number of codewords from the byte buffer and combine
+    // their nibbles into a value, most significant first, correcting and
+    // counting single-bit errors.  Returns -1 if any codeword is beyond
+    // correction.
+    private int decode (int codewords) {
+
+	int     value     = 0;
+	int     corrected = 0;
+	boolean failed    = false;
+	for (int k = 0; k < codewords; k += 1) {
+	    int entry  = DECODE[byteBuffer.remove() & 0xff];
+	    value      = (value << NIBBLE_BITS) | (entry & NIBBLE_MASK);
+	    corrected += (entry & CORRECTED) != 0 ? 1 : 0;
+	    failed    |= (entry & FAILED) != 0;
+	}
+	if (corrected != 0) {
+	    metrics().bitsCorrected.add(corrected);
+	}
+
+	return failed ? -1 : value;
+
+    } // decode ()
+    // =========================================================================
+
+
+
+    // =========================================================================
+    // Build the codeword for each nibble.  Bits 1 through 7 of a codeword
+    // form a Hamming (7,4) code, with check bits at positions 1, 2, and 4 and
+    // data bits at 3, 5, 6, and 7; bit 0 makes the parity of the whole byte
+    // even.
+    private static byte[] encodeTable () {
+
+	byte[] table = new byte[1 << NIBBLE_BITS];
+	for (int nibble = 0; nibble < table.length; nibble += 1) {
+
+	    int codeword = 0;
+	    for (int d = 0; d < NIBBLE_BITS; d += 1) {
+		if ((nibble & (1 << d)) != 0) {
+		    codeword |= 1 << DATA_POSITIONS[d];
+		}
+	    }
+	    int syndrome = syndrome(codeword);
+	    for (int c = 0; c < CHECK_POSITIONS.length; c += 1) {
+		if ((syndrome & (1 << c)) != 0) {
+		    codeword |= 1 << CHECK_POSITIONS[c];
+		}
+	    }
+	    codeword |= Integer.bitCount(codeword) & 1;
+	    table[nibble] = (byte)codeword;
+
+	}
+	return table;
+
+    } // encodeTable ()
+    // =========================================================================
+
+
+
+    // =========================================================================
+    // Build the decoding of every byte: its corrected nibble, plus a flag for
+    // whether a bit was corrected or the codeword could not be.
+    private static int[] decodeTable () {
+
+	int[] table = new int[1 << BITS_PER_BYTE];
+	for (int received = 0; received < table.length; received += 1) {
+
+	    // The syndrome names the flipped position among bits 1 through 7;
+	    // the overall parity tells one flipped bit from two.
+	    int     syndrome = syndrome(received);
+	    boolean odd      = (Integer.bitCount(received) & 1) != 0;
+	    int     codeword = received;
+	    int     flags    = 0;
+	    if (odd) {
+		codeword ^= 1 << syndrome;
+		flags     = CORRECTED;
+	    } else if (syndrome != 0) {
+		flags     = FAILED;
+	    }
+
+	    int nibble = 0;
+	    for (int d = 0; d < NIBBLE_BITS; d += 1) {
+		if ((codeword & (1 << DATA_POSITIONS[d])) != 0) {
+		    nibble |= 1 << d;
+		}
+	    }
+	    table[received] = nibble | flags;
+
+	}
+	return table;
+
+    } // decodeTable ()
+    // =========================================================================
+
+
+
+    // =========================================================================
+    // Compute the syndrome of a codeword's bits 1 through 7: the XOR of the
+    // positions of its set bits, which is zero for a valid codeword and
+    // otherwise the position of a single flipped bit.
+    private static int syndrome (int codeword) {
+
+	int syndrome = 0;
+	for (int position = 1; position < BITS_PER_BYTE; position += 1) {
+	    if ((codeword & (1 << position)) != 0) {
+		syndrome ^= position;
+	    }
+	}
+	return syndrome;
+
+    } // syndrome ()
+    // =========================================================================
+
+
+
+    // =========================================================================
+    // DATA MEMBERS
+
+    /** The number of payload bytes in the frame being received, or
+     *  <code>-1</code> if its length has yet to arrive. */
+    private int     expected = -1;
+
+    /** Whether the length of the frame being received was uncorrectable. */
+    private boolean damaged  = false;
+
+    /** The number of bits in a nibble. */
+    private static final int NIBBLE_BITS        = 4;
+
+    /** A mask selecting the low nibble. */
+    private static final int NIBBLE_MASK        = (1 << NIBBLE_BITS) - 1;
+
+    /** The number of codewords sent for each byte. */
+    private static final int CODEWORDS_PER_BYTE = BITS_PER_BYTE / NIBBLE_BITS;
+
+    /** The number of bytes in a frame's length. */
+    private static final int LENGTH_BYTES       = 2;
+
+    /** The largest payload whose length fits in a frame. */
+    private static final int MAX_FRAME_SIZE     =
+	(1 << (LENGTH_BYTES * BITS_PER_BYTE)) - 1;
+
+    /** The positions in a codeword of the nibble's bits, least significant
+     *  first. */
+    private static final int[] DATA_POSITIONS   = { 3, 5, 6, 7 };
+
+    /** The positions in a codeword of the check bits, least significant
+     *  first. */
+    private static final int[] CHECK_POSITIONS  = { 1, 2, 4 };
+
+    /** Decoding flag: a single flipped bit was corrected. */
+    private static final int CORRECTED          = 1 << 8;
+
+    /** Decoding flag: two bits were flipped, so the nibble is unknown. */
+    private static final int FAILED             = 1 << 9;
+
+    /** The codeword for each nibble. */
+    private static final byte[] ENCODE          = encodeTable();
+
+    /** The decoding of each received byte. */
+    private static final int[]  DECODE          = decodeTable();
+    // =========================================================================
+
+
+
+// =============================================================================
+} // class HammingDataLinkLayer
+// =============================================================================
@@ -1,8 +1,11 @@
 // =============================================================================
 // IMPORTS
 
-import java.util.Queue;
-import java.util.LinkedList;
+import java.nio.ByteBuffer;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 // =============================================================================
 
 
@@ -29,13 +32,32 @@ public class Host {
     // =========================================================================
     public Host (Medium medium, String dataLinkLayerType) {
 
+	this(medium, dataLinkLayerType, false);
+
+    } // Host ()
+    // =========================================================================
+
+
+
+    // =========================================================================
+    /**
+     * The constructor.
+     *
+     * @param medium            The medium to which to connect.
+     * @param dataLinkLayerType The type of data link layer to use.
+     * @param direct            Whether to keep received bytes off-heap.
+     */
+    public Host (Medium medium, String dataLinkLayerType, boolean direct) {
+
 	this.medium        = medium;
 	this.physicalLayer = PhysicalLayer.create(medium);
 	this.dataLinkLayer = DataLinkLayer.create(dataLinkLayerType,
 						  this.physicalLayer,
 						  this);
 
-	this.buffer = new LinkedList<Byte>();
+	this.direct       = direct;
+	this.buffer       = allocate(INITIAL_CAPACITY);
+	this.readPosition = 0;
 
     } // Host ()
     // =========================================================================
@@ -44,19 +66,94 @@ public class Host {
 
     // =========================================================================
     /**
-     * Send a sequence of bytes.
+     * Send a sequence of bytes.  If the medium is asynchronous, the bytes are
+     * sent by this host's own thread, in the order given, and this method
+     * returns at once; the array must not be changed until
+     * <code>flush()</code> returns.
      *
      * @param data The sequence of bytes to send.
      */
     public void send (byte[] data) {
 
-	dataLinkLayer.send(data);
-	
+	if (!medium.isAsynchronous()) {
+	    dataLinkLayer.send(data);
+	    return;
+	}
+
+	synchronized (this) {
+	    if (sender == null) {
+		sender = Executors.newSingleThreadExecutor(task -> {
+		    Thread thread = new Thread(task, "Host-sender");
+		    thread.setDaemon(true);
+		    return thread;
+		});
+	    }
+	    lastSend = sender.submit(() -> dataLinkLayer.send(data));
+	}
+
     } // send ()
     // =========================================================================
 
 
 
+    // =========================================================================
+    /**
+     * Wait until everything sent by this host has been carried across the
+     * medium and passed up the receiving stacks.  Returns at once if the
+     * medium is synchronous.
+     *
+     * @throws RuntimeException if sending failed.
+     */
+    public void flush () {
+
+	Future<?> pending;
+	synchronized (this) {
+	    pending = lastSend;
+	}
+
+	if (pending != null) {
+	    try {
+		pending.get();
+	    } catch (InterruptedException e) {
+		Thread.currentThread().interrupt();
+		throw new RuntimeException("Interrupted while flushing");
+	    } catch (ExecutionException e) {
+		throw new RuntimeException("Send failed", e.getCause());
+	    }
+	}
+	medium.await();
+
+    } // flush ()
+    // =========================================================================
+
+
+
+    // =========================================================================
+    /**
+     * Wait, as <code>flush()</code> does, for everything sent, then stop this
+     * host's sending thread, if it has one.  A later send starts another.
+     *
+     * @throws RuntimeException if sending failed.
+     */
+    public void close () {
+
+	try {
+	    flush();
+	} finally {
+	    synchronized (this) {
+		if (sender != null) {
+		    sender.shutdown();
+		    sender   = null;
+		    lastSend = null;
+		}
+	    }
+	}
+
+    } // close ()
+    // =========================================================================
+
+
+
     // =========================================================================
     /**
      * Receive bytes from the lower layer.  Buffer those until they are
@@ -64,12 +161,12 @@ public class Host {
      *
      * @param data The data received and to be buffered.
      */
-    public void receive (byte[] data) {
+    public synchronized void receive (byte[] data) {
 
-	// Add the bytes into the buffer.
-	for (int i = 0; i < data.length; i += 1) {
-	    buffer.add(data[i]);
-	}
+	// Make room, then add the bytes into the buffer.
+	reserve(data.length);
+	buffer.put(data);
+	medium.getMetrics().bytesDelivered.add(data.length);
 	
     } // receive ()
     // =========================================================================
@@ -82,22 +179,166 @@ public class Host {
      *
      * @return the buffered bytes.
      */
-    public byte[] retrieve () {
+    public synchronized byte[] retrieve () {
 
-	// Remove the bytes from the buffer, adding them to a newly formed array
-	// to be returned.
-	byte[] received = new byte[buffer.size()];
-	for (int i = 0; i < received.length; i += 1) {
-	    received[i] = buffer.remove();
-	}
+	// Remove the bytes from the buffer, copying them into a newly formed
+	// array to be returned.
+	byte[] received = new byte[available()];
+	drain(received, 0, received.length);
 
 	return received;
 	
     } // retrieve ()
     // =========================================================================
+
+
+
+    // =========================================================================
+    /**
+     * Remove up to the given number of buffered bytes, copying them into an
+     * array.  Draining as data arrives keeps the buffer small.
+     *
+     * @param  dest   The array into which to copy.
+     * @param  offset The index in <code>dest</code> of the first byte copied.
+     * @param  length The largest number of bytes to copy.
+     * @return the number of bytes copied.
+     */
+    public synchronized int drain (byte[] dest, int offset, int length) {
+
+	int count = Math.min(length, available());
+	ByteBuffer source = buffer.duplicate();
+	source.position(readPosition);
+	source.get(dest, offset, count);
+	discard(count);
+
+	return count;
+
+    } // drain ()
+    // =========================================================================
+
+
+
+    // =========================================================================
+    /**
+     * Provide the buffered bytes without copying them.  The view remains valid
+     * only until the next call that receives, drains, or discards bytes, so
+     * on an asynchronous medium it should be taken only after
+     * <code>flush()</code>.
+     *
+     * @return a read-only buffer whose remaining bytes are those received and
+     *         not yet removed.
+     */
+    public synchronized ByteBuffer view () {
+
+	ByteBuffer view = buffer.asReadOnlyBuffer();
+	view.limit(buffer.position());
+	view.position(readPosition);
+
+	return view;
+
+    } // view ()
+    // =========================================================================
+
+
+
+    // =========================================================================
+    /**
+     * Remove buffered bytes without copying them, e.g. after reading them
+     * through <code>view()</code>.
+     *
+     * @param count The number of bytes to remove; if more than are buffered,
+     *              all of them.
+     */
+    public synchronized void discard (int count) {
+
+	readPosition += Math.min(count, available());
+
+	// Once everything has been consumed, start again from the front.
+	if (readPosition == buffer.position()) {
+	    buffer.clear();
+	    readPosition = 0;
+	}
+
+    } // discard ()
+    // =========================================================================
+
+
+
+    // =========================================================================
+    /**
+     * @return the number of bytes received and not yet removed.
+     */
+    public synchronized int available () {
+
+	return buffer.position() - readPosition;
+
+    } // available ()
+    // =========================================================================
+    
+
+
+    // =========================================================================
+    /**
+     * @return the data link layer in this host's network stack, so that
+     *         callers may configure it.
+     */
+    public DataLinkLayer getDataLinkLayer () {
+
+	return dataLinkLayer;
+
+    } // getDataLinkLayer ()
+    // =========================================================================
     
 
 
+    // =========================================================================
+    // PRIVATE METHODS
+    // =========================================================================
+
+
+
+    // =========================================================================
+    // Ensure that the buffer can accept the given number of further bytes,
+    // first by sliding the unread bytes to its front, then by growing it.
+    private void reserve (int count) {
+
+	if (buffer.remaining() >= count) {
+	    return;
+	}
+
+	int unread = available();
+	if ((long)unread + count > Integer.MAX_VALUE) {
+	    throw new RuntimeException("Receive buffer overflow");
+	}
+	buffer.limit(buffer.position());
+	buffer.position(readPosition);
+	if (buffer.capacity() < unread + count) {
+	    long capacity = Math.max((long)buffer.capacity() * 2, unread + count);
+	    ByteBuffer larger = allocate((int)Math.min(capacity, Integer.MAX_VALUE));
+	    larger.put(buffer);
+	    buffer = larger;
+	} else {
+	    buffer.compact();
+	}
+	readPosition = 0;
+
+    } // reserve ()
+    // =========================================================================
+
+
+
+    // =========================================================================
+    // Allocate buffer space of the configured kind.
+    private ByteBuffer allocate (int capacity) {
+
+	return direct ? ByteBuffer.allocateDirect(capacity)
+	              : ByteBuffer.allocate(capacity);
+
+    } // allocate ()
+    // =========================================================================
+
+
+
     // =========================================================================
     // DATA MEMBERS
 
@@ -110,8 +351,25 @@ public class Host {
     /** The data link layer in this host's network stack. */
     private DataLinkLayer dataLinkLayer;
 
-    /** The buffered bytes received via the network stack. */
-    private Queue<Byte>   buffer;
+    /** The bytes received via the network stack, written up to its position. */
+    private ByteBuffer    buffer;
+
+    /** The index in <code>buffer</code> of the first byte not yet removed. */
+    private int           readPosition;
+
+    /** Whether the buffer is allocated off-heap. */
+    private boolean       direct;
+
+    /** The thread that sends for this host while the medium is
+     *  asynchronous, created when first needed and stopped by
+     *  <code>close()</code>. */
+    private ExecutorService sender;
+
+    /** The most recent send handed to <code>sender</code>. */
+    private Future<?>       lastSend;
+
+    /** The initial size of the receive buffer. */
+    private static final int INITIAL_CAPACITY = 4096;
 
     /** Whether to emit debugging information. */
     private static final boolean debug = false;
@@ -0,0 +1,217 @@
+// =============================================================================
+// IMPORTS
+
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+// =============================================================================
+
+
+
+// =============================================================================
+/**
+ * A histogram of durations that many threads may record into at once.  Each
+ * power of two is split into a few equal sub-buckets, so a recorded value
+ * costs one bucket calculation and one striped increment, and percentiles are
+ * reported to within a quarter of their magnitude.
+ *
+ * @file   LatencyHistogram.java
+ * @date   October 2026
+ */
+public class LatencyHistogram {
+// =============================================================================
+
+
+
+    // =========================================================================
+    // PUBLIC METHODS
+    // =========================================================================
+
+
+
+    // =========================================================================
+    /**
+     * The constructor.  Start empty.
+     */
+    public LatencyHistogram () {
+
+	buckets = new LongAdder[BUCKETS];
+	for (int i = 0; i < BUCKETS; i += 1) {
+	    buckets[i] = new LongAdder();
+	}
+	max = new LongAccumulator(Math::max, 0);
+
+    } // LatencyHistogram ()
+    // =========================================================================
+
+
+
+    // =========================================================================
+    /**
+     * Record one duration.
+     *
+     * @param value The duration; negative values are taken as zero.
+     */
+    public void record (long value) {
+
+	value = Math.max(value, 0);
+	buckets[bucket(value)].increment();
+	max.accumulate(value);
+
+    } // record ()
+    // =========================================================================
+
+
+
+    // =========================================================================
+    /**
+     * @return the number of durations recorded.
+     */
+    public long count () {
+
+	long count = 0;
+	for (int i = 0; i < BUCKETS; i += 1) {
+	    count += buckets[i].sum();
+	}
+	return count;
+
+    } // count ()
+    // =========================================================================
+
+
+
+    // =========================================================================
+    /**
+     * @return the longest duration recorded, or <code>0</code> if none has
+     *         been.
+     */
+    public long max () {
+
+	return max.get();
+
+    } // max ()
+    // =========================================================================
+
+
+
+    // =========================================================================
+    /**
+     * Estimate a percentile of the recorded durations.
+     *
+     * @param  percentile The percentile, from 0 to 100.
+     * @return an upper bound of the durations in the bucket holding that
+     *         percentile, or <code>0</code> if nothing has been recorded.
+     */
+    public long percentile (double percentile) {
+
+	// Take a copy first, since recording may continue meanwhile.
+	long[] counts = new long[BUCKETS];
+	long   total  = 0;
+	for (int i = 0; i < BUCKETS; i += 1) {
+	    counts[i] = buckets[i].sum();
+	    total    += counts[i];
+	}
+	if (total == 0) {
+	    return 0;
+	}
+
+	long rank = Math.max(1, (long)Math.ceil(total * percentile / 100.0));
+	long seen = 0;
+	for (int i = 0; i < BUCKETS; i += 1) {
+	    seen += counts[i];
+	    if (seen >= rank) {
+		return Math.min(upperBound(i), max());
+	    }
+	}
+	return max();
+
+    } // percentile ()
+    // =========================================================================
+
+
+
+    // =========================================================================
+    /**
+     * Forget every recorded duration.  Durations recorded while resetting
+     * may or may not be kept.
+     */
+    public void reset () {
+
+	for (int i = 0; i < BUCKETS; i += 1) {
+	    buckets[i].reset();
+	}
+	max.reset();
+
+    } // reset ()
+    // =========================================================================
+
+
+
+    // =========================================================================
+    // PRIVATE METHODS
+    // =========================================================================
+
+
+
+    // =========================================================================
+    // Find the bucket of a value.  Values below the sub-bucket count have a
+    // bucket each; above that, the leading bit picks a power of two and the
+    // bits after it pick a sub-bucket.
+    private static int bucket (long value) {
+
+	if (value < SUB_BUCKETS) {
+	    return (int)value;
+	}
+	int magnitude = Long.SIZE - 1 - Long.numberOfLeadingZeros(value);
+	int sub       = (int)(value >>> (magnitude - SUB_BUCKET_BITS)) &
+	                (SUB_BUCKETS - 1);
+	return ((magnitude - SUB_BUCKET_BITS + 1) << SUB_BUCKET_BITS) + sub;
+
+    } // bucket ()
+    // =========================================================================
+
+
+
+    // =========================================================================
+    // Find the largest value that falls in a bucket.
+    private static long upperBound (int bucket) {
+
+	if (bucket < SUB_BUCKETS) {
+	    return bucket;
+	}
+	int  magnitude = (bucket >>> SUB_BUCKET_BITS) + SUB_BUCKET_BITS - 1;
+	long sub       = bucket & (SUB_BUCKETS - 1);
+	long width     = 1L << (magnitude - SUB_BUCKET_BITS);
+	long lowest    = (1L << magnitude) + (sub * width);
+	return (magnitude == Long.SIZE - 2) && (sub == SUB_BUCKETS - 1) ?
+	    Long.MAX_VALUE : lowest + width - 1;
+
+    } // upperBound ()
+    // =========================================================================
+
+
+
+    // =========================================================================
+    // DATA MEMBERS
+
+    /** The number of bits after the leading bit that select a sub-bucket. */
+    private static final int SUB_BUCKET_BITS = 2;
+
+    /** The number of sub-buckets per power of two. */
+    private static final int SUB_BUCKETS     = 1 << SUB_BUCKET_BITS;
+
+    /** The number of buckets needed to cover every non-negative long. */
+    private static final int BUCKETS         =
+	((Long.SIZE - 1 - SUB_BUCKET_BITS + 1) << SUB_BUCKET_BITS);
+
+    /** The count of durations in each bucket. */
+    private final LongAdder[]     buckets;
+
+    /** The longest duration recorded. */
+    private final LongAccumulator max;
+    // =========================================================================
+
+
+
+// =============================================================================
+} // class LatencyHistogram
+// =============================================================================
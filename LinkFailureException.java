@@ -0,0 +1,42 @@
+// =============================================================================
+/**
+ * Thrown when a data link layer gives up on the link, as an ARQ layer does
+ * when a frame goes unacknowledged after many attempts.  Unlike other
+ * failures, this is an expected outcome on a noisy enough link, and callers
+ * that measure how links fare may count it rather than stop.
+ *
+ * @file   LinkFailureException.java
+ * @date   October 2026
+ */
+public class LinkFailureException extends RuntimeException {
+// =============================================================================
+
+
+
+    // =========================================================================
+    /**
+     * The constructor.
+     *
+     * @param message A description of why the link was given up on.
+     */
+    public LinkFailureException (String message) {
+
+	super(message);
+
+    } // LinkFailureException ()
+    // =========================================================================
+
+
+
+    // =========================================================================
+    // DATA MEMBERS
+
+    /** The version of this class's serialized form. */
+    private static final long serialVersionUID = 1L;
+    // =========================================================================
+
+
+
+// =============================================================================
+} // class LinkFailureException
+// =============================================================================
@@ -1,11 +1,3 @@
-// =============================================================================
-// IMPORTS
-
-import java.util.Iterator;
-// =============================================================================
-
-
-
 // =============================================================================
 /**
  * A medium that occassionally flips a bit.
@@ -28,7 +20,7 @@ public class LowNoiseMedium extends Medium {
     // =========================================================================
     /**
      * Send a bit from one client to the other clients.  With some probability,
-     * flip a bit.
+     * flip the bit that each receiver gets.
      *
      * @param sender The client physical layer sending the bit.
      * @param bit The value to be sent, where <code>false</code> sends a
@@ -39,40 +31,97 @@ public class LowNoiseMedium extends Medium {
      */
     public void transmit (PhysicalLayer sender, boolean bit) {
 
-	// Only registered clients may send.
-	if (!clients.contains(sender)) {
-	    throw new RuntimeException("Unregistered sender on the medium");
-	}
-	
-	// Deliver the bit to each client that is not the sender.
-	Iterator<PhysicalLayer> clientIterator = clients.iterator();
-	while (clientIterator.hasNext()) {
-	    
-	    // With low probability, flip this bit.
-	    if (Math.random() < errorProbability) {
-		if (debug) {
-		    System.out.println("LowNoiseMedium.transmit(): Flipped bit!");
-		}
-		bit = !bit;
-	    }
-
-	    PhysicalLayer receiver = clientIterator.next();
-	    if (receiver != sender) {
-		receiver.receive(bit);
-	    }
-
-	}
+	transmit(sender, bit ? 1 : 0, 1);
 
     } // transmit ()
     // =========================================================================
 
 
 
+    // =========================================================================
+    /**
+     * Send a word of bits from one client to the other clients.  Each
+     * receiver's copy of each bit flips independently with the configured
+     * probability; the flips are gathered into a mask by skipping ahead to
+     * each error, and applied to the whole word at once.
+     *
+     * @param sender The client physical layer sending the bits.
+     * @param bits   The bits to send, right-aligned, the most significant of
+     *               them first.
+     * @param count  The number of bits to send (1 to 64).
+     * @throws RuntimeException if the sender is not registered with this
+     *                          medium.
+     */
+    public void transmit (PhysicalLayer sender, long bits, int count) {
+
+	transmit(sender, bits, count, noise);
+
+    } // transmit ()
+    // =========================================================================
+
+
+
+    // =========================================================================
+    /**
+     * Send a stream of bits from one client to the other clients.  Each
+     * receiver's copy of each bit flips independently with the configured
+     * probability, and a copy that the noise skips over entirely is delivered
+     * as it is.
+     *
+     * @param sender The client physical layer sending the bits.
+     * @param stream The bits to send.
+     * @throws RuntimeException if the sender is not registered with this
+     *                          medium.
+     */
+    public void transmit (PhysicalLayer sender, BitStream stream) {
+
+	transmit(sender, stream, noise);
+
+    } // transmit ()
+    // =========================================================================
+
+
+
+    // =========================================================================
+    /**
+     * Restart the error sequence from the given seed, so that a run can be
+     * reproduced.
+     *
+     * @param seed The seed for the noise.
+     */
+    public void setSeed (long seed) {
+
+	noise.setSeed(seed);
+
+    } // setSeed ()
+    // =========================================================================
+
+
+
+    // =========================================================================
+    /**
+     * Change the bit error rate.
+     *
+     * @param probability The probability that a bit will flip.
+     */
+    public void setErrorProbability (double probability) {
+
+	noise.setProbability(probability);
+
+    } // setErrorProbability ()
+    // =========================================================================
+
+
+
     // =========================================================================
     // DATA MEMBERS
 
-    // The probablity that a bit will flip.
-    private static final double errorProbability = 0.001;
+    /** The default probability that a bit will flip. */
+    public static final double DEFAULT_ERROR_PROBABILITY = 0.001;
+
+    /** The source of bit flips. */
+    private final NoiseGenerator noise =
+	new NoiseGenerator(DEFAULT_ERROR_PROBABILITY);
     // =========================================================================
 
 
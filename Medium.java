@@ -1,9 +1,7 @@
 // =============================================================================
 // IMPORTS
 
-import java.util.Collection;
-import java.util.LinkedList;
-import java.util.Queue;
+import java.util.Arrays;
 import java.lang.reflect.Constructor;
 import java.lang.reflect.InvocationTargetException;
 // =============================================================================
@@ -70,7 +68,9 @@ public abstract class Medium {
     // =========================================================================
     public Medium () {
 
-	clients = new LinkedList<PhysicalLayer>();
+	clients     = new PhysicalLayer[INITIAL_CLIENTS];
+	clientCount = 0;
+	metrics = Metrics.global();
 
     } // Medium ()
     // =========================================================================
@@ -86,16 +86,61 @@ public abstract class Medium {
      */
     public void register (PhysicalLayer client) {
 
+	if (isAsynchronous()) {
+	    throw new RuntimeException("Register while the medium is running");
+	}
+
 	// Only add this client if it is not already registered.
-	if (!clients.contains(client)) {
-	    clients.add(client);
+	if (isRegistered(client)) {
+	    return;
+	}
+
+	// Give the client the next identifier, which is its index in the
+	// registry.
+	if (clientCount == clients.length) {
+	    clients = Arrays.copyOf(clients, clientCount * 2);
 	}
+	client.id              = clientCount;
+	clients[clientCount++] = client;
 
     } // register ()
     // =========================================================================
 
 
 
+    // =========================================================================
+    /**
+     * @return the number of clients registered with this medium.
+     */
+    public int getClientCount () {
+
+	return clientCount;
+
+    } // getClientCount ()
+    // =========================================================================
+
+
+
+    // =========================================================================
+    /**
+     * Find a client by its identifier.
+     *
+     * @param  id The identifier given to the client when it registered.
+     * @return the client.
+     * @throws IndexOutOfBoundsException if there is no such client.
+     */
+    public PhysicalLayer getClient (int id) {
+
+	if ((id < 0) || (id >= clientCount)) {
+	    throw new IndexOutOfBoundsException("No client " + id);
+	}
+	return clients[id];
+
+    } // getClient ()
+    // =========================================================================
+
+
+
     // =========================================================================
     // Send a bit from one physical layer to others.
     abstract public void transmit (PhysicalLayer sender, boolean bit);
@@ -103,11 +148,732 @@ public abstract class Medium {
 
 
 
+    // =========================================================================
+    /**
+     * Send a word of bits from one physical layer to others.  By default, the
+     * bits are sent one at a time; subclasses should override this method to
+     * carry the whole word at once.
+     *
+     * @param sender The client physical layer sending the bits.
+     * @param bits   The bits to send, right-aligned, the most significant of
+     *               them first.
+     * @param count  The number of bits to send (1 to 64).
+     */
+    public void transmit (PhysicalLayer sender, long bits, int count) {
+
+	for (int i = count - 1; i >= 0; i -= 1) {
+	    transmit(sender, ((bits >>> i) & 1) != 0);
+	}
+
+    } // transmit ()
+    // =========================================================================
+
+
+
+    // =========================================================================
+    /**
+     * Send a stream of bits from one physical layer to others.  By default,
+     * the stream is sent a word at a time; subclasses should override this
+     * method to carry the whole stream at once.
+     *
+     * @param sender The client physical layer sending the bits.
+     * @param stream The bits to send.
+     */
+    public void transmit (PhysicalLayer sender, BitStream stream) {
+
+	for (int from = 0; from < stream.length(); from += Long.SIZE) {
+	    int count = Math.min(Long.SIZE, stream.length() - from);
+	    transmit(sender, stream.bits(from, count), count);
+	}
+
+    } // transmit ()
+    // =========================================================================
+
+
+
+    // =========================================================================
+    /**
+     * Seed any randomness in this medium, so that a run can be reproduced.
+     * Media without randomness ignore the seed.
+     *
+     * @param seed The seed for the medium's random number generator.
+     */
+    public void setSeed (long seed) {
+
+    } // setSeed ()
+    // =========================================================================
+
+
+
+    // =========================================================================
+    /**
+     * Set the overall probability that a bit flips, so that the same medium
+     * can be tried at different error rates.  Media whose noise cannot be
+     * adjusted refuse.
+     *
+     * @param probability The probability that a bit will flip.
+     * @throws RuntimeException if this medium's error rate cannot be set.
+     */
+    public void setErrorProbability (double probability) {
+
+	throw new RuntimeException(getClass().getName() +
+				   " has no adjustable error probability");
+
+    } // setErrorProbability ()
+    // =========================================================================
+
+
+
+    // =========================================================================
+    /**
+     * @return the counters into which this medium, and the layers and hosts
+     *         attached to it, record their activity.
+     */
+    public Metrics getMetrics () {
+
+	return metrics;
+
+    } // getMetrics ()
+    // =========================================================================
+
+
+
+    // =========================================================================
+    /**
+     * Record this medium's activity, and that of the layers and hosts
+     * attached to it, into the given counters rather than the global ones.
+     *
+     * @param metrics The counters to use.
+     */
+    public void setMetrics (Metrics metrics) {
+
+	this.metrics = metrics;
+
+    } // setMetrics ()
+    // =========================================================================
+
+
+
+    // =========================================================================
+    /**
+     * Record where this medium flips bits from now on, so that the errors can
+     * be replayed by a <code>ReplayMedium</code>.  Media without noise record
+     * nothing.
+     *
+     * @param recorder The recorder to use, or <code>null</code> to stop
+     *                 recording.
+     */
+    public void setRecorder (TraceRecorder recorder) {
+
+	this.recorder = recorder;
+
+    } // setRecorder ()
+    // =========================================================================
+
+
+
+    // =========================================================================
+    /**
+     * Switch to asynchronous operation.  Each client's outgoing words are
+     * queued rather than transmitted at once; one thread carries them across
+     * the medium, applying any noise, and queues them for each receiver; and
+     * each client has a thread of its own that passes its incoming words up
+     * its stack.  Encoding, the channel, and decoding thus run on separate
+     * cores, and clients may send at the same time.  Every client must be
+     * registered first.
+     *
+     * @throws RuntimeException if the medium is already asynchronous.
+     */
+    public synchronized void start () {
+
+	if (isAsynchronous()) {
+	    throw new RuntimeException("Medium already started");
+	}
+
+	stations = Arrays.copyOf(clients, clientCount);
+	for (PhysicalLayer station : stations) {
+	    station.outbound = new WordQueue(QUEUE_CAPACITY);
+	    station.inbound  = new WordQueue(QUEUE_CAPACITY);
+	}
+	failure = null;
+	running = true;
+
+	// One thread runs the channel for every sender...
+	threads    = new Thread[stations.length + 1];
+	threads[0] = new Thread(this::carry, getClass().getName());
+
+	// ...and one passes each receiver's words up its stack.
+	for (int i = 0; i < stations.length; i += 1) {
+	    PhysicalLayer station = stations[i];
+	    threads[i + 1] = new Thread(() -> receive(station),
+					getClass().getName() + "-receiver-" + i);
+	}
+
+	for (Thread thread : threads) {
+	    thread.setDaemon(true);
+	    thread.start();
+	}
+
+    } // start ()
+    // =========================================================================
+
+
+
+    // =========================================================================
+    /**
+     * Wait until every word sent has been carried and received, then return
+     * to synchronous operation.
+     *
+     * @throws RuntimeException if a thread of the medium failed.
+     */
+    public synchronized void stop () {
+
+	if (!isAsynchronous()) {
+	    return;
+	}
+
+	try {
+	    await();
+	} finally {
+	    running = false;
+	    for (Thread thread : threads) {
+		try {
+		    thread.join();
+		} catch (InterruptedException e) {
+		    Thread.currentThread().interrupt();
+		}
+	    }
+	    for (PhysicalLayer station : stations) {
+		station.outbound = null;
+		station.inbound  = null;
+	    }
+	    threads  = null;
+	    stations = null;
+	}
+
+    } // stop ()
+    // =========================================================================
+
+
+
+    // =========================================================================
+    /**
+     * Wait until every word sent so far has been carried across the medium
+     * and passed up the receiving stacks.  Returns at once if the medium is
+     * synchronous.
+     *
+     * @throws RuntimeException if a thread of the medium failed.
+     */
+    public void await () {
+
+	PhysicalLayer[] current = stations;
+	if (current == null) {
+	    return;
+	}
+
+	int idle = 0;
+	while (!isIdle(current)) {
+	    if (failure != null) {
+		throw new RuntimeException("Medium failed", failure);
+	    }
+	    idle = WordQueue.backOff(idle);
+	}
+	if (failure != null) {
+	    throw new RuntimeException("Medium failed", failure);
+	}
+
+    } // await ()
+    // =========================================================================
+
+
+
+    // =========================================================================
+    /**
+     * @return whether the medium is running asynchronously.
+     */
+    public boolean isAsynchronous () {
+
+	return stations != null;
+
+    } // isAsynchronous ()
+    // =========================================================================
+
+
+
+    // =========================================================================
+    // PROTECTED METHODS
+    // =========================================================================
+
+
+
+    // =========================================================================
+    /**
+     * Determine whether a client is registered with this medium, by its
+     * identifier rather than by a search.
+     *
+     * @param  client The physical layer to look for.
+     * @return <code>true</code> if it is registered.
+     */
+    protected boolean isRegistered (PhysicalLayer client) {
+
+	int id = client.getId();
+	return (id >= 0) && (id < clientCount) && (clients[id] == client);
+
+    } // isRegistered ()
+    // =========================================================================
+
+
+
+    // =========================================================================
+    /**
+     * Ensure that a sender is registered with this medium.
+     *
+     * @param  sender The client physical layer sending.
+     * @throws RuntimeException if the sender is not registered.
+     */
+    protected void checkSender (PhysicalLayer sender) {
+
+	if (!isRegistered(sender)) {
+	    throw new RuntimeException("Unregistered sender on the medium");
+	}
+
+    } // checkSender ()
+    // =========================================================================
+
+
+
+    // =========================================================================
+    /**
+     * Deliver a bit unchanged to every client but its sender.
+     *
+     * @param sender The client physical layer sending the bit.
+     * @param bit    The bit to deliver.
+     */
+    protected void broadcast (PhysicalLayer sender, boolean bit) {
+
+	for (int i = 0; i < clientCount; i += 1) {
+	    if (i != sender.getId()) {
+		deliver(clients[i], bit);
+	    }
+	}
+
+    } // broadcast ()
+    // =========================================================================
+
+
+
+    // =========================================================================
+    /**
+     * Deliver a word of bits unchanged to every client but its sender.
+     *
+     * @param sender The client physical layer sending the bits.
+     * @param bits   The bits to deliver, right-aligned, the most significant
+     *               of them first.
+     * @param count  The number of bits to deliver (1 to 64).
+     */
+    protected void broadcast (PhysicalLayer sender, long bits, int count) {
+
+	for (int i = 0; i < clientCount; i += 1) {
+	    if (i != sender.getId()) {
+		deliver(clients[i], bits, count);
+	    }
+	}
+
+    } // broadcast ()
+    // =========================================================================
+
+
+
+    // =========================================================================
+    /**
+     * Deliver a stream of bits unchanged to every client but its sender.
+     *
+     * @param sender The client physical layer sending the bits.
+     * @param stream The bits to deliver.
+     */
+    protected void broadcast (PhysicalLayer sender, BitStream stream) {
+
+	for (int i = 0; i < clientCount; i += 1) {
+	    if (i != sender.getId()) {
+		deliver(clients[i], stream);
+	    }
+	}
+
+    } // broadcast ()
+    // =========================================================================
+
+
+
+    // =========================================================================
+    /**
+     * Send a word of bits to every client but its sender, each receiver's copy
+     * flipped where the given noise says.
+     *
+     * @param sender The client physical layer sending the bits.
+     * @param bits   The bits to send, right-aligned, the most significant of
+     *               them first.
+     * @param count  The number of bits to send (1 to 64).
+     * @param noise  The source of the errors.
+     * @throws RuntimeException if the sender is not registered with this
+     *                          medium.
+     */
+    protected void transmit (PhysicalLayer sender, long bits, int count,
+			     Noise noise) {
+
+	// Only registered clients may send.
+	checkSender(sender);
+
+	for (int i = 0; i < clientCount; i += 1) {
+	    if (i != sender.getId()) {
+		long errors = noise.mask(count);
+		if (errors != 0) {
+		    metrics.bitsFlipped.add(Long.bitCount(errors));
+		}
+		noteErrors(errors, count);
+		deliver(clients[i], bits ^ errors, count);
+	    }
+	}
+
+    } // transmit ()
+    // =========================================================================
+
+
+
+    // =========================================================================
+    /**
+     * Send a stream of bits to every client but its sender, each receiver's
+     * copy flipped where the given noise says.  The noise first skips ahead
+     * over the bits it leaves alone, so a copy with no errors is delivered as
+     * it is; only a damaged copy has its error mask gathered, a word at a
+     * time, and applied.
+     *
+     * @param sender The client physical layer sending the bits.
+     * @param stream The bits to send.
+     * @param noise  The source of the errors.
+     * @throws RuntimeException if the sender is not registered with this
+     *                          medium.
+     */
+    protected void transmit (PhysicalLayer sender, BitStream stream,
+			     Noise noise) {
+
+	// Only registered clients may send.
+	checkSender(sender);
+
+	int length = stream.length();
+	for (int i = 0; i < clientCount; i += 1) {
+	    if (i == sender.getId()) {
+		continue;
+	    }
+
+	    int clean = (int)noise.skip(length);
+	    if (clean == length) {
+		noteClean(length);
+		deliver(clients[i], stream);
+		continue;
+	    }
+
+	    // The error mask is delivered before it is reused, so one serves
+	    // every receiver.
+	    errors.clear();
+	    for (int from = 0; from < clean; from += Long.SIZE) {
+		errors.append(0, Math.min(Long.SIZE, clean - from));
+	    }
+	    for (int from = clean; from < length; from += Long.SIZE) {
+		int count = Math.min(Long.SIZE, length - from);
+		errors.append(noise.mask(count), count);
+	    }
+	    noteErrors(errors);
+	    metrics.bitsFlipped.add(errors.bitCount());
+	    deliver(clients[i], stream.slice(0, length).xor(errors));
+	}
+
+    } // transmit ()
+    // =========================================================================
+
+
+
+    // =========================================================================
+    /**
+     * Note the errors applied to a word of bits delivered to one receiver, so
+     * that they can be recorded.  Noisy media should call this method for
+     * every word they deliver, in order, flipped or not.
+     *
+     * @param errors The error mask, right-aligned, with a <code>1</code> for
+     *               each flipped bit, most significant first.
+     * @param count  The number of bits delivered (1 to 64).
+     */
+    protected void noteErrors (long errors, int count) {
+
+	TraceRecorder current = recorder;
+	if (current != null) {
+	    current.record(errors, count);
+	}
+
+    } // noteErrors ()
+    // =========================================================================
+
+
+
+    // =========================================================================
+    /**
+     * Note the errors applied to a stream of bits delivered to one receiver,
+     * as <code>noteErrors(long, int)</code> does for a word.
+     *
+     * @param errors The error mask, with a <code>1</code> for each flipped
+     *               bit.
+     */
+    protected void noteErrors (BitStream errors) {
+
+	TraceRecorder current = recorder;
+	if (current != null) {
+	    current.record(errors);
+	}
+
+    } // noteErrors ()
+    // =========================================================================
+
+
+
+    // =========================================================================
+    /**
+     * Note that a run of bits was delivered to one receiver with no errors,
+     * as <code>noteErrors(long, int)</code> does for a word.
+     *
+     * @param count The number of bits delivered.
+     */
+    protected void noteClean (long count) {
+
+	TraceRecorder current = recorder;
+	if (current != null) {
+	    current.recordClean(count);
+	}
+
+    } // noteClean ()
+    // =========================================================================
+
+
+
+    // =========================================================================
+    /**
+     * Hand a bit that has crossed the medium to a receiver.  Subclasses should
+     * deliver every bit through this method, which passes it straight up the
+     * receiver's stack, or queues it if the medium is asynchronous.
+     *
+     * @param receiver The client physical layer receiving the bit.
+     * @param bit      The bit received.
+     */
+    protected void deliver (PhysicalLayer receiver, boolean bit) {
+
+	WordQueue inbound = receiver.inbound;
+	if (inbound != null) {
+	    inbound.put(bit ? 1 : 0, 1);
+	} else {
+	    receiver.receive(bit);
+	}
+
+    } // deliver ()
+    // =========================================================================
+
+
+
+    // =========================================================================
+    /**
+     * Hand a word of bits that has crossed the medium to a receiver.
+     * Subclasses should deliver every word through this method.
+     *
+     * @param receiver The client physical layer receiving the bits.
+     * @param bits     The bits received, right-aligned, the most significant
+     *                 of them first.
+     * @param count    The number of bits received (1 to 64).
+     */
+    protected void deliver (PhysicalLayer receiver, long bits, int count) {
+
+	WordQueue inbound = receiver.inbound;
+	if (inbound != null) {
+	    inbound.put(bits, count);
+	} else {
+	    receiver.receive(bits, count);
+	}
+
+    } // deliver ()
+    // =========================================================================
+
+
+
+    // =========================================================================
+    /**
+     * Hand a stream of bits that has crossed the medium to a receiver.
+     * Subclasses should deliver every stream through this method.
+     *
+     * @param receiver The client physical layer receiving the bits.
+     * @param stream   The bits received.
+     */
+    protected void deliver (PhysicalLayer receiver, BitStream stream) {
+
+	WordQueue inbound = receiver.inbound;
+	if (inbound != null) {
+	    for (int from = 0; from < stream.length(); from += Long.SIZE) {
+		int count = Math.min(Long.SIZE, stream.length() - from);
+		inbound.put(stream.bits(from, count), count);
+	    }
+	} else {
+	    receiver.receive(stream);
+	}
+
+    } // deliver ()
+    // =========================================================================
+
+
+
+    // =========================================================================
+    // PRIVATE METHODS
+    // =========================================================================
+
+
+
+    // =========================================================================
+    // The work of the channel thread: carry each sender's queued words across
+    // the medium, until stopped.
+    private void carry () {
+
+	WordQueue.Sink[] senders = new WordQueue.Sink[stations.length];
+	for (int i = 0; i < stations.length; i += 1) {
+	    PhysicalLayer sender = stations[i];
+	    senders[i] = (bits, count) -> transmit(sender, bits, count);
+	}
+
+	try {
+	    int idle = 0;
+	    while (running) {
+		int carried = 0;
+		for (int i = 0; i < stations.length; i += 1) {
+		    carried += stations[i].outbound.drainTo(senders[i]);
+		}
+		idle = (carried == 0) ? WordQueue.backOff(idle) : 0;
+	    }
+	} catch (Throwable t) {
+	    failure = t;
+	}
+
+    } // carry ()
+    // =========================================================================
+
+
+
+    // =========================================================================
+    // The work of a receiving thread: pass the station's queued words up its
+    // stack, until stopped.
+    private void receive (PhysicalLayer station) {
+
+	WordQueue.Sink stack = station::receive;
+	try {
+	    int idle = 0;
+	    while (running) {
+		int received = station.inbound.drainTo(stack);
+		idle = (received == 0) ? WordQueue.backOff(idle) : 0;
+	    }
+	} catch (Throwable t) {
+	    failure = t;
+	}
+
+    } // receive ()
+    // =========================================================================
+
+
+
+    // =========================================================================
+    // Determine whether nothing remains in flight: every sent word has been
+    // carried, and every carried word received.  Words are carried before
+    // they leave the outgoing queue, so the outgoing queues are checked first.
+    private static boolean isIdle (PhysicalLayer[] stations) {
+
+	for (PhysicalLayer station : stations) {
+	    if (!station.outbound.isEmpty()) {
+		return false;
+	    }
+	}
+	for (PhysicalLayer station : stations) {
+	    if (!station.inbound.isEmpty()) {
+		return false;
+	    }
+	}
+	return true;
+
+    } // isIdle ()
+    // =========================================================================
+
+
+
+    // =========================================================================
+    /**
+     * A source of bit errors, which a noisy medium draws on for each copy of
+     * the bits it delivers, in order.
+     */
+    public interface Noise {
+
+	/**
+	 * Determine which of the next bits are flipped.
+	 *
+	 * @param  count The number of bits (1 to 64).
+	 * @return a mask, aligned like a word of <code>count</code> bits sent
+	 *         most significant first, with a <code>1</code> for each
+	 *         flipped bit.
+	 */
+	long mask (int count);
+
+	/**
+	 * Pass over the next bits that are not flipped, stopping at the first
+	 * that is.
+	 *
+	 * @param  count The most bits to pass over.
+	 * @return the number of bits passed over; fewer than
+	 *         <code>count</code> only if the next bit is flipped.
+	 */
+	long skip (long count);
+
+    } // interface Noise
+    // =========================================================================
+
+
+
     // =========================================================================
     // DATA MEMBERS
 
-    /** The physical layer clients connected to the medium. */
-    protected Collection<PhysicalLayer> clients;    
+    /** The physical layer clients connected to the medium, each at the
+     *  index given by its identifier; only the first
+     *  <code>clientCount</code> entries are used. */
+    protected PhysicalLayer[]           clients;
+
+    /** The number of clients connected to the medium. */
+    protected int                       clientCount;
+
+    /** The counters into which activity on this medium is recorded. */
+    protected Metrics                   metrics;
+
+    /** The error mask applied to a damaged copy of a stream. */
+    private final BitStream             errors = new BitStream();
+
+    /** Where flipped bits are recorded, if anywhere. */
+    private volatile TraceRecorder      recorder;
+
+    /** While asynchronous, the clients, in a fixed order. */
+    private volatile PhysicalLayer[]    stations;
+
+    /** While asynchronous, the channel thread and then the receiving
+     *  threads. */
+    private Thread[]                    threads;
+
+    /** Whether the threads should keep running. */
+    private volatile boolean            running;
+
+    /** The first failure of any of the threads. */
+    private volatile Throwable          failure;
+
+    /** The room in the registry for clients when it is created. */
+    private static final int            INITIAL_CLIENTS = 4;
+
+    /** The number of words each queue can hold. */
+    private static final int            QUEUE_CAPACITY = 1 << 14;
 
     /** Whether to emit debugging information. */
     protected static final boolean debug = false;
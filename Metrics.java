@@ -0,0 +1,289 @@
+// =============================================================================
+// IMPORTS
+
+import java.lang.management.ManagementFactory;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import javax.management.JMException;
+import javax.management.ObjectName;
+// =============================================================================
+
+
+
+// =============================================================================
+/**
+ * Counters for the hot paths of a simulation: bits sent, received, and
+ * flipped; frames sent, accepted, and rejected; bits corrected; escape bytes
+ * inserted; bytes delivered; and the time taken to send each frame.  The
+ * counters are striped (<code>LongAdder</code>), so the many threads of
+ * parallel simulations update them without contending, and each update costs
+ * about as much as an ordinary increment.
+ *
+ * Every medium records into the shared instance returned by
+ * <code>global()</code> unless given its own, and the layers and hosts
+ * attached to a medium record into the medium's instance.  An instance may be
+ * read with <code>snapshot()</code>, or through JMX once registered.
+ *
+ * @file   Metrics.java
+ * @date   October 2026
+ */
+public class Metrics implements MetricsMBean {
+// =============================================================================
+
+
+
+    // =========================================================================
+    // PUBLIC METHODS
+    // =========================================================================
+
+
+
+    // =========================================================================
+    /**
+     * @return the instance shared by every medium not given its own, which is
+     *         registered with the platform MBean server as
+     *         <code>simulator:type=Metrics,name=global</code>.
+     */
+    public static Metrics global () {
+
+	return GLOBAL;
+
+    } // global ()
+    // =========================================================================
+
+
+
+    // =========================================================================
+    /**
+     * The constructor.  Start with every counter at zero.
+     */
+    public Metrics () {
+
+	bitsSent        = new LongAdder();
+	bitsReceived    = new LongAdder();
+	bitsFlipped     = new LongAdder();
+	framesSent      = new LongAdder();
+	framesAccepted  = new LongAdder();
+	framesRejected  = new LongAdder();
+	framesResent    = new LongAdder();
+	bitsCorrected   = new LongAdder();
+	escapesInserted = new LongAdder();
+	bytesDelivered  = new LongAdder();
+	frameLatency    = new LatencyHistogram();
+
+    } // Metrics ()
+    // =========================================================================
+
+
+
+    // =========================================================================
+    /**
+     * Expose these counters through the platform MBean server.
+     *
+     * @param  name The name by which to register them, which becomes the
+     *              <code>name</code> key of the object name.
+     * @throws RuntimeException if they cannot be registered, e.g. because the
+     *                          name is taken.
+     */
+    public void register (String name) {
+
+	try {
+	    ManagementFactory.getPlatformMBeanServer()
+		.registerMBean(this, objectName(name));
+	} catch (JMException e) {
+	    throw new RuntimeException("Could not register metrics " + name, e);
+	}
+
+    } // register ()
+    // =========================================================================
+
+
+
+    // =========================================================================
+    /**
+     * Stop exposing these counters through the platform MBean server.
+     *
+     * @param name The name by which they were registered.
+     */
+    public void unregister (String name) {
+
+	try {
+	    ManagementFactory.getPlatformMBeanServer()
+		.unregisterMBean(objectName(name));
+	} catch (JMException e) {
+	    throw new RuntimeException("Could not unregister metrics " + name, e);
+	}
+
+    } // unregister ()
+    // =========================================================================
+
+
+
+    // =========================================================================
+    /**
+     * Read every counter.  Counters are read one after another, so while
+     * updates continue the values need not be mutually consistent.
+     *
+     * @return the name and value of each counter, in a fixed order.
+     */
+    public Map<String, Long> snapshot () {
+
+	Map<String, Long> values = new LinkedHashMap<String, Long>();
+	values.put("bitsSent",           getBitsSent());
+	values.put("bitsReceived",       getBitsReceived());
+	values.put("bitsFlipped",        getBitsFlipped());
+	values.put("framesSent",         getFramesSent());
+	values.put("framesAccepted",     getFramesAccepted());
+	values.put("framesRejected",     getFramesRejected());
+	values.put("framesResent",       getFramesResent());
+	values.put("bitsCorrected",      getBitsCorrected());
+	values.put("escapesInserted",    getEscapesInserted());
+	values.put("bytesDelivered",     getBytesDelivered());
+	values.put("frameLatencyCount",  getFrameLatencyCount());
+	values.put("frameLatencyMedian", getFrameLatencyMedian());
+	values.put("frameLatency99",     getFrameLatency99());
+	values.put("frameLatencyMax",    getFrameLatencyMax());
+	return values;
+
+    } // snapshot ()
+    // =========================================================================
+
+
+
+    // =========================================================================
+    /**
+     * @return the counters, one <code>name=value</code> pair per line.
+     */
+    public String toString () {
+
+	StringBuilder text = new StringBuilder();
+	for (Map.Entry<String, Long> entry : snapshot().entrySet()) {
+	    text.append(entry.getKey()).append('=').append(entry.getValue())
+		.append('\n');
+	}
+	return text.toString();
+
+    } // toString ()
+    // =========================================================================
+
+
+
+    // =========================================================================
+    // MetricsMBean
+
+    public long getBitsSent ()           { return bitsSent.sum(); }
+    public long getBitsReceived ()       { return bitsReceived.sum(); }
+    public long getBitsFlipped ()        { return bitsFlipped.sum(); }
+    public long getFramesSent ()         { return framesSent.sum(); }
+    public long getFramesAccepted ()     { return framesAccepted.sum(); }
+    public long getFramesRejected ()     { return framesRejected.sum(); }
+    public long getFramesResent ()       { return framesResent.sum(); }
+    public long getBitsCorrected ()      { return bitsCorrected.sum(); }
+    public long getEscapesInserted ()    { return escapesInserted.sum(); }
+    public long getBytesDelivered ()     { return bytesDelivered.sum(); }
+    public long getFrameLatencyCount ()  { return frameLatency.count(); }
+    public long getFrameLatencyMedian () { return frameLatency.percentile(50); }
+    public long getFrameLatency99 ()     { return frameLatency.percentile(99); }
+    public long getFrameLatencyMax ()    { return frameLatency.max(); }
+
+    public void reset () {
+
+	bitsSent.reset();
+	bitsReceived.reset();
+	bitsFlipped.reset();
+	framesSent.reset();
+	framesAccepted.reset();
+	framesRejected.reset();
+	framesResent.reset();
+	bitsCorrected.reset();
+	escapesInserted.reset();
+	bytesDelivered.reset();
+	frameLatency.reset();
+
+    } // reset ()
+    // =========================================================================
+
+
+
+    // =========================================================================
+    // PRIVATE METHODS
+    // =========================================================================
+
+
+
+    // =========================================================================
+    private static ObjectName objectName (String name) throws JMException {
+
+	return new ObjectName("simulator:type=Metrics,name=" +
+			      ObjectName.quote(name));
+
+    } // objectName ()
+    // =========================================================================
+
+
+
+    // =========================================================================
+    // Make the shared instance, exposing it through JMX if possible.
+    private static Metrics createGlobal () {
+
+	Metrics metrics = new Metrics();
+	try {
+	    metrics.register("global");
+	} catch (RuntimeException e) {
+	    // Without JMX, the counters are still available by snapshot.
+	}
+	return metrics;
+
+    } // createGlobal ()
+    // =========================================================================
+
+
+
+    // =========================================================================
+    // DATA MEMBERS
+
+    /** The number of bits handed to physical layers to send. */
+    public final LongAdder        bitsSent;
+
+    /** The number of bits delivered to physical layers. */
+    public final LongAdder        bitsReceived;
+
+    /** The number of bits flipped by noisy media. */
+    public final LongAdder        bitsFlipped;
+
+    /** The number of frames sent by data link layers. */
+    public final LongAdder        framesSent;
+
+    /** The number of frames accepted by data link layers. */
+    public final LongAdder        framesAccepted;
+
+    /** The number of errors detected by data link layers. */
+    public final LongAdder        framesRejected;
+
+    /** The number of frames sent again by data link layers for want of an
+     *  acknowledgment. */
+    public final LongAdder        framesResent;
+
+    /** The number of flipped bits corrected by data link layers. */
+    public final LongAdder        bitsCorrected;
+
+    /** The number of escape bytes inserted while framing. */
+    public final LongAdder        escapesInserted;
+
+    /** The number of bytes delivered to hosts. */
+    public final LongAdder        bytesDelivered;
+
+    /** The time from a frame's creation until its transmission returns, in
+     *  nanoseconds. */
+    public final LatencyHistogram frameLatency;
+
+    /** The instance shared by every medium not given its own. */
+    private static final Metrics GLOBAL = createGlobal();
+    // =========================================================================
+
+
+
+// =============================================================================
+} // class Metrics
+// =============================================================================
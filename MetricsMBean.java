@@ -0,0 +1,63 @@
+// =============================================================================
+/**
+ * The management interface of <code>Metrics</code>, through which JMX clients
+ * such as JConsole read the counters of a running simulation.
+ *
+ * @file   MetricsMBean.java
+ * @date   October 2026
+ */
+public interface MetricsMBean {
+// =============================================================================
+
+
+
+    /** @return the number of bits handed to physical layers to send. */
+    public long getBitsSent ();
+
+    /** @return the number of bits delivered to physical layers. */
+    public long getBitsReceived ();
+
+    /** @return the number of bits flipped by noisy media. */
+    public long getBitsFlipped ();
+
+    /** @return the number of frames sent by data link layers. */
+    public long getFramesSent ();
+
+    /** @return the number of frames accepted by data link layers. */
+    public long getFramesAccepted ();
+
+    /** @return the number of errors detected by data link layers. */
+    public long getFramesRejected ();
+
+    /** @return the number of frames sent again by data link layers. */
+    public long getFramesResent ();
+
+    /** @return the number of flipped bits corrected by data link layers. */
+    public long getBitsCorrected ();
+
+    /** @return the number of escape bytes inserted while framing. */
+    public long getEscapesInserted ();
+
+    /** @return the number of bytes delivered to hosts. */
+    public long getBytesDelivered ();
+
+    /** @return the number of frame latencies recorded. */
+    public long getFrameLatencyCount ();
+
+    /** @return the median time to send a frame, in nanoseconds. */
+    public long getFrameLatencyMedian ();
+
+    /** @return the 99th percentile time to send a frame, in nanoseconds. */
+    public long getFrameLatency99 ();
+
+    /** @return the longest time to send a frame, in nanoseconds. */
+    public long getFrameLatencyMax ();
+
+    /** Set every counter back to zero. */
+    public void reset ();
+
+
+
+// =============================================================================
+} // interface MetricsMBean
+// =============================================================================
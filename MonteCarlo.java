@@ -0,0 +1,438 @@
+// =============================================================================
+// IMPORTS
+
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+// =============================================================================
+
+
+
+// =============================================================================
+/**
+ * Run many independent simulations of one configuration and summarize how
+ * often errors get through.  Each trial builds its own medium, sender, and
+ * receiver, seeded from the trial's number, and sends a few frames of random
+ * data; trials run in parallel across a pool of threads.  Each frame sent is
+ * classified by what the receiver retrieves after it:
+ *   (a) Delivered:  The payload arrived intact.
+ *   (b) Detected:   Some or all of it was dropped, and the receiving layer
+ *                   reported an error.
+ *   (c) Undetected: Data that was never sent was delivered.
+ *   (d) Lost:       Some or all of it was dropped without any error being
+ *                   reported, e.g. because the layer stopped accepting frames
+ *                   after an earlier error.
+ *
+ * @file   MonteCarlo.java
+ * @date   October 2026
+ */
+public class MonteCarlo {
+// =============================================================================
+
+
+
+    // =========================================================================
+    /**
+     * The entry point.  Interpret the command-line arguments, aborting if they
+     * are invalid, then run the trials and print the summary.
+     *
+     * @param args The command-line arguments.
+     */
+    public static void main (String[] args) {
+
+	// Check for options, then the number of arguments passed.
+	int     trials    = DEFAULT_TRIALS;
+	int     frames    = DEFAULT_FRAMES;
+	int     frameSize = DataLinkLayer.DEFAULT_MAX_FRAME_SIZE;
+	int     threads   = Runtime.getRuntime().availableProcessors();
+	long    seed      = System.nanoTime();
+	boolean resync    = false;
+	String  crc       = null;
+	int     options   = 0;
+	try {
+	    while ((options < args.length) && args[options].startsWith("--")) {
+		if (args[options].equals("--resync")) {
+		    resync   = true;
+		    options += 1;
+		    continue;
+		}
+		String value = args[options + 1];
+		if (args[options].equals("--trials")) {
+		    trials = Integer.parseInt(value);
+		} else if (args[options].equals("--frames")) {
+		    frames = Integer.parseInt(value);
+		} else if (args[options].equals("--frame-size")) {
+		    frameSize = Integer.parseInt(value);
+		} else if (args[options].equals("--threads")) {
+		    threads = Integer.parseInt(value);
+		} else if (args[options].equals("--seed")) {
+		    seed = Long.parseLong(value);
+		} else if (args[options].equals("--crc")) {
+		    crc = value;
+		} else {
+		    break;
+		}
+		options += 2;
+	    }
+	} catch (ArrayIndexOutOfBoundsException | NumberFormatException e) {
+	    options = -1;
+	}
+	if (options >= 0) {
+	    args = Arrays.copyOfRange(args, options, args.length);
+	}
+	if ((options < 0) || (args.length != 2) ||
+	    (trials < 1) || (frames < 1) || (frameSize < 1) || (threads < 1)) {
+
+	    System.err.println("Usage: java MonteCarlo "     +
+			       "[--trials <count>] "         +
+			       "[--frames <per trial>] "     +
+			       "[--frame-size <bytes>] "     +
+			       "[--threads <count>] "        +
+			       "[--seed <seed>] "            +
+			       "[--resync] "                 +
+			       "[--crc <name>] "             +
+			       "<medium type> "              +
+			       "<data link layer type>");
+	    System.exit(1);
+
+	}
+
+	// Assign names to the arguments.
+	String mediumType        = args[0];
+	String dataLinkLayerType = args[1];
+
+	// Refuse a CRC specification that the layer would not use.
+	CRCSpecification specification = null;
+	if (crc != null) {
+	    specification = CRCSpecification.forName(crc);
+	    Host host = new Host(Medium.create(mediumType), dataLinkLayerType);
+	    if (!(host.getDataLinkLayer() instanceof CRCDataLinkLayer)) {
+		throw new RuntimeException("Only CRC data link layers take a " +
+					   "CRC specification");
+	    }
+	}
+
+	Tally total = run(mediumType, dataLinkLayerType, trials, frames,
+			  frameSize, threads, seed, resync, specification);
+
+	System.out.printf("Configuration:       %s medium, %s data link layer, " +
+			  "%d-byte frames, seed %d\n",
+			  mediumType, dataLinkLayerType, frameSize, seed);
+	System.out.printf("Trials:              %d x %d frames\n", trials, frames);
+	total.print(System.out);
+
+    } // main
+    // =========================================================================
+
+
+
+    // =========================================================================
+    /**
+     * Run the trials of one configuration.
+     *
+     * @param  mediumType        The type of medium.
+     * @param  dataLinkLayerType The type of data link layer.
+     * @param  trials            The number of independent trials.
+     * @param  frames            The number of frames sent in each trial.
+     * @param  frameSize         The number of payload bytes in each frame.
+     * @param  threads           The number of trials to run at once.
+     * @param  seed              The seed from which each trial's seed is
+     *                           derived.
+     * @param  resync            Whether the receiver goes on after a damaged
+     *                           frame.
+     * @param  crc               The CRC algorithm used by CRC layers, or
+     *                           <code>null</code> to keep their default.
+     * @return the combined results of all the trials.
+     */
+    public static Tally run (String           mediumType,
+			     String           dataLinkLayerType,
+			     int              trials,
+			     int              frames,
+			     int              frameSize,
+			     int              threads,
+			     long             seed,
+			     boolean          resync,
+			     CRCSpecification crc) {
+
+	// Hand out the trials in batches, enough to keep every thread busy
+	// even if some batches run slower than others.
+	int batches   = Math.min(trials, threads * BATCHES_PER_THREAD);
+	int batchSize = (trials + batches - 1) / batches;
+
+	ExecutorService     pool    = Executors.newFixedThreadPool(threads);
+	List<Future<Tally>> results = new ArrayList<Future<Tally>>();
+	try {
+
+	    for (int first = 0; first < trials; first += batchSize) {
+		int start = first;
+		int end   = Math.min(trials, first + batchSize);
+		results.add(pool.submit(() -> {
+		    // Each trial gets a fresh medium, and the batch's trials
+		    // count their traffic together, apart from every other
+		    // batch's.  A layer that gives up on the link, as ARQ layers
+		    // do when a frame is never acknowledged, ends only its own
+		    // trial, which is counted as aborted and otherwise left out.
+		    Tally   tally   = new Tally();
+		    Metrics metrics = new Metrics();
+		    for (int t = start; t < end; t += 1) {
+			Tally  trial  = new Tally();
+			Medium medium = Medium.create(mediumType);
+			medium.setMetrics(metrics);
+			try {
+			    trial(medium, dataLinkLayerType,
+				  frames, frameSize, seed + t, resync, crc, trial);
+			} catch (LinkFailureException e) {
+			    tally.aborted += 1;
+			    continue;
+			}
+			tally.add(trial);
+		    }
+		    return tally;
+		}));
+	    }
+
+	    Tally total = new Tally();
+	    for (Future<Tally> result : results) {
+		total.add(result.get());
+	    }
+	    return total;
+
+	} catch (InterruptedException e) {
+	    Thread.currentThread().interrupt();
+	    throw new RuntimeException("Interrupted while running trials");
+	} catch (ExecutionException e) {
+	    throw new RuntimeException("Trial failed", e.getCause());
+	} finally {
+	    pool.shutdownNow();
+	}
+
+    } // run ()
+    // =========================================================================
+
+
+
+    // =========================================================================
+    /**
+     * Run one trial: build a fresh link, with counters of its own, send frames
+     * of random data across it, and classify each.
+     *
+     * @param mediumType        The type of medium.
+     * @param dataLinkLayerType The type of data link layer.
+     * @param frames            The number of frames to send.
+     * @param frameSize         The number of payload bytes in each frame.
+     * @param seed              The seed for the medium and the data.
+     * @param resync            Whether the receiver goes on after a damaged
+     *                          frame.
+     * @param crc               The CRC algorithm used by CRC layers, or
+     *                          <code>null</code> to keep their default.
+     * @param tally             The results to which to add.
+     */
+    public static void trial (String           mediumType,
+			      String           dataLinkLayerType,
+			      int              frames,
+			      int              frameSize,
+			      long             seed,
+			      boolean          resync,
+			      CRCSpecification crc,
+			      Tally            tally) {
+
+	Medium medium = Medium.create(mediumType);
+	medium.setMetrics(new Metrics());
+	trial(medium, dataLinkLayerType,
+	      frames, frameSize, seed, resync, crc, tally);
+
+    } // trial ()
+    // =========================================================================
+
+
+
+    // =========================================================================
+    /**
+     * Run one trial across a medium that has already been created and
+     * configured, but not yet used.
+     *
+     * @param medium            The medium, which this trial seeds.
+     * @param dataLinkLayerType The type of data link layer.
+     * @param frames            The number of frames to send.
+     * @param frameSize         The number of payload bytes in each frame.
+     * @param seed              The seed for the medium and the data.
+     * @param resync            Whether the receiver goes on after a damaged
+     *                          frame.
+     * @param crc               The CRC algorithm used by CRC layers, or
+     *                          <code>null</code> to keep their default.
+     * @param tally             The results to which to add.
+     */
+    public static void trial (Medium           medium,
+			      String           dataLinkLayerType,
+			      int              frames,
+			      int              frameSize,
+			      long             seed,
+			      boolean          resync,
+			      CRCSpecification crc,
+			      Tally            tally) {
+
+	medium.setSeed(seed);
+	Host   sender   = new Host(medium, dataLinkLayerType);
+	Host   receiver = new Host(medium, dataLinkLayerType);
+	sender.getDataLinkLayer().setMaxFrameSize(frameSize);
+	receiver.getDataLinkLayer().setMaxFrameSize(frameSize);
+	sender.getDataLinkLayer().setVerbose(false);
+	receiver.getDataLinkLayer().setVerbose(false);
+	receiver.getDataLinkLayer().setResynchronizing(resync);
+	if ((crc != null) &&
+	    (sender.getDataLinkLayer() instanceof CRCDataLinkLayer)) {
+	    ((CRCDataLinkLayer)sender.getDataLinkLayer()).setSpecification(crc);
+	    ((CRCDataLinkLayer)receiver.getDataLinkLayer()).setSpecification(crc);
+	}
+
+	SplittableRandom random  = new SplittableRandom(seed);
+	byte[]           payload = new byte[frameSize];
+	long             errors  = 0;
+	for (int f = 0; f < frames; f += 1) {
+
+	    random.nextBytes(payload);
+	    sender.send(payload);
+	    byte[] received = receiver.retrieve();
+
+	    long detected = receiver.getDataLinkLayer().getErrorsDetected();
+	    tally.errors += detected - errors;
+	    if (Arrays.equals(received, payload)) {
+		tally.delivered += 1;
+	    } else if (!isSubsequence(received, payload)) {
+		tally.undetected += 1;
+	    } else if (detected > errors) {
+		tally.detected += 1;
+	    } else {
+		tally.lost += 1;
+	    }
+	    errors = detected;
+
+	}
+
+    } // trial ()
+    // =========================================================================
+
+
+
+    // =========================================================================
+    // Determine whether the bytes of one array appear, in order, in another;
+    // i.e. whether the receiver got only some of what was sent.
+    private static boolean isSubsequence (byte[] part, byte[] whole) {
+
+	int j = 0;
+	for (int i = 0; i < part.length; i += 1) {
+	    while ((j < whole.length) && (whole[j] != part[i])) {
+		j += 1;
+	    }
+	    if (j == whole.length) {
+		return false;
+	    }
+	    j += 1;
+	}
+	return true;
+
+    } // isSubsequence ()
+    // =========================================================================
+
+
+
+    // =========================================================================
+    /**
+     * The outcomes of some number of frames.
+     */
+    public static class Tally {
+
+	/** Add another tally's counts to this one's. */
+	public void add (Tally other) {
+
+	    delivered  += other.delivered;
+	    detected   += other.detected;
+	    undetected += other.undetected;
+	    lost       += other.lost;
+	    errors     += other.errors;
+	    aborted    += other.aborted;
+
+	} // add ()
+
+	/** @return the number of frames counted. */
+	public long frames () {
+
+	    return delivered + detected + undetected + lost;
+
+	} // frames ()
+
+	/** Print a summary of the counts. */
+	public void print (PrintStream out) {
+
+	    long frames = frames();
+	    out.printf("Frames sent:         %d\n", frames);
+	    out.printf("Delivered intact:    %d (%.6f)\n",
+		       delivered, fraction(delivered, frames));
+	    out.printf("Detected errors:     %d (%.6f)\n",
+		       detected, fraction(detected, frames));
+	    out.printf("Undetected errors:   %d (%.6f)\n",
+		       undetected, fraction(undetected, frames));
+	    out.printf("Lost silently:       %d (%.6f)\n",
+		       lost, fraction(lost, frames));
+	    out.printf("Errors reported:     %d\n", errors);
+	    out.printf("Trials aborted:      %d\n", aborted);
+	    out.printf("Residual error rate: %.6e of frames with errors\n",
+		       fraction(undetected, undetected + detected));
+
+	} // print ()
+
+	// The ratio of two counts, or zero if there is nothing to divide.
+	private static double fraction (long count, long total) {
+
+	    return (total == 0) ? 0.0 : (double)count / total;
+
+	} // fraction ()
+
+	/** Frames whose payload arrived intact. */
+	public long delivered;
+
+	/** Frames dropped, in whole or in part, with an error reported. */
+	public long detected;
+
+	/** Frames after which data that was never sent was delivered. */
+	public long undetected;
+
+	/** Frames dropped, in whole or in part, with no error reported. */
+	public long lost;
+
+	/** The number of errors the receiving layers reported. */
+	public long errors;
+
+	/** The number of trials cut short by a layer giving up on the link;
+	 *  nothing else they counted is included. */
+	public long aborted;
+
+    } // class Tally
+    // =========================================================================
+
+
+
+    // =========================================================================
+    // DATA MEMBERS
+
+    /** The number of trials run if none is given. */
+    private static final int DEFAULT_TRIALS     = 10000;
+
+    /** The number of frames per trial if none is given. */
+    private static final int DEFAULT_FRAMES     = 1;
+
+    /** The number of batches of trials queued for each thread. */
+    private static final int BATCHES_PER_THREAD = 8;
+    // =========================================================================
+
+
+
+// =============================================================================
+} // class MonteCarlo
+// =============================================================================
@@ -0,0 +1,230 @@
+// =============================================================================
+// IMPORTS
+
+import java.util.SplittableRandom;
+// =============================================================================
+
+
+
+// =============================================================================
+/**
+ * A source of independent bit errors at a fixed probability.  Rather than
+ * drawing a random number for every bit, it draws the length of each run of
+ * correct bits from a geometric distribution and skips ahead, so its cost
+ * grows with the number of errors rather than with the number of bits.
+ *
+ * @file   NoiseGenerator.java
+ * @date   October 2026
+ */
+public class NoiseGenerator implements Medium.Noise {
+// =============================================================================
+
+
+
+    // =========================================================================
+    // PUBLIC METHODS
+    // =========================================================================
+
+
+
+    // =========================================================================
+    /**
+     * The constructor.  Seed from an unpredictable source.
+     *
+     * @param probability The probability that any one bit is flipped.
+     */
+    public NoiseGenerator (double probability) {
+
+	this.random = new SplittableRandom();
+	setProbability(probability);
+
+    } // NoiseGenerator ()
+    // =========================================================================
+
+
+
+    // =========================================================================
+    /**
+     * Restart the error sequence from the given seed, so that a run can be
+     * reproduced.
+     *
+     * @param seed The seed for the random number generator.
+     */
+    public void setSeed (long seed) {
+
+	random     = new SplittableRandom(seed);
+	untilError = nextGap();
+
+    } // setSeed ()
+    // =========================================================================
+
+
+
+    // =========================================================================
+    /**
+     * Change the bit error rate.
+     *
+     * @param  probability The probability that any one bit is flipped.
+     * @throws RuntimeException if the probability is not within [0, 1].
+     */
+    public void setProbability (double probability) {
+
+	if (!(probability >= 0.0) || !(probability <= 1.0)) {
+	    throw new RuntimeException("Invalid error probability " + probability);
+	}
+	this.probability = probability;
+	this.logClean    = Math.log1p(-probability);
+	untilError       = nextGap();
+
+    } // setProbability ()
+    // =========================================================================
+
+
+
+    // =========================================================================
+    /**
+     * @return the probability that any one bit is flipped.
+     */
+    public double getProbability () {
+
+	return probability;
+
+    } // getProbability ()
+    // =========================================================================
+
+
+
+    // =========================================================================
+    /**
+     * Determine which of the next bits are flipped.
+     *
+     * @param  count The number of bits (1 to 64).
+     * @return a mask, aligned like a word of <code>count</code> bits sent most
+     *         significant first, with a <code>1</code> for each flipped bit.
+     */
+    public long mask (int count) {
+
+	long mask   = 0;
+	int  offset = 0;
+	while (untilError < count - offset) {
+	    offset    += (int)untilError;
+	    mask      |= 1L << (count - 1 - offset);
+	    offset    += 1;
+	    untilError = nextGap();
+	}
+	untilError -= count - offset;
+
+	return mask;
+
+    } // mask ()
+    // =========================================================================
+
+
+
+    // =========================================================================
+    /**
+     * Pass over the next bits that are not flipped, stopping at the first
+     * that is.
+     *
+     * @param  count The most bits to pass over.
+     * @return the number of bits passed over; fewer than <code>count</code>
+     *         only if the next bit is flipped.
+     */
+    public long skip (long count) {
+
+	long skipped = Math.min(count, untilError);
+	untilError  -= skipped;
+
+	return skipped;
+
+    } // skip ()
+    // =========================================================================
+
+
+
+    // =========================================================================
+    /**
+     * Draw the number of correct bits that precede the next error.
+     *
+     * @return a geometrically distributed count, or <code>Long.MAX_VALUE</code>
+     *         if errors never occur.
+     */
+    public long nextGap () {
+
+	return gap(random, probability, logClean);
+
+    } // nextGap ()
+    // =========================================================================
+
+
+
+    // =========================================================================
+    /**
+     * Draw the number of failures before the first success in a sequence of
+     * independent trials.
+     *
+     * @param  random      The generator from which to draw.
+     * @param  probability The probability that a trial succeeds.
+     * @return a geometrically distributed count, or <code>Long.MAX_VALUE</code>
+     *         if the probability is zero.
+     */
+    public static long gap (SplittableRandom random, double probability) {
+
+	return gap(random, probability, Math.log1p(-probability));
+
+    } // gap ()
+    // =========================================================================
+
+
+
+    // =========================================================================
+    // PRIVATE METHODS
+    // =========================================================================
+
+
+
+    // =========================================================================
+    // Draw a geometric count given the logarithm of the failure probability.
+    private static long gap (SplittableRandom random,
+			     double           probability,
+			     double           logFailure) {
+
+	if (probability == 0.0) {
+	    return Long.MAX_VALUE;
+	}
+	if (probability == 1.0) {
+	    return 0;
+	}
+
+	// Invert the geometric distribution's CDF with a uniform draw in (0, 1].
+	double uniform = 1.0 - random.nextDouble();
+	double gap     = Math.floor(Math.log(uniform) / logFailure);
+
+	return (gap >= Long.MAX_VALUE) ? Long.MAX_VALUE : (long)gap;
+
+    } // gap ()
+    // =========================================================================
+
+
+
+    // =========================================================================
+    // DATA MEMBERS
+
+    /** The generator behind every draw. */
+    private SplittableRandom random;
+
+    /** The probability that any one bit is flipped. */
+    private double           probability;
+
+    /** The natural logarithm of the probability that a bit is not flipped. */
+    private double           logClean;
+
+    /** The number of correct bits remaining before the next error. */
+    private long             untilError;
+    // =========================================================================
+
+
+
+// =============================================================================
+} // class NoiseGenerator
+// =============================================================================
@@ -9,12 +9,15 @@ import java.util.Queue;
 
 // =============================================================================
 /**
- * @file   ParityDataLinkLayer.java
+ * @file   Parity2DataLinkLayer.java
  * @author Scott F. Kaplan (sfkaplan@cs.amherst.edu)
  * @date   August 2018, original September 2004
  *
- * A data link layer that uses start/stop tags and byte packing to frame the
- * data, and that performs no error management.
+ * A data link layer that frames and checks the data as
+ * <code>ParityDataLinkLayer</code> does, with a parity byte at the end of
+ * each frame, but that goes on accepting frames after detecting a
+ * damaged one.  Unless resynchronizing, the bytes buffered along with a
+ * damaged frame are discarded.
  */
 public class Parity2DataLinkLayer extends DataLinkLayer {
 // =============================================================================
@@ -30,49 +33,42 @@ public class Parity2DataLinkLayer extends DataLinkLayer {
      */
     protected byte[] createFrame (byte[] data) {
 
-	Queue<Byte> framingData = new LinkedList<Byte>();
-	
-	// Begin with the start tag.
-	framingData.add(startTag);
-    
-	// Add each byte of original data.
-	for (int i = 0; i < data.length; i += 1) {
-
-	    // If the current data byte is itself a metadata tag, then precede
-	    // it with an escape tag.
-        byte currentByte = data[i];
-
-        //keep track of the number of bits of value one in the current byte
-        
-	    if ((currentByte == startTag) || (currentByte == stopTag) || (currentByte == escapeTag) || (currentByte == 0b1) || (currentByte == 0b0)) {
-
-		    framingData.add(escapeTag);
-
-	    }
+		// The parity byte covers the whole frame.
+		byte parityByte = ParityKernel.longitudinalCheck(data, 0, data.length);
 
-	    // Add the data byte itself.
-		framingData.add(currentByte);
-
-		// Create the Parity byte
-		byte parityByte = createParity(currentByte);
-
-		// Add the parity byte itself.
-		framingData.add(parityByte);
+		// With byte stuffing, the contents are the data and then the parity
+		// byte, stuffed as a whole.
+		if (framing == COBS_FRAMING) {
+			byte[] contents = new byte[data.length + 1];
+			System.arraycopy(data, 0, contents, 0, data.length);
+			contents[data.length] = parityByte;
+			return stuffFrame(contents, contents.length);
+		}
 
-	}
+		Queue<Byte> framingData = new LinkedList<Byte>();
+		
+		// Begin with the start tag.
+		framingData.add(startTag);
+		
+		// Add each byte of original data, and then the parity byte, escaping
+		// any that is itself a metadata tag.
+		for (int i = 0; i < data.length; i += 1) {
+			addEscaped(framingData, data[i]);
+		}
+		addEscaped(framingData, parityByte);
 
-	// End with a stop tag.
-	framingData.add(stopTag);
+		// End with a stop tag.
+		framingData.add(stopTag);
 
-	// Convert to the desired byte array.
-	byte[] framedData = new byte[framingData.size()];
-	Iterator<Byte>  i = framingData.iterator();
-	int             j = 0;
-	while (i.hasNext()) {
-		framedData[j++] = i.next();
-	}
+		// Convert to the desired byte array.
+		byte[] framedData = new byte[framingData.size()];
+		Iterator<Byte>  i = framingData.iterator();
+		int             j = 0;
+		while (i.hasNext()) {
+			framedData[j++] = i.next();
+		}
 
-	return framedData;
+		return framedData;
 	
     } // createFrame ()
     // =========================================================================
@@ -81,10 +77,10 @@ public class Parity2DataLinkLayer extends DataLinkLayer {
     
     // =========================================================================
     /**
-     * Determine whether the received, buffered data constitutes a complete
-     * frame.  If so, then remove the framing metadata and return the original
-     * data.  Note that any data preceding an escaped start tag is assumed to be
-     * part of a damaged frame, and is thus discarded.
+     * Feed the newly received bytes to the frame parser.  If they complete a
+     * frame, then remove the framing metadata, check the data against the
+     * parity byte that ends the frame, and return the original data.  The
+     * parser remembers its progress, so each byte is examined only once.
      *
      * @return If the buffer contains a complete frame, the extracted, original
      * data; <code>null</code> otherwise.
@@ -92,113 +88,82 @@ public class Parity2DataLinkLayer extends DataLinkLayer {
 
     protected byte[] processFrame () {
 
-		//error = false;
-
-		// Search for a start tag.  Discard anything prior to it.
-		boolean        startTagFound = false;
-		Iterator<Byte>             i = byteBuffer.iterator();
-		while (!startTagFound && i.hasNext()) {
-			byte current = i.next();
-			if (current != startTag) {
-			i.remove();
-			} else {
-			startTagFound = true;
+		byte[] frame;
+		int    length;
+		if (framing == COBS_FRAMING) {
+
+			// A frame ends at the first zero byte.
+			length = unstuffFrame();
+			if (length == NO_FRAME) {
+				return null;
+			} else if (length == BAD_FRAME) {
+				error = true;
+				reportError("ERROR - Frame Stuffing Malformed.");
+				return null;
 			}
-		}
-	
-		// If there is no start tag, then there is no frame.
-		if (!startTagFound) {
-			System.out.println("Error - no start tag");
-			return null;
-		}
-		
-		// Try to extract data while waiting for an unescaped stop tag.
-		Queue<Byte> extractedBytes = new LinkedList<Byte>();
-		boolean       stopTagFound = false;
-		while (!stopTagFound && i.hasNext()) {
+			frame = stuffedFrame;
 
-			error = false;
-	
-			// Grab the next byte.  If it is...
-			//   (a) An escape tag: Skip over it and grab what follows as
-			//                      literal data.
-			//   (b) A stop tag:    Remove all processed bytes from the buffer and
-			//                      end extraction.
-			//   (c) A start tag:   All that precedes is damaged, so remove it
-			//                      from the buffer and restart extraction.
-			//   (d) Otherwise:     Take it as literal data.
-			byte current = i.next();
-			byte parity;
-			if (current == escapeTag) {
-				if (i.hasNext()) {
-					current = i.next();
-					if(i.hasNext()){
-						parity = i.next();
-						if(checkParity(current, parity)){
-							extractedBytes.add(current);
-						} else {
-							System.out.printf("Incorrect Data = %c\n", current);
-							System.out.println("Error - data and parity byte did not match...");
-							error = true;
-							return null;
-						}
-					} else {
-						return null;
+		} else {
+
+			// Parse each buffered byte exactly once.
+			boolean frameFound = false;
+			while (!frameFound && !byteBuffer.isEmpty()) {
+				int result = parser.accept(byteBuffer.remove());
+				if (result == FrameParser.DISCARDED) {
+					// While resynchronizing, a run of bytes outside of any
+					// frame is one loss.
+					if (!resynchronizing || !discarding) {
+						reportError("Error - no start tag");
 					}
-				} else {
-					// An escape was the last byte available, so this is not a
-					// complete frame.
-					return null;
+					discarding = true;
+					continue;
 				}
-			} else if (current == stopTag) {
-				cleanBufferUpTo(i);
-				stopTagFound = true;
-			} else if (current == startTag) {
-				cleanBufferUpTo(i);
-				extractedBytes = new LinkedList<Byte>();
-			} else {
-				if(i.hasNext()){
-					parity = i.next();
-					if(parity == startTag){
-						System.out.println("Stop Tag Corrupted");
-						cleanBufferUpTo(i);
-						byteBuffer.add(startTag);
-						extractedBytes = new LinkedList<Byte>();
-					} else if(checkParity(current, parity)){
-						extractedBytes.add(current);
-					} else {
-						error = true;
-						System.out.printf("Incorrect Data = %c\n", current);
-						System.out.println("Error - data and parity byte did not match...");
-						return null;
-					}
-				} else {
-					return null;
+				discarding = false;
+				if (result == FrameParser.RESTARTED) {
+					// The stop tag was corrupted; the start tag that took its
+					// place begins the next frame.
+					reportError("Stop Tag Corrupted");
 				}
+				frameFound = (result == FrameParser.COMPLETE);
 			}
-	
+
+			// If there is no stop tag, then the frame is incomplete.
+			if (!frameFound) {
+				return null;
+			}
+			frame  = parser.frame();
+			length = parser.length();
+
 		}
-	
-		// If there is no stop tag, then the frame is incomplete.
-		if (!stopTagFound) {
+
+		// The frame must end with its parity byte.
+		if (debug) {
+			System.out.println("Parity2DataLinkLayer.processFrame(): Got whole frame!");
+		}
+		if (length < 1) {
+			error = true;
+			reportError("Error - Frame Has No Parity Byte");
 			return null;
 		}
-	
+
 		// Convert to the desired byte array.
+		byte[] extractedData = new byte[length - 1];
+		System.arraycopy(frame, 0, extractedData, 0, extractedData.length);
 		if (debug) {
-			System.out.println("Parity2DataLinkLayer.processFrame(): Got whole frame!");
-		}
-		byte[] extractedData = new byte[extractedBytes.size()];
-		int                j = 0;
-		i = extractedBytes.iterator();
-		while (i.hasNext()) {
-			extractedData[j] = i.next();
-			if (debug) {
-			System.out.printf("Parity2DataLinkLayer.processFrame():\tbyte[%d] = %c\n",
-					  j,
-					  extractedData[j]);
+			for (int j = 0; j < extractedData.length; j += 1) {
+				System.out.printf("Parity2DataLinkLayer.processFrame():\tbyte[%d] = %c\n",
+						  j,
+						  extractedData[j] & 0xff);
 			}
-			j += 1;
+		}
+
+		// The parity byte is the exclusive-or of the data bytes, so the
+		// exclusive-or of the whole frame is zero unless it was damaged.
+		if (ParityKernel.longitudinalCheck(frame, 0, length) != 0) {
+			error = true;
+			reportError(String.format("Error - data and parity byte did not match...%n" +
+							  "Incorrect Data = %s", new String(extractedData)));
+			return null;
 		}
 	
 		return extractedData;
@@ -208,32 +173,16 @@ public class Parity2DataLinkLayer extends DataLinkLayer {
 
 
 
-    // ===============================================================
-    private void cleanBufferUpTo (Iterator<Byte> end) {
-
-	Iterator<Byte> i = byteBuffer.iterator();
-	while (i.hasNext() && i != end) {
-	    i.next();
-	    i.remove();
-	}
-
-    }
-    // ===============================================================
-
-
+	//================================================================
+	private void addEscaped(Queue<Byte> framingData, byte value){
 
-	// ===============================================================
-	private static boolean checkParity(byte data, byte parity){
-		int track = 0;
-		int bits = (int)data;
-		for(int j = 0; j < BITS_PER_BYTE; j++){
-			if((bits & 0b1) == 0b1){
-				track++;
-			}
-			bits = bits >> 1;
+		// If the byte is itself a metadata tag, then precede it with an
+		// escape tag.
+		if ((value == startTag) || (value == stopTag) || (value == escapeTag)) {
+			framingData.add(escapeTag);
+			metrics().escapesInserted.increment();
 		}
-		
-		return (track % 2) == (int)parity;
+		framingData.add(value);
 	}
 	//================================================================
 
@@ -241,20 +190,7 @@ public class Parity2DataLinkLayer extends DataLinkLayer {
 
 	//================================================================
 	public static byte createParity(byte data){
-		int track = 0;
-		int bits = (int)data;
-		for(int j = 0; j < BITS_PER_BYTE; j++){
-			if((bits & 0b1) == 0b1){
-				track++;
-			}
-			bits = bits >> 1;
-		}
-
-		if(track % 2 == 1){
-			return 0b1;
-		} else {
-			return 0b0;
-		}
+		return ParityKernel.parity(data);
 	}
 	//================================================================
 
@@ -262,64 +198,33 @@ public class Parity2DataLinkLayer extends DataLinkLayer {
 
 	//================================================================
 	@Override
-	public void send (byte[] data) {
-
-		// Call on the underlying physical layer to send the data.
-		for(int j = 0; j < data.length; j+= 1){
-			//byte[] temp = {data[j], data[j+1], data[j+2], data[j+3]};
-			byte[] temp = {data[j]};
-
-			byte[] framedData = createFrame(temp);
-			for (int i = 0; i < framedData.length; i += 1) {
-				transmit(framedData[i]);
-			}
+	protected void receive (byte newByte) {
 
+		// Add the byte to the byte buffer.
+		byteBuffer.add(newByte);
+		bytesReceived += 1;
+		if (debug) {
+		System.out.printf("DataLinkLayer.receive(): Got new byte = %c\n",
+				  newByte & 0xff);
 		}
-	
-	}
-	//================================================================
-
-
-
-	//================================================================
-	@Override
-	public void receive (boolean bit) {
 
-		// Add the new bit to the buffer.
-		bitBuffer.add(bit);
-	
-		// If this bit completes a byte, then add it to the byte buffer.
-		if (bitBuffer.size() >= BITS_PER_BYTE) {
-	
-			// Build up the byte from the bits...
-			byte newByte = 0;
-			for (int i = 0; i < BITS_PER_BYTE; i += 1) {
-			bit = bitBuffer.remove();
-			newByte = (byte)((newByte << 1) | (bit ? 1 : 0));
-			}
-	
-			// ...and add it to the byte buffer.
-			byteBuffer.add(newByte);
+		// Attempt to process the buffered bytes as a frame.  If a complete
+		// frame is found and its contents extraction, deliver those
+		// contents to the client.
+		byte[] originalData = processFrame();
+		if (originalData != null) {
+			metrics().framesAccepted.increment();
 			if (debug) {
-			System.out.printf("DataLinkLayer.receive(): Got new byte = %c\n",
-					  newByte);
+				System.out.println("DataLinkLayer.receive(): Got a whole frame!");
 			}
-	
-			// Attempt to process the buffered bytes as a frame.  If a complete
-			// frame is found and its contents extraction, deliver those
-			// contents to the client.
-			byte[] originalData = processFrame();
-			if (originalData != null) {
-				if (debug) {
-					System.out.println("DataLinkLayer.receive(): Got a whole frame!");
-				}
-				client.receive(originalData);
-			} 
-			else if(error){
-				byteBuffer = new LinkedList<Byte>();
-				error = false;
+			client.receive(originalData);
+		} 
+		else if(error){
+			// Unless resynchronizing, discard whatever else was buffered.
+			if(!resynchronizing){
+				byteBuffer.clear();
 			}
-	
+			error = false;
 		}
 	
 	} // receive ()
@@ -339,6 +244,9 @@ public class Parity2DataLinkLayer extends DataLinkLayer {
     private final byte stopTag   = (byte)'}';
 	private final byte escapeTag = (byte)'\\';
 	protected boolean error = false;
+	// Whether the bytes most recently parsed fell outside of any frame.
+	private boolean discarding = false;
+	private final FrameParser parser = new FrameParser(startTag, stopTag, escapeTag, false);
 	// ===============================================================
 	
 	public static void main(String[] args){
@@ -13,8 +13,12 @@ import java.util.Queue;
  * @author Scott F. Kaplan (sfkaplan@cs.amherst.edu)
  * @date   August 2018, original September 2004
  *
- * A data link layer that uses start/stop tags and byte packing to frame the
- * data, and that performs no error management.
+ * A data link layer that uses start/stop tags and byte packing, or COBS
+ * byte stuffing, to frame the data.  Each frame ends with a parity byte:
+ * the exclusive-or of its data bytes, so that each of its bits is the
+ * parity of that bit position down the frame.  Once a damaged frame is
+ * detected, no later frame is accepted, unless the layer is
+ * resynchronizing, in which case only the damaged frame is dropped.
  */
 public class ParityDataLinkLayer extends DataLinkLayer {
 // =============================================================================
@@ -30,32 +34,29 @@ public class ParityDataLinkLayer extends DataLinkLayer {
      */
     protected byte[] createFrame (byte[] data) {
 
+		// The parity byte covers the whole frame.
+		byte parityByte = ParityKernel.longitudinalCheck(data, 0, data.length);
+
+		// With byte stuffing, the contents are the data and then the parity
+		// byte, stuffed as a whole.
+		if (framing == COBS_FRAMING) {
+			byte[] contents = new byte[data.length + 1];
+			System.arraycopy(data, 0, contents, 0, data.length);
+			contents[data.length] = parityByte;
+			return stuffFrame(contents, contents.length);
+		}
+
 		Queue<Byte> framingData = new LinkedList<Byte>();
 		
 		// Begin with the start tag.
 		framingData.add(startTag);
 		
-		// Add each byte of original data.
+		// Add each byte of original data, and then the parity byte, escaping
+		// any that is itself a metadata tag.
 		for (int i = 0; i < data.length; i += 1) {
-
-			// If the current data byte is itself a metadata tag, then precede
-			// it with an escape tag.
-			byte currentByte = data[i];
-			
-			if ((currentByte == startTag) || (currentByte == stopTag) || (currentByte == escapeTag) || (currentByte == 0b1) || (currentByte == 0b0)) {
-				framingData.add(escapeTag);
-			}
-
-			// Add the data byte itself.
-			framingData.add(currentByte);
-
-			// Create the Parity byte
-			byte parityByte = createParity(currentByte);
-
-			// Add the parity byte itself.
-			framingData.add(parityByte);
-
+			addEscaped(framingData, data[i]);
 		}
+		addEscaped(framingData, parityByte);
 
 		// End with a stop tag.
 		framingData.add(stopTag);
@@ -77,10 +78,10 @@ public class ParityDataLinkLayer extends DataLinkLayer {
     
     // =========================================================================
     /**
-     * Determine whether the received, buffered data constitutes a complete
-     * frame.  If so, then remove the framing metadata and return the original
-     * data.  Note that any data preceding an escaped start tag is assumed to be
-     * part of a damaged frame, and is thus discarded.
+     * Feed the newly received bytes to the frame parser.  If they complete a
+     * frame, then remove the framing metadata, check the data against the
+     * parity byte that ends the frame, and return the original data.  The
+     * parser remembers its progress, so each byte is examined only once.
      *
      * @return If the buffer contains a complete frame, the extracted, original
      * data; <code>null</code> otherwise.
@@ -90,128 +91,87 @@ public class ParityDataLinkLayer extends DataLinkLayer {
 
 		//If there has been an error in a previous frame, do not accept any more frames.
 		if(error){
+			byteBuffer.clear();
 			return null;
 		}
 
-		// Search for a start tag.  Discard anything prior to it.
-		boolean        startTagFound = false;
-		Iterator<Byte>             i = byteBuffer.iterator();
-		while (!startTagFound && i.hasNext()) {
-			byte current = i.next();
-			if (current != startTag) {
-			i.remove();
-			} else {
-			startTagFound = true;
+		byte[] frame;
+		int    length;
+		if (framing == COBS_FRAMING) {
+
+			// A frame ends at the first zero byte.
+			length = unstuffFrame();
+			if (length == NO_FRAME) {
+				return null;
+			} else if (length == BAD_FRAME) {
+				return reject("ERROR - Frame Stuffing Malformed.");
 			}
-		}
-	
-		// If there is no start tag, then there is no frame.
-		if (!startTagFound) {
-			System.out.println("Error - no start tag");
-			error = true;
-			return null;
-		}
-		
-		// Try to extract data while waiting for an unescaped stop tag.
-		Queue<Byte> extractedBytes = new LinkedList<Byte>();
-		boolean       stopTagFound = false;
-		while (!stopTagFound && i.hasNext()) {
-	
-			// Grab the next byte.  If it is...
-			//   (a) An escape tag: Skip over it and grab what follows as
-			//                      literal data.
-			//   (b) A stop tag:    Remove all processed bytes from the buffer and
-			//                      end extraction.
-			//   (c) A start tag:   All that precedes is damaged, so remove it
-			//                      from the buffer and restart extraction.
-			//   (d) Otherwise:     Take it as literal data.
-			byte current = i.next();
-			
-			//define a byte to store the parity byte when a data byte is found.
-			byte parity;
-
-			if (current == escapeTag) {
-
-				if (i.hasNext()) {
-					current = i.next();
-					// Check to see if the data byte has a following byte. If so store it as its parity byte.
-					if(i.hasNext()){
-						parity = i.next();
-						// Check the data byte with the parity byte, if it's correct then add the bit, otherwise return null.
-						if(checkParity(current, parity)){
-							extractedBytes.add(current);
-						} else {
-							System.out.println("Error - data and parity byte did not match...");
-							System.out.printf("Incorrect Data = %c\n", current);
-							error = true;
-							return null;
-						}
-					} else {
-						// Return null and then wait for the parity byte to come through.
-						return null;
-					}
+			frame = stuffedFrame;
+
+		} else {
 
-				} else {
-					// An escape was the last byte available, so this is not a
-					// complete frame.
-					return null;
+			// Parse each buffered byte exactly once.
+			boolean frameFound = false;
+			while (!frameFound && !byteBuffer.isEmpty()) {
+				int result = parser.accept(byteBuffer.remove());
+				if (result == FrameParser.DISCARDED) {
+					// A byte outside of any frame means there was no start tag.
+					// While resynchronizing, the rest of that frame is skipped
+					// as one loss.
+					boolean first = !discarding;
+					discarding = true;
+					if (!resynchronizing) {
+						return reject("Error - no start tag");
+					} else if (first) {
+						reportError("Error - no start tag");
+					}
+					continue;
 				}
-			} else if (current == stopTag) {
-
-				cleanBufferUpTo(i);
-				stopTagFound = true;
-
-			} else if (current == startTag) {
-
-				cleanBufferUpTo(i);
-				extractedBytes = new LinkedList<Byte>();
-
-			} else {
-				// Check to see if the data byte has a following byte. If so store it as its parity byte
-				if(i.hasNext()){
-					parity = i.next();
-					// if the parity byte is a start tag, then the previous byte is a corrupted stop tag. Throw an error.
-					// if the parity byte is a normal parity byte, use it to check the data byte.
-					if(parity == startTag){
-						error = true;
-						System.out.println("Stop Tag Corrupted");
-						return null;
-					} else if(checkParity(current, parity)){
-						extractedBytes.add(current);
-					} else {
-						error = true;
-						System.out.println("Error - data and parity byte did not match...");
-						System.out.printf("Incorrect Data = %c\n", current);
-						return null;
+				discarding = false;
+				if (result == FrameParser.RESTARTED) {
+					// A start tag inside a frame means its stop tag was damaged.
+					// The start tag begins the next frame.
+					if (!resynchronizing) {
+						return reject("Stop Tag Corrupted");
 					}
-				} else {
-					// Return null and then wait for the parity byte to come through.
-					return null;
+					reportError("Stop Tag Corrupted");
 				}
+				frameFound = (result == FrameParser.COMPLETE);
 			}
-	
-		}
-	
-		// If there is no stop tag, then the frame is incomplete.
-		if (!stopTagFound) {
-			return null;
+
+			// If there is no stop tag, then the frame is incomplete.
+			if (!frameFound) {
+				return null;
+			}
+			frame  = parser.frame();
+			length = parser.length();
+
 		}
-	
-		// Convert to the desired byte array.
+
+		// The frame must end with its parity byte.
 		if (debug) {
 			System.out.println("ParityDataLinkLayer.processFrame(): Got whole frame!");
 		}
-		byte[] extractedData = new byte[extractedBytes.size()];
-		int                j = 0;
-		i = extractedBytes.iterator();
-		while (i.hasNext()) {
-			extractedData[j] = i.next();
-			if (debug) {
-			System.out.printf("ParityDataLinkLayer.processFrame():\tbyte[%d] = %c\n",
-					  j,
-					  extractedData[j]);
+		if (length < 1) {
+			return reject("Error - Frame Has No Parity Byte");
+		}
+
+		// Convert to the desired byte array.
+		byte[] extractedData = new byte[length - 1];
+		System.arraycopy(frame, 0, extractedData, 0, extractedData.length);
+		if (debug) {
+			for (int j = 0; j < extractedData.length; j += 1) {
+				System.out.printf("ParityDataLinkLayer.processFrame():\tbyte[%d] = %c\n",
+						  j,
+						  extractedData[j] & 0xff);
 			}
-			j += 1;
+		}
+
+		// The parity byte is the exclusive-or of the data bytes, so the
+		// exclusive-or of the whole frame is zero unless it was damaged.
+		if (ParityKernel.longitudinalCheck(frame, 0, length) != 0) {
+			return reject(String.format("Error - data and parity byte did not match...%n" +
+							    "Incorrect Data = %s", new String(extractedData)));
 		}
 	
 		return extractedData;
@@ -221,74 +181,38 @@ public class ParityDataLinkLayer extends DataLinkLayer {
 
 
 
-    // ===============================================================
-    private void cleanBufferUpTo (Iterator<Byte> end) {
-
-	Iterator<Byte> i = byteBuffer.iterator();
-	while (i.hasNext() && i != end) {
-	    i.next();
-	    i.remove();
-	}
-
-    }
-    // ===============================================================
-
-
-
 	// ===============================================================
-	private static boolean checkParity(byte data, byte parity){
-		int track = 0;
-		int bits = (int)data;
-		for(int j = 0; j < BITS_PER_BYTE; j++){
-			if((bits & 0b1) == 0b1){
-				track++;
-			}
-			bits = bits >> 1;
+	// Report a damaged frame and drop it.  Unless resynchronizing, refuse
+	// every later frame too.
+	private byte[] reject(String message){
+		reportError(message);
+		if(!resynchronizing){
+			error = true;
 		}
-		
-		return (track % 2) == (int)parity;
+		return null;
 	}
 	//================================================================
 
 
 
 	//================================================================
-	public static byte createParity(byte data){
-		int track = 0;
-		int bits = (int)data;
-		for(int j = 0; j < BITS_PER_BYTE; j++){
-			if((bits & 0b1) == 0b1){
-				track++;
-			}
-			bits = bits >> 1;
-		}
+	private void addEscaped(Queue<Byte> framingData, byte value){
 
-		if(track % 2 == 1){
-			return 0b1;
-		} else {
-			return 0b0;
+		// If the byte is itself a metadata tag, then precede it with an
+		// escape tag.
+		if ((value == startTag) || (value == stopTag) || (value == escapeTag)) {
+			framingData.add(escapeTag);
+			metrics().escapesInserted.increment();
 		}
+		framingData.add(value);
 	}
 	//================================================================
 
 
 
 	//================================================================
-	@Override
-	public void send (byte[] data) {
-
-		// Call on the underlying physical layer to send the data.
-		for(int j = 0; j < data.length; j+= 1){
-
-			byte[] temp = {data[j]};
-
-			byte[] framedData = createFrame(temp);
-			for (int i = 0; i < framedData.length; i += 1) {
-				transmit(framedData[i]);
-			}
-
-		}
-	
+	public static byte createParity(byte data){
+		return ParityKernel.parity(data);
 	}
 	//================================================================
 
@@ -306,6 +230,9 @@ public class ParityDataLinkLayer extends DataLinkLayer {
     private final byte stopTag   = (byte)'}';
 	private final byte escapeTag = (byte)'\\';
 	protected boolean error = false;
+	// Whether the bytes most recently parsed fell outside of any frame.
+	private boolean discarding = false;
+	private final FrameParser parser = new FrameParser(startTag, stopTag, escapeTag, false);
 	// ===============================================================
 	
 
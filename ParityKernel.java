@@ -0,0 +1,403 @@
+// =============================================================================
+// IMPORTS
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteOrder;
+// =============================================================================
+
+
+
+// =============================================================================
+/**
+ * Parity computed over whole buffers.  Each byte's parity is the number of
+ * one bits in it, modulo two, which may be sent as a byte of its own,
+ * <code>0</code> or <code>1</code>, after each data byte.  Rather than
+ * counting the bits of one byte at a time, these methods read a buffer eight
+ * bytes to a word and fold each byte of the word onto its lowest bit at once,
+ * handling only the last few bytes one at a time.
+ *
+ * Besides each byte's parity, a buffer has a longitudinal check: the
+ * exclusive-or of all of its bytes, which is the parity of each bit position
+ * taken down the whole buffer.  The parity layers end each frame with it.
+ * Its own parity is the parity of the whole buffer.
+ *
+ * Where the JVM offers the incubating Vector API, the buffer methods use
+ * <code>VectorParityKernel</code> instead, which handles as many bytes at a
+ * time as the processor's vector registers hold.  That class is kept in
+ * <code>vector/</code>, since it compiles only with the module added:
+ *
+ *   javac --add-modules jdk.incubator.vector -d . vector/VectorParityKernel.java
+ *   java --add-modules jdk.incubator.vector Simulator ...
+ *
+ * Without the module at run time, or without that class, this class's own
+ * code is used.  Setting the system property <code>parity.kernel</code> to
+ * <code>scalar</code> forces it.
+ *
+ * @file   ParityKernel.java
+ * @date   October 2026
+ */
+public class ParityKernel {
+// =============================================================================
+
+
+
+    // =========================================================================
+    // PUBLIC METHODS
+    // =========================================================================
+
+
+
+    // =========================================================================
+    /**
+     * @param  data The byte whose parity to compute.
+     * @return <code>1</code> if the byte has an odd number of one bits,
+     *         <code>0</code> otherwise.
+     */
+    public static byte parity (byte data) {
+
+	return (byte)(Integer.bitCount(data & 0xff) & 1);
+
+    } // parity ()
+    // =========================================================================
+
+
+
+    // =========================================================================
+    /**
+     * Write each byte of a buffer followed by its parity byte.
+     *
+     * @param  source       The buffer holding the data.
+     * @param  offset       The index of the first data byte.
+     * @param  length       The number of data bytes.
+     * @param  destination  The buffer into which to write the pairs, with
+     *                      room for <code>2 * length</code> bytes.
+     * @param  outputOffset The index at which to write the first pair.
+     */
+    public static void interleave (byte[] source, int offset, int length,
+				   byte[] destination, int outputOffset) {
+
+	KERNEL.interleaveBuffer(source, offset, length,
+				destination, outputOffset);
+
+    } // interleave ()
+    // =========================================================================
+
+
+
+    // =========================================================================
+    /**
+     * Check each data byte of a buffer of pairs against the parity byte that
+     * follows it.
+     *
+     * @param  source The buffer holding the pairs.
+     * @param  offset The index of the first pair.
+     * @param  pairs  The number of pairs.
+     * @return the number of the first pair whose parity byte is not that of
+     *         its data byte, or <code>-1</code> if all of them match.
+     */
+    public static int checkInterleaved (byte[] source, int offset, int pairs) {
+
+	return KERNEL.checkBuffer(source, offset, pairs);
+
+    } // checkInterleaved ()
+    // =========================================================================
+
+
+
+    // =========================================================================
+    /**
+     * @param  source The buffer holding the data.
+     * @param  offset The index of the first data byte.
+     * @param  length The number of data bytes.
+     * @return the exclusive-or of the bytes: bit <i>i</i> is the parity of
+     *         bit <i>i</i> of every byte.
+     */
+    public static byte longitudinalCheck (byte[] source, int offset,
+					  int length) {
+
+	return KERNEL.xorBuffer(source, offset, length);
+
+    } // longitudinalCheck ()
+    // =========================================================================
+
+
+
+    // =========================================================================
+    /**
+     * @param  source The buffer holding the data.
+     * @param  offset The index of the first data byte.
+     * @param  length The number of data bytes.
+     * @return <code>1</code> if the bytes have an odd number of one bits in
+     *         all, <code>0</code> otherwise.
+     */
+    public static byte blockParity (byte[] source, int offset, int length) {
+
+	return parity(longitudinalCheck(source, offset, length));
+
+    } // blockParity ()
+    // =========================================================================
+
+
+
+    // =========================================================================
+    /**
+     * @return the name of the kernel in use: <code>"vector"</code> or
+     *         <code>"scalar"</code>.
+     */
+    public static String implementation () {
+
+	return KERNEL.name();
+
+    } // implementation ()
+    // =========================================================================
+
+
+
+    // =========================================================================
+    // PROTECTED METHODS
+    // =========================================================================
+
+
+
+    // =========================================================================
+    /**
+     * The constructor, for the kernel in use and any that replace it.
+     */
+    protected ParityKernel () {
+
+    } // ParityKernel ()
+    // =========================================================================
+
+
+
+    // =========================================================================
+    /**
+     * Load a kernel by name, e.g. to compare them.
+     *
+     * @param  name <code>"vector"</code> or <code>"scalar"</code>.
+     * @return the kernel, or <code>null</code> if it is not available in this
+     *         JVM.
+     */
+    static ParityKernel load (String name) {
+
+	if (name.equals("scalar")) {
+	    return new ParityKernel();
+	}
+	if (!name.equals("vector") ||
+	    ModuleLayer.boot().findModule(VECTOR_MODULE).isEmpty()) {
+	    return null;
+	}
+	try {
+	    return (ParityKernel)Class.forName(VECTOR_KERNEL)
+		.getDeclaredConstructor().newInstance();
+	} catch (ReflectiveOperationException | LinkageError e) {
+	    return null;
+	}
+
+    } // load ()
+    // =========================================================================
+
+
+
+    // =========================================================================
+    /**
+     * @return the name of this kernel.
+     */
+    protected String name () {
+
+	return "scalar";
+
+    } // name ()
+    // =========================================================================
+
+
+
+    // =========================================================================
+    /**
+     * Do the work of <code>interleave()</code>, eight bytes to a word.
+     */
+    protected void interleaveBuffer (byte[] source, int offset, int length,
+				     byte[] destination, int outputOffset) {
+
+	int i   = offset;
+	int out = outputOffset;
+	for (int end = offset + length - Long.BYTES; i <= end; i += Long.BYTES) {
+	    long word   = (long)WORDS.get(source, i);
+	    long parity = fold(word);
+	    WORDS.set(destination, out,
+		      spread(word) | (spread(parity) << Byte.SIZE));
+	    WORDS.set(destination, out + Long.BYTES,
+		      spread(word >>> 32) | (spread(parity >>> 32) << Byte.SIZE));
+	    out += 2 * Long.BYTES;
+	}
+	for (; i < offset + length; i += 1) {
+	    destination[out++] = source[i];
+	    destination[out++] = parity(source[i]);
+	}
+
+    } // interleaveBuffer ()
+    // =========================================================================
+
+
+
+    // =========================================================================
+    /**
+     * Do the work of <code>checkInterleaved()</code>, four pairs to a word.
+     */
+    protected int checkBuffer (byte[] source, int offset, int pairs) {
+
+	// Each little-endian half-word is a pair: the data byte below, its
+	// parity byte above.  Damage is rare, so the words are checked without
+	// stopping, and searched again only if some pair failed.
+	int  words      = pairs / (Long.BYTES / 2);
+	long mismatches = 0;
+	for (int w = 0; w < words; w += 1) {
+	    mismatches |= mismatches((long)WORDS.get(source, offset + w * Long.BYTES));
+	}
+	if (mismatches != 0) {
+	    for (int w = 0; w < words; w += 1) {
+		long word = (long)WORDS.get(source, offset + w * Long.BYTES);
+		if (mismatches(word) != 0) {
+		    return w * (Long.BYTES / 2) +
+			(Long.numberOfTrailingZeros(mismatches(word)) >>> 4);
+		}
+	    }
+	}
+	for (int i = words * (Long.BYTES / 2); i < pairs; i += 1) {
+	    if (parity(source[offset + 2 * i]) != source[offset + 2 * i + 1]) {
+		return i;
+	    }
+	}
+	return -1;
+
+    } // checkBuffer ()
+    // =========================================================================
+
+
+
+    // =========================================================================
+    /**
+     * Do the work of <code>longitudinalCheck()</code>, eight bytes to a word.
+     */
+    protected byte xorBuffer (byte[] source, int offset, int length) {
+
+	long sum = 0;
+	int  i   = offset;
+	for (int end = offset + length - Long.BYTES; i <= end; i += Long.BYTES) {
+	    sum ^= (long)WORDS.get(source, i);
+	}
+	sum ^= sum >>> 32;
+	sum ^= sum >>> 16;
+	sum ^= sum >>> 8;
+	byte check = (byte)sum;
+	for (; i < offset + length; i += 1) {
+	    check ^= source[i];
+	}
+	return check;
+
+    } // xorBuffer ()
+    // =========================================================================
+
+
+
+    // =========================================================================
+    // PRIVATE METHODS
+    // =========================================================================
+
+
+
+    // =========================================================================
+    // Choose the kernel for this JVM: the vector kernel if it can be loaded
+    // and has not been ruled out, and this class's own otherwise.
+    private static ParityKernel select () {
+
+	ParityKernel kernel = null;
+	if (!"scalar".equals(System.getProperty(KERNEL_PROPERTY))) {
+	    kernel = load("vector");
+	}
+	return (kernel == null) ? new ParityKernel() : kernel;
+
+    } // select ()
+    // =========================================================================
+
+
+
+    // =========================================================================
+    // Fold every byte of a word onto its lowest bit, leaving there the byte's
+    // parity.  Each shift moves bits from higher in the same byte onto the
+    // bits being kept, so no byte's parity depends on its neighbour's.
+    private static long fold (long word) {
+
+	word ^= word >>> 4;
+	word ^= word >>> 2;
+	word ^= word >>> 1;
+	return word & LOW_BITS;
+
+    } // fold ()
+    // =========================================================================
+
+
+
+    // =========================================================================
+    // Flag the pairs of a word whose parity byte is not that of their data
+    // byte, setting bits in the low byte of those pairs' half-words.
+    private static long mismatches (long word) {
+
+	return (fold(word) & LOW_PAIR_BITS) ^ ((word >>> Byte.SIZE) & LOW_PAIR_BYTES);
+
+    } // mismatches ()
+    // =========================================================================
+
+
+
+    // =========================================================================
+    // Spread the low four bytes of a word into the low bytes of its four
+    // half-words.
+    private static long spread (long word) {
+
+	word &= 0xffffffffL;
+	word  = (word | (word << 16)) & 0x0000ffff0000ffffL;
+	word  = (word | (word << 8))  & LOW_PAIR_BYTES;
+	return word;
+
+    } // spread ()
+    // =========================================================================
+
+
+
+    // =========================================================================
+    // DATA MEMBERS
+
+    /** Reads and writes eight bytes of an array as a word, the first byte
+     *  lowest. */
+    private static final VarHandle WORDS =
+	MethodHandles.byteArrayViewVarHandle(long[].class, ByteOrder.LITTLE_ENDIAN);
+
+    /** The lowest bit of every byte in a word. */
+    private static final long LOW_BITS       = 0x0101010101010101L;
+
+    /** The lowest bit of every half-word in a word. */
+    private static final long LOW_PAIR_BITS  = 0x0001000100010001L;
+
+    /** The low byte of every half-word in a word. */
+    private static final long LOW_PAIR_BYTES = 0x00ff00ff00ff00ffL;
+
+    /** The module that the vector kernel needs. */
+    private static final String VECTOR_MODULE   = "jdk.incubator.vector";
+
+    /** The class of the vector kernel. */
+    private static final String VECTOR_KERNEL   = "VectorParityKernel";
+
+    /** The system property that can rule out the vector kernel. */
+    private static final String KERNEL_PROPERTY = "parity.kernel";
+
+    /** The kernel in use. */
+    private static final ParityKernel KERNEL    = select();
+    // =========================================================================
+
+
+
+// =============================================================================
+} // class ParityKernel
+// =============================================================================
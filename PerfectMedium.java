@@ -1,12 +1,3 @@
-// =============================================================================
-// IMPORTS
-
-import java.util.Collection;
-import java.util.Iterator;
-// =============================================================================
-
-
-
 // =============================================================================
 /**
  * An ideal medium with no noise, errors, loss.
@@ -40,20 +31,56 @@ public class PerfectMedium extends Medium {
     public void transmit (PhysicalLayer sender, boolean bit) {
 
 	// Only registered clients may send.
-	if (!clients.contains(sender)) {
-	    throw new RuntimeException("Unregistered sender on the medium");
-	}
+	checkSender(sender);
 	
 	// Deliver the bit to each client that is not the sender.
-	Iterator<PhysicalLayer> clientIterator = clients.iterator();
-	while (clientIterator.hasNext()) {
-	    
-	    PhysicalLayer receiver = clientIterator.next();
-	    if (receiver != sender) {
-		receiver.receive(bit);
-	    }
-
-	}
+	broadcast(sender, bit);
+
+    } // transmit ()
+    // =========================================================================
+
+
+
+    // =========================================================================
+    /**
+     * Send a word of bits from one client to the other clients.
+     *
+     * @param sender The client physical layer sending the bits.
+     * @param bits   The bits to send, right-aligned, the most significant of
+     *               them first.
+     * @param count  The number of bits to send (1 to 64).
+     * @throws RuntimeException if the sender is not registered with this
+     *                          medium.
+     */
+    public void transmit (PhysicalLayer sender, long bits, int count) {
+
+	// Only registered clients may send.
+	checkSender(sender);
+	
+	// Deliver the word to each client that is not the sender.
+	broadcast(sender, bits, count);
+
+    } // transmit ()
+    // =========================================================================
+
+
+
+    // =========================================================================
+    /**
+     * Send a stream of bits from one client to the other clients.
+     *
+     * @param sender The client physical layer sending the bits.
+     * @param stream The bits to send.
+     * @throws RuntimeException if the sender is not registered with this
+     *                          medium.
+     */
+    public void transmit (PhysicalLayer sender, BitStream stream) {
+
+	// Only registered clients may send.
+	checkSender(sender);
+
+	// Deliver the stream to each client that is not the sender.
+	broadcast(sender, stream);
 
     } // transmit ()
     // =========================================================================
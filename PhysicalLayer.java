@@ -82,7 +82,58 @@ public class PhysicalLayer {
      */
     public void send (boolean bit) {
 
-	medium.transmit(this, bit);
+	medium.getMetrics().bitsSent.increment();
+	if (outbound != null) {
+	    outbound.put(bit ? 1 : 0, 1);
+	} else {
+	    medium.transmit(this, bit);
+	}
+
+    } // send ()
+    // =========================================================================
+
+
+
+    // =========================================================================
+    /**
+     * Send a client's word of bits via the medium.
+     *
+     * @param bits  The bits to send, right-aligned, the most significant of
+     *              them first.
+     * @param count The number of bits to send (1 to 64).
+     */
+    public void send (long bits, int count) {
+
+	medium.getMetrics().bitsSent.add(count);
+	if (outbound != null) {
+	    outbound.put(bits, count);
+	} else {
+	    medium.transmit(this, bits, count);
+	}
+
+    } // send ()
+    // =========================================================================
+
+
+
+    // =========================================================================
+    /**
+     * Send a client's stream of bits via the medium.
+     *
+     * @param stream The bits to send.
+     */
+    public void send (BitStream stream) {
+
+	medium.getMetrics().bitsSent.add(stream.length());
+	WordQueue queue = outbound;
+	if (queue != null) {
+	    for (int from = 0; from < stream.length(); from += Long.SIZE) {
+		int count = Math.min(Long.SIZE, stream.length() - from);
+		queue.put(stream.bits(from, count), count);
+	    }
+	} else {
+	    medium.transmit(this, stream);
+	}
 
     } // send ()
     // =========================================================================
@@ -98,6 +149,7 @@ public class PhysicalLayer {
      */
     public void receive (boolean bit) {
 
+	medium.getMetrics().bitsReceived.increment();
 	client.receive(bit);
 
     }
@@ -105,6 +157,70 @@ public class PhysicalLayer {
 
 
 
+    // ===============================================================
+    /**
+     * Called by the medium to deliver a word of bits, which is then in turn
+     * delivered to the client data link layer.
+     *
+     * @param bits  The bits received, right-aligned, the most significant of
+     *              them first.
+     * @param count The number of bits received (1 to 64).
+     */
+    public void receive (long bits, int count) {
+
+	medium.getMetrics().bitsReceived.add(count);
+	client.receive(bits, count);
+
+    }
+    // ===============================================================
+
+
+
+    // ===============================================================
+    /**
+     * Called by the medium to deliver a stream of bits, which is then in turn
+     * delivered to the client data link layer.
+     *
+     * @param stream The bits received.
+     */
+    public void receive (BitStream stream) {
+
+	medium.getMetrics().bitsReceived.add(stream.length());
+	client.receive(stream);
+
+    }
+    // ===============================================================
+
+
+
+    // ===============================================================
+    /**
+     * @return the identifier the medium gave this layer when it registered,
+     *         or <code>-1</code> if it has not registered.
+     */
+    public int getId () {
+
+	return id;
+
+    } // getId ()
+    // ===============================================================
+
+
+
+    // ===============================================================
+    /**
+     * @return the counters into which activity on this layer's medium is
+     *         recorded.
+     */
+    public Metrics getMetrics () {
+
+	return medium.getMetrics();
+
+    } // getMetrics ()
+    // ===============================================================
+
+
+
     // ===============================================================
     // DATA MEMBERS
 
@@ -113,6 +229,17 @@ public class PhysicalLayer {
 
     /** The data link layer above this physical layer. */
     private DataLinkLayer client;
+
+    /** This layer's index in its medium's registry; set by the medium. */
+    protected int id = -1;
+
+    /** While the medium is asynchronous, the words waiting to be carried
+     *  across it; set by the medium. */
+    protected volatile WordQueue outbound;
+
+    /** While the medium is asynchronous, the words carried across it waiting
+     *  to be received; set by the medium. */
+    protected volatile WordQueue inbound;
     // ===============================================================
 
 
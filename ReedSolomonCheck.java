@@ -0,0 +1,103 @@
+// =============================================================================
+// IMPORTS
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+// =============================================================================
+
+
+
+// =============================================================================
+/**
+ * The self-check for <code>ReedSolomonCode</code>: blocks corrected with up
+ * to <i>t</i> damaged bytes, and refused with more.
+ *
+ * @file   ReedSolomonCheck.java
+ * @date   October 2026
+ */
+public class ReedSolomonCheck extends SelfCheck {
+// =============================================================================
+
+
+
+    // =========================================================================
+    // PACKAGE METHODS
+    // =========================================================================
+
+
+
+    // =========================================================================
+    /**
+     * A Reed-Solomon block must be corrected with up to t damaged bytes, and
+     * refused, and left as it was, with t + 1.
+     */
+    static void run () {
+
+	SplittableRandom random = new SplittableRandom(SEED);
+	ReedSolomonCode  code   = new ReedSolomonCode(255, 223);
+	int              t      = code.checkLength() / 2;
+	int[]            sizes  = { 1, 16, 64, 223 };
+	for (int size : sizes) {
+	    for (int trial = 0; trial < TRIALS; trial += 1) {
+
+		byte[] block = new byte[size + code.checkLength()];
+		System.arraycopy(randomBytes(random, size), 0, block, 0, size);
+		code.encode(block, 0, size, block, size);
+		check("Reed-Solomon accepts a codeword of " + size + " bytes",
+		      code.decode(block.clone(), 0, block.length) == 0);
+
+		int    errors   = Math.min(1 + random.nextInt(t), block.length);
+		byte[] damaged  = damage(random, block, errors);
+		int    repaired = code.decode(damaged, 0, damaged.length);
+		check("Reed-Solomon corrects " + errors + " bytes of " +
+		      block.length,
+		      (repaired > 0) && Arrays.equals(damaged, block));
+
+		if (block.length > t) {
+		    damaged          = damage(random, block, t + 1);
+		    byte[] received  = damaged.clone();
+		    check("Reed-Solomon refuses " + (t + 1) + " bytes of " +
+			  block.length,
+			  (code.decode(damaged, 0, damaged.length) < 0) &&
+			  Arrays.equals(damaged, received));
+		}
+
+	    }
+	}
+
+    } // run ()
+    // =========================================================================
+
+
+
+    // =========================================================================
+    // PRIVATE METHODS
+    // =========================================================================
+
+
+
+    // =========================================================================
+    // Copy a block and damage the given number of distinct bytes in it.
+    private static byte[] damage (SplittableRandom random, byte[] block,
+				  int count) {
+
+	byte[]    damaged = block.clone();
+	boolean[] chosen  = new boolean[block.length];
+	for (int e = 0; e < count; e += 1) {
+	    int position;
+	    do {
+		position = random.nextInt(block.length);
+	    } while (chosen[position]);
+	    chosen[position]   = true;
+	    damaged[position] ^= (byte)(1 + random.nextInt(255));
+	}
+	return damaged;
+
+    } // damage ()
+    // =========================================================================
+
+
+
+// =============================================================================
+} // class ReedSolomonCheck
+// =============================================================================
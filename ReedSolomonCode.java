@@ -0,0 +1,469 @@
+// =============================================================================
+// IMPORTS
+
+import java.util.Arrays;
+// =============================================================================
+
+
+
+// =============================================================================
+/**
+ * A Reed-Solomon (n, k) code over GF(256): each block of up to k data bytes is
+ * followed by n - k check bytes, and up to (n - k) / 2 damaged bytes anywhere
+ * in the block can be corrected, no matter how many of their bits are wrong.
+ * That makes the code suited to bursts of errors.  Blocks may be shortened,
+ * i.e. carry fewer than k data bytes, as if the missing ones were leading
+ * zeros.
+ *
+ * Arithmetic uses logarithm and antilogarithm tables.  Decoding computes the
+ * syndromes, finds the error locator with Berlekamp-Massey, finds its roots by
+ * Chien search, and finds the error values by Forney's formula, all in arrays
+ * allocated once per code; an instance must therefore be used by one thread at
+ * a time.
+ *
+ * @file   ReedSolomonCode.java
+ * @date   October 2026
+ */
+public class ReedSolomonCode {
+// =============================================================================
+
+
+
+    // =========================================================================
+    // PUBLIC METHODS
+    // =========================================================================
+
+
+
+    // =========================================================================
+    /**
+     * The constructor.  Build the generator polynomial and the decoder's work
+     * space.
+     *
+     * @param  n The number of bytes in a full block (at most 255).
+     * @param  k The number of data bytes in a full block.
+     * @throws RuntimeException if the parameters are out of range.
+     */
+    public ReedSolomonCode (int n, int k) {
+
+	if ((k < 1) || (n <= k) || (n > FIELD_SIZE - 1)) {
+	    throw new RuntimeException("Invalid Reed-Solomon code (" + n + ", " +
+				       k + ")");
+	}
+	this.n           = n;
+	this.k           = k;
+	this.checkLength = n - k;
+
+	// The generator is the product of (x - a^j) for j from 0 up to the
+	// number of check bytes, highest degree first.
+	generator    = new int[checkLength + 1];
+	generator[0] = 1;
+	for (int j = 0; j < checkLength; j += 1) {
+	    for (int i = j + 1; i > 0; i -= 1) {
+		generator[i] ^= multiply(generator[i - 1], EXP[j]);
+	    }
+	}
+
+	// Tabulate the products that encoding and computing syndromes need,
+	// so that each byte costs a lookup per check byte.
+	generatorProducts = new byte[FIELD_SIZE * checkLength];
+	rootProducts      = new byte[FIELD_SIZE * checkLength];
+	for (int value = 0; value < FIELD_SIZE; value += 1) {
+	    for (int j = 0; j < checkLength; j += 1) {
+		generatorProducts[value * checkLength + j] =
+		    (byte)multiply(value, generator[j + 1]);
+		rootProducts[j * FIELD_SIZE + value] =
+		    (byte)multiply(value, EXP[j]);
+	    }
+	}
+
+	syndromes = new int[checkLength];
+	locator   = new int[checkLength + 1];
+	previous  = new int[checkLength + 1];
+	scratch   = new int[checkLength + 1];
+	evaluator = new int[checkLength];
+	positions = new int[checkLength];
+
+    } // ReedSolomonCode ()
+    // =========================================================================
+
+
+
+    // =========================================================================
+    /**
+     * @return the number of bytes in a full block.
+     */
+    public int n () {
+
+	return n;
+
+    } // n ()
+    // =========================================================================
+
+
+
+    // =========================================================================
+    /**
+     * @return the number of data bytes in a full block.
+     */
+    public int k () {
+
+	return k;
+
+    } // k ()
+    // =========================================================================
+
+
+
+    // =========================================================================
+    /**
+     * @return the number of check bytes that follow the data of each block.
+     */
+    public int checkLength () {
+
+	return checkLength;
+
+    } // checkLength ()
+    // =========================================================================
+
+
+
+    // =========================================================================
+    /**
+     * Compute the check bytes of a block: the remainder of its data, shifted
+     * up by the number of check bytes, divided by the generator.
+     *
+     * @param data        The buffer holding the data bytes.
+     * @param offset      The index of the first data byte.
+     * @param length      The number of data bytes (1 to k).
+     * @param check       The buffer into which to write the check bytes.
+     * @param checkOffset The index at which to write the first check byte.
+     */
+    public void encode (byte[] data, int offset, int length,
+			byte[] check, int checkOffset) {
+
+	// Run the data through a division register, one byte at a time.
+	int[] remainder = scratch;
+	Arrays.fill(remainder, 0);
+	for (int i = 0; i < length; i += 1) {
+	    int feedback = ((data[offset + i] & 0xff) ^ remainder[0]) * checkLength;
+	    for (int j = 0; j < checkLength - 1; j += 1) {
+		remainder[j] = remainder[j + 1] ^
+		    (generatorProducts[feedback + j] & 0xff);
+	    }
+	    remainder[checkLength - 1] =
+		generatorProducts[feedback + checkLength - 1] & 0xff;
+	}
+
+	for (int j = 0; j < checkLength; j += 1) {
+	    check[checkOffset + j] = (byte)remainder[j];
+	}
+
+    } // encode ()
+    // =========================================================================
+
+
+
+    // =========================================================================
+    /**
+     * Correct a received block in place.
+     *
+     * @param  block  The buffer holding the block: its data bytes, then its
+     *                check bytes.
+     * @param  offset The index of the block's first byte.
+     * @param  length The number of bytes in the block, data and check (more
+     *                than the number of check bytes, and at most n).
+     * @return the number of bits corrected, or <code>-1</code> if the block
+     *         is too badly damaged to correct, in which case it is left as it
+     *         was.
+     */
+    public int decode (byte[] block, int offset, int length) {
+
+	// Evaluate the received polynomial at each root of the generator.  If
+	// every result is zero, the block is a codeword.
+	// Horner's rule runs for every root at once, so that the lookups for
+	// one byte do not wait on one another.
+	Arrays.fill(syndromes, 0);
+	for (int i = 0; i < length; i += 1) {
+	    int value = block[offset + i] & 0xff;
+	    for (int j = 0, base = 0; j < checkLength; j += 1, base += FIELD_SIZE) {
+		syndromes[j] = (rootProducts[base + syndromes[j]] & 0xff) ^ value;
+	    }
+	}
+	boolean clean = true;
+	for (int j = 0; j < checkLength; j += 1) {
+	    clean &= (syndromes[j] == 0);
+	}
+	if (clean) {
+	    return 0;
+	}
+
+	int errors = findLocator();
+	if ((errors < 0) || (errors > checkLength / 2)) {
+	    return -1;
+	}
+
+	// Chien search: the byte at distance p from the end of the block is
+	// damaged if the locator has a root at a^-p.  There must be as many
+	// such roots, within the block, as the locator's degree.
+	int found = 0;
+	for (int p = 0; p < length; p += 1) {
+	    int inverse = (FIELD_SIZE - 1 - p) % (FIELD_SIZE - 1);
+	    int sum     = 0;
+	    for (int i = 0; i <= errors; i += 1) {
+		sum ^= multiply(locator[i], EXP[(inverse * i) % (FIELD_SIZE - 1)]);
+	    }
+	    if (sum == 0) {
+		if (found == errors) {
+		    return -1;
+		}
+		positions[found] = p;
+		found           += 1;
+	    }
+	}
+	if (found != errors) {
+	    return -1;
+	}
+
+	// The error evaluator is the product of the syndrome and locator
+	// polynomials, truncated to the number of check bytes.
+	for (int i = 0; i < checkLength; i += 1) {
+	    int sum = 0;
+	    for (int j = 0; j <= Math.min(i, errors); j += 1) {
+		sum ^= multiply(locator[j], syndromes[i - j]);
+	    }
+	    evaluator[i] = sum;
+	}
+
+	// Forney: the error at locator X is X * evaluator(1/X) divided by the
+	// locator's derivative at 1/X.  The derivative keeps only the odd
+	// terms, each lowered by one degree.
+	for (int e = 0; e < errors; e += 1) {
+
+	    int p       = positions[e];
+	    int inverse = (FIELD_SIZE - 1 - p) % (FIELD_SIZE - 1);
+
+	    int numerator = 0;
+	    for (int i = 0; i < checkLength; i += 1) {
+		numerator ^= multiply(evaluator[i],
+				      EXP[(inverse * i) % (FIELD_SIZE - 1)]);
+	    }
+	    numerator = multiply(numerator, EXP[p]);
+
+	    int denominator = 0;
+	    for (int i = 1; i <= errors; i += 2) {
+		denominator ^= multiply(locator[i],
+					EXP[(inverse * (i - 1)) % (FIELD_SIZE - 1)]);
+	    }
+	    if (denominator == 0) {
+		return -1;
+	    }
+
+	    scratch[e] = divide(numerator, denominator);
+
+	}
+
+	// Apply the corrections only once all of them are known.
+	int corrected = 0;
+	for (int e = 0; e < errors; e += 1) {
+	    block[offset + length - 1 - positions[e]] ^= (byte)scratch[e];
+	    corrected += Integer.bitCount(scratch[e]);
+	}
+
+	return corrected;
+
+    } // decode ()
+    // =========================================================================
+
+
+
+    // =========================================================================
+    // PRIVATE METHODS
+    // =========================================================================
+
+
+
+    // =========================================================================
+    // Berlekamp-Massey: find the shortest register, i.e. the error locator,
+    // that generates the syndromes.  Returns its degree, the number of
+    // errors, or -1 if no register short enough exists.
+    private int findLocator () {
+
+	Arrays.fill(locator, 0);
+	Arrays.fill(previous, 0);
+	locator[0]  = 1;
+	previous[0] = 1;
+
+	int degree      = 0;
+	int shift       = 1;
+	int previousGap = 1;
+	for (int step = 0; step < checkLength; step += 1) {
+
+	    // How far does the current register miss this syndrome?
+	    int gap = syndromes[step];
+	    for (int i = 1; i <= degree; i += 1) {
+		gap ^= multiply(locator[i], syndromes[step - i]);
+	    }
+	    if (gap == 0) {
+		shift += 1;
+		continue;
+	    }
+
+	    // Correct the register by a scaled, shifted copy of the previous
+	    // one, lengthening it if needed.
+	    int     scale    = divide(gap, previousGap);
+	    boolean lengthen = (2 * degree <= step);
+	    if (lengthen) {
+		System.arraycopy(locator, 0, scratch, 0, locator.length);
+	    }
+	    for (int i = 0; i + shift < locator.length; i += 1) {
+		locator[i + shift] ^= multiply(scale, previous[i]);
+	    }
+	    for (int i = locator.length - shift; i < locator.length; i += 1) {
+		if ((i >= 0) && (previous[i] != 0)) {
+		    return -1;
+		}
+	    }
+	    if (lengthen) {
+		degree      = step + 1 - degree;
+		System.arraycopy(scratch, 0, previous, 0, previous.length);
+		previousGap = gap;
+		shift       = 1;
+	    } else {
+		shift += 1;
+	    }
+
+	}
+
+	return degree;
+
+    } // findLocator ()
+    // =========================================================================
+
+
+
+    // =========================================================================
+    // Multiply two field elements.
+    private static int multiply (int a, int b) {
+
+	if ((a == 0) || (b == 0)) {
+	    return 0;
+	}
+	return EXP[LOG[a] + LOG[b]];
+
+    } // multiply ()
+    // =========================================================================
+
+
+
+    // =========================================================================
+    // Divide one field element by another, which must not be zero.
+    private static int divide (int a, int b) {
+
+	if (a == 0) {
+	    return 0;
+	}
+	return EXP[LOG[a] + (FIELD_SIZE - 1) - LOG[b]];
+
+    } // divide ()
+    // =========================================================================
+
+
+
+    // =========================================================================
+    // Build the antilogarithm table, doubled in length so that the sum of two
+    // logarithms needs no reduction.
+    private static int[] expTable () {
+
+	int[] table = new int[2 * FIELD_SIZE];
+	int   value = 1;
+	for (int i = 0; i < FIELD_SIZE - 1; i += 1) {
+	    table[i]                  = value;
+	    table[i + FIELD_SIZE - 1] = value;
+	    value <<= 1;
+	    if (value >= FIELD_SIZE) {
+		value ^= PRIMITIVE;
+	    }
+	}
+	return table;
+
+    } // expTable ()
+    // =========================================================================
+
+
+
+    // =========================================================================
+    // Build the logarithm table from the antilogarithm table.
+    private static int[] logTable () {
+
+	int[] table = new int[FIELD_SIZE];
+	for (int i = 0; i < FIELD_SIZE - 1; i += 1) {
+	    table[EXP[i]] = i;
+	}
+	return table;
+
+    } // logTable ()
+    // =========================================================================
+
+
+
+    // =========================================================================
+    // DATA MEMBERS
+
+    /** The number of bytes in a full block. */
+    private final int    n;
+
+    /** The number of data bytes in a full block. */
+    private final int    k;
+
+    /** The number of check bytes in each block. */
+    private final int    checkLength;
+
+    /** The generator polynomial's coefficients, highest degree first. */
+    private final int[]  generator;
+
+    /** The product of each field element with each of the generator's
+     *  coefficients but the first, by element and then coefficient. */
+    private final byte[] generatorProducts;
+
+    /** The product of each field element with each of the generator's
+     *  roots, by root and then element. */
+    private final byte[] rootProducts;
+
+    /** Decoder work space: the syndromes, lowest degree first. */
+    private final int[]  syndromes;
+
+    /** Decoder work space: the error locator, lowest degree first. */
+    private final int[]  locator;
+
+    /** Decoder work space: the locator before its last lengthening. */
+    private final int[]  previous;
+
+    /** Work space for the encoder's register and the decoder's copies. */
+    private final int[]  scratch;
+
+    /** Decoder work space: the error evaluator, lowest degree first. */
+    private final int[]  evaluator;
+
+    /** Decoder work space: each error's distance from the end of the
+     *  block. */
+    private final int[]  positions;
+
+    /** The number of elements in the field. */
+    private static final int    FIELD_SIZE = 256;
+
+    /** The polynomial from which the field is built: x^8+x^4+x^3+x^2+1. */
+    private static final int    PRIMITIVE  = 0x11d;
+
+    /** The antilogarithms: EXP[i] is the generator raised to i. */
+    private static final int[]  EXP        = expTable();
+
+    /** The logarithms: LOG[EXP[i]] is i. */
+    private static final int[]  LOG        = logTable();
+    // =========================================================================
+
+
+
+// =============================================================================
+} // class ReedSolomonCode
+// =============================================================================
@@ -0,0 +1,277 @@
+// =============================================================================
+// IMPORTS
+
+import java.util.Arrays;
+// =============================================================================
+
+
+
+// =============================================================================
+/**
+ * A data link layer that corrects bursts of errors.  Each frame is the
+ * payload's length followed by the payload, cut into blocks of a Reed-Solomon
+ * code, each followed by its check bytes.  With the default (255, 223) code,
+ * any 16 damaged bytes in a block are corrected, however many of their bits
+ * were flipped.
+ *
+ * As with the Hamming layer, frames are not tagged: the receiver decodes the
+ * first block, which holds the length, and then counts off the rest of the
+ * frame.  So that the receiver knows how long that first block is, it always
+ * carries as many bytes as a full-sized frame would put there, padded if the
+ * frame is shorter; later blocks are full except the last, which is
+ * shortened.  A frame holding an uncorrectable block is dropped; if the first
+ * block is uncorrectable, the frame is taken to be of the maximum size.  Both
+ * ends must therefore use the same code and the same maximum frame size.
+ *
+ * @file   ReedSolomonDataLinkLayer.java
+ * @date   October 2026
+ */
+public class ReedSolomonDataLinkLayer extends DataLinkLayer {
+// =============================================================================
+
+
+
+    // =========================================================================
+    /**
+     * Choose the Reed-Solomon code with which to protect frames.  Up to
+     * <code>(n - k) / 2</code> damaged bytes per block can be corrected.
+     *
+     * @param  n The number of bytes in a full block, data and check (at most
+     *           255).
+     * @param  k The number of data bytes in a full block.
+     * @throws RuntimeException if the parameters are out of range.
+     */
+    public void setCode (int n, int k) {
+
+	encoder  = new ReedSolomonCode(n, k);
+	decoder  = new ReedSolomonCode(n, k);
+	block    = new byte[n];
+	expected = -1;
+
+    } // setCode ()
+    // =========================================================================
+
+
+
+    // =========================================================================
+    /**
+     * Set the largest number of data bytes that a single frame may carry,
+     * which is limited by the two-byte length at the start of each frame.
+     *
+     * @param  maxFrameSize The maximum payload per frame, in bytes.
+     * @throws RuntimeException if the size is not positive or too large.
+     */
+    public void setMaxFrameSize (int maxFrameSize) {
+
+	if (maxFrameSize > MAX_FRAME_SIZE) {
+	    throw new RuntimeException("Invalid maximum frame size " +
+				       maxFrameSize);
+	}
+	super.setMaxFrameSize(maxFrameSize);
+	expected = -1;
+
+    } // setMaxFrameSize ()
+    // =========================================================================
+
+
+
+    // =========================================================================
+    /**
+     * Lay out the length and the payload in blocks, and follow each block with
+     * its check bytes.
+     *
+     * @param  data The raw sequence of bytes to be framed.
+     * @return A complete frame.
+     */
+    protected byte[] createFrame (byte[] data) {
+
+	int    checkLength = encoder.checkLength();
+	int    first       = firstBlockData();
+	int    total       = Math.max(first, LENGTH_BYTES + data.length);
+	int    blocks      = 1 + (total - first + encoder.k() - 1) / encoder.k();
+	byte[] framedData  = new byte[total + blocks * checkLength];
+
+	// Lay out the length, the payload, and any padding of the first block.
+	byte[] content = new byte[total];
+	for (int i = 0; i < LENGTH_BYTES; i += 1) {
+	    content[i] = (byte)(data.length >>>
+				((LENGTH_BYTES - 1 - i) * BITS_PER_BYTE));
+	}
+	System.arraycopy(data, 0, content, LENGTH_BYTES, data.length);
+
+	// Copy each block into the frame, followed by its check bytes.
+	int j = 0;
+	for (int i = 0, size = first; i < total; i += size, size = encoder.k()) {
+	    size = Math.min(size, total - i);
+	    System.arraycopy(content, i, framedData, j, size);
+	    encoder.encode(content, i, size, framedData, j + size);
+	    j += size + checkLength;
+	}
+
+	return framedData;
+
+    } // createFrame ()
+    // =========================================================================
+
+
+
+    // =========================================================================
+    /**
+     * Decode a frame's blocks as they arrive: first the one holding the
+     * length, then the rest, correcting errors along the way.
+     *
+     * @return If the buffer contains a complete frame, the extracted, original
+     *         data; <code>null</code> otherwise.
+     */
+    protected byte[] processFrame () {
+
+	int checkLength = decoder.checkLength();
+	int first       = firstBlockData();
+
+	// Decode the first block, which holds the length.
+	if (expected < 0) {
+
+	    if (byteBuffer.size() < first + checkLength) {
+		return null;
+	    }
+	    if (message.length < LENGTH_BYTES + maxFrameSize) {
+		message = new byte[LENGTH_BYTES + maxFrameSize];
+	    }
+	    damaged = !decode(first);
+	    System.arraycopy(block, 0, message, 0, first);
+
+	    // If the length is damaged, guess that the frame is full-sized, as
+	    // all but the last of a transmission are, and drop it.
+	    int length = 0;
+	    for (int i = 0; i < LENGTH_BYTES; i += 1) {
+		length = (length << BITS_PER_BYTE) | (message[i] & 0xff);
+	    }
+	    damaged  |= (length > maxFrameSize);
+	    expected  = damaged ? maxFrameSize : length;
+	    received  = first;
+	    intact    = true;
+
+	}
+
+	// Decode each further block once all of it has arrived.
+	int total = LENGTH_BYTES + expected;
+	while (received < total) {
+	    int size = Math.min(decoder.k(), total - received);
+	    if (byteBuffer.size() < size + checkLength) {
+		return null;
+	    }
+	    intact &= decode(size);
+	    System.arraycopy(block, 0, message, received, size);
+	    received += size;
+	}
+	expected = -1;
+
+	if (damaged) {
+	    reportError("ERROR - Frame Length Uncorrectable.");
+	    return null;
+	}
+	if (!intact) {
+	    reportError("ERROR - Frame Has Uncorrectable Errors.");
+	    return null;
+	}
+	if (debug) {
+	    System.out.println("ReedSolomonDataLinkLayer.processFrame(): Got whole frame!");
+	}
+
+	return Arrays.copyOfRange(message, LENGTH_BYTES, total);
+
+    } // processFrame ()
+    // =========================================================================
+
+
+
+    // =========================================================================
+    // PRIVATE METHODS
+    // =========================================================================
+
+
+
+    // =========================================================================
+    // The number of data bytes in each frame's first block: enough for the
+    // length and a full-sized payload, or a full block if that is smaller.
+    private int firstBlockData () {
+
+	return Math.min(decoder.k(), LENGTH_BYTES + maxFrameSize);
+
+    } // firstBlockData ()
+    // =========================================================================
+
+
+
+    // =========================================================================
+    // Remove a block with the given number of data bytes, and its check bytes,
+    // from the byte buffer into the block buffer, and correct it there,
+    // counting the bits corrected.  Returns whether it could be corrected.
+    private boolean decode (int size) {
+
+	int length = size + decoder.checkLength();
+	byteBuffer.copyTo(0, block, 0, length);
+	byteBuffer.discard(length);
+
+	int corrected = decoder.decode(block, 0, length);
+	if (corrected > 0) {
+	    metrics().bitsCorrected.add(corrected);
+	}
+	return corrected >= 0;
+
+    } // decode ()
+    // =========================================================================
+
+
+
+    // =========================================================================
+    // DATA MEMBERS
+
+    /** The code protecting each frame, as used to build frames.  Sending and
+     *  receiving may run on different threads, and each use of the code
+     *  needs its own working arrays, so each has its own instance. */
+    private ReedSolomonCode encoder  = new ReedSolomonCode(DEFAULT_N, DEFAULT_K);
+
+    /** The code protecting each frame, as used to correct frames received. */
+    private ReedSolomonCode decoder  = new ReedSolomonCode(DEFAULT_N, DEFAULT_K);
+
+    /** The block being decoded. */
+    private byte[]          block    = new byte[DEFAULT_N];
+
+    /** The decoded length and payload of the frame being received. */
+    private byte[]          message  = new byte[0];
+
+    /** The number of payload bytes in the frame being received, or
+     *  <code>-1</code> if its first block has yet to arrive. */
+    private int             expected = -1;
+
+    /** The number of bytes of <code>message</code> decoded so far. */
+    private int             received = 0;
+
+    /** Whether the first block of the frame being received was
+     *  uncorrectable. */
+    private boolean         damaged  = false;
+
+    /** Whether every block of the frame being received so far was
+     *  correctable. */
+    private boolean         intact   = true;
+
+    /** The number of bytes in a full block of the default code. */
+    private static final int DEFAULT_N      = 255;
+
+    /** The number of data bytes in a full block of the default code. */
+    private static final int DEFAULT_K      = 223;
+
+    /** The number of bytes in a frame's length. */
+    private static final int LENGTH_BYTES   = 2;
+
+    /** The largest payload whose length fits in a frame. */
+    private static final int MAX_FRAME_SIZE =
+	(1 << (LENGTH_BYTES * BITS_PER_BYTE)) - 1;
+    // =========================================================================
+
+
+
+// =============================================================================
+} // class ReedSolomonDataLinkLayer
+// =============================================================================
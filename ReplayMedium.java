@@ -0,0 +1,279 @@
+// =============================================================================
+// IMPORTS
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+// =============================================================================
+
+
+
+// =============================================================================
+/**
+ * A medium that flips exactly the bits recorded in a trace by a
+ * <code>TraceRecorder</code>, so that a run can be repeated bit for bit, or a
+ * different data link layer can face the very same errors.  The trace is
+ * mapped into memory a large window at a time and decoded as the bits it
+ * describes go by, so replaying costs little more than a perfect medium.  Bits
+ * past the end of the trace arrive unharmed.
+ *
+ * @file   ReplayMedium.java
+ * @date   October 2026
+ */
+public class ReplayMedium extends Medium implements Medium.Noise {
+// =============================================================================
+
+
+
+    // =========================================================================
+    // PUBLIC METHODS
+    // =========================================================================
+
+
+
+    // =========================================================================
+    /**
+     * Replay a trace from its beginning.
+     *
+     * @param  path The pathname of the trace file.
+     * @throws IOException      if the file cannot be read.
+     * @throws RuntimeException if the file is not a trace.
+     */
+    public void setTrace (Path path) throws IOException {
+
+	this.path = path;
+	try (FileChannel channel = FileChannel.open(path,
+						    StandardOpenOption.READ)) {
+	    size = channel.size();
+	}
+	windowStart = 0;
+	window      = null;
+	position    = 0;
+
+	int magic = 0;
+	for (int i = 0; i < Integer.BYTES; i += 1) {
+	    if (!hasMore()) {
+		throw new RuntimeException(path + " is not a trace file");
+	    }
+	    magic = (magic << Byte.SIZE) | nextByte();
+	}
+	if (magic != TraceRecorder.MAGIC) {
+	    throw new RuntimeException(path + " is not a trace file");
+	}
+	nextFlip = nextFlip(0);
+
+    } // setTrace ()
+    // =========================================================================
+
+
+
+    // =========================================================================
+    /**
+     * Send a bit from one client to the other clients, flipping it if the
+     * trace says so.
+     *
+     * @param sender The client physical layer sending the bit.
+     * @param bit The value to be sent, where <code>false</code> sends a
+     *            <code>0</code> bit, and <code>true</code> sends a
+     *            <code>1</code> bit.
+     * @throws RuntimeException if the sender is not registered with this
+     *                          medium.
+     */
+    public void transmit (PhysicalLayer sender, boolean bit) {
+
+	transmit(sender, bit ? 1 : 0, 1);
+
+    } // transmit ()
+    // =========================================================================
+
+
+
+    // =========================================================================
+    /**
+     * Send a word of bits from one client to the other clients, flipping
+     * those that the trace says to.
+     *
+     * @param sender The client physical layer sending the bits.
+     * @param bits   The bits to send, right-aligned, the most significant of
+     *               them first.
+     * @param count  The number of bits to send (1 to 64).
+     * @throws RuntimeException if the sender is not registered with this
+     *                          medium.
+     */
+    public void transmit (PhysicalLayer sender, long bits, int count) {
+
+	transmit(sender, bits, count, this);
+
+    } // transmit ()
+    // =========================================================================
+
+
+
+    // =========================================================================
+    /**
+     * Send a stream of bits from one client to the other clients, flipping
+     * those that the trace says to.
+     *
+     * @param sender The client physical layer sending the bits.
+     * @param stream The bits to send.
+     * @throws RuntimeException if the sender is not registered with this
+     *                          medium.
+     */
+    public void transmit (PhysicalLayer sender, BitStream stream) {
+
+	transmit(sender, stream, this);
+
+    } // transmit ()
+    // =========================================================================
+
+
+
+    // =========================================================================
+    /**
+     * Advance through the trace by some bits and determine which of them
+     * flip.
+     *
+     * @param  count The number of bits (1 to 64).
+     * @return a mask, aligned like a word of <code>count</code> bits sent most
+     *         significant first, with a <code>1</code> for each flipped bit.
+     */
+    public long mask (int count) {
+
+	long mask = 0;
+	long end  = position + count;
+	while (nextFlip < end) {
+	    mask    |= 1L << (count - 1 - (int)(nextFlip - position));
+	    nextFlip = nextFlip(nextFlip + 1);
+	}
+	position = end;
+	return mask;
+
+    } // mask ()
+    // =========================================================================
+
+
+
+    // =========================================================================
+    /**
+     * Advance through the trace past the next bits that are not flipped,
+     * stopping at the first that is.
+     *
+     * @param  count The most bits to pass over.
+     * @return the number of bits passed over; fewer than <code>count</code>
+     *         only if the next bit is flipped.
+     */
+    public long skip (long count) {
+
+	long skipped = Math.min(count, nextFlip - position);
+	position    += skipped;
+	return skipped;
+
+    } // skip ()
+    // =========================================================================
+
+
+
+    // =========================================================================
+    // PRIVATE METHODS
+    // =========================================================================
+
+
+
+    // =========================================================================
+    // Read the next gap from the trace, returning the position of the flip
+    // that it leads to from the given position, or Long.MAX_VALUE if the
+    // trace has ended.
+    private long nextFlip (long from) {
+
+	if (!hasMore()) {
+	    return Long.MAX_VALUE;
+	}
+
+	long gap   = 0;
+	int  shift = 0;
+	int  b;
+	do {
+	    if (!hasMore() || (shift >= Long.SIZE)) {
+		throw new RuntimeException(path + " is truncated or damaged");
+	    }
+	    b      = nextByte();
+	    gap   |= (long)(b & 0x7f) << shift;
+	    shift += 7;
+	} while ((b & 0x80) != 0);
+
+	return from + gap;
+
+    } // nextFlip ()
+    // =========================================================================
+
+
+
+    // =========================================================================
+    // Determine whether any of the trace remains to be read.
+    private boolean hasMore () {
+
+	long read = windowStart + ((window == null) ? 0 : window.position());
+	return read < size;
+
+    } // hasMore ()
+    // =========================================================================
+
+
+
+    // =========================================================================
+    // Read the next byte of the trace, mapping the next window of the file
+    // once the current one is used up.
+    private int nextByte () {
+
+	if ((window == null) || !window.hasRemaining()) {
+	    if (window != null) {
+		windowStart += window.capacity();
+	    }
+	    try (FileChannel channel = FileChannel.open(path,
+							StandardOpenOption.READ)) {
+		window = channel.map(FileChannel.MapMode.READ_ONLY, windowStart,
+				     Math.min(WINDOW_SIZE, size - windowStart));
+	    } catch (IOException e) {
+		throw new RuntimeException("Unexpected failure in reading " +
+					   path);
+	    }
+	}
+	return window.get() & 0xff;
+
+    } // nextByte ()
+    // =========================================================================
+
+
+
+    // =========================================================================
+    // DATA MEMBERS
+
+    /** The pathname of the trace file. */
+    private Path             path;
+
+    /** The length of the trace file, in bytes. */
+    private long             size;
+
+    /** The part of the trace file currently mapped, if any. */
+    private MappedByteBuffer window;
+
+    /** The offset in the trace file at which the window begins. */
+    private long             windowStart;
+
+    /** The number of bits delivered so far. */
+    private long             position;
+
+    /** The position of the next bit to flip. */
+    private long             nextFlip = Long.MAX_VALUE;
+
+    /** The number of bytes of the trace mapped at a time. */
+    private static final int WINDOW_SIZE = 1 << 26;
+    // =========================================================================
+
+
+
+// =============================================================================
+} // class ReplayMedium
+// =============================================================================
@@ -0,0 +1,30 @@
+// =============================================================================
+/**
+ * A data link layer that recovers from errors by selective repeat: only frames
+ * that are lost are sent again, and the receiver holds frames that arrive
+ * early until the gap before them is filled.
+ *
+ * @file   SelectiveRepeatDataLinkLayer.java
+ * @date   October 2026
+ */
+public class SelectiveRepeatDataLinkLayer extends ARQDataLinkLayer {
+// =============================================================================
+
+
+
+    // =========================================================================
+    /**
+     * The constructor.
+     */
+    public SelectiveRepeatDataLinkLayer () {
+
+	super(true);
+
+    } // SelectiveRepeatDataLinkLayer ()
+    // =========================================================================
+
+
+
+// =============================================================================
+} // class SelectiveRepeatDataLinkLayer
+// =============================================================================
@@ -0,0 +1,107 @@
+// =============================================================================
+// IMPORTS
+
+import java.util.SplittableRandom;
+// =============================================================================
+
+
+
+// =============================================================================
+/**
+ * Check the codes that the data link layers are built on against known
+ * answers and round trips, so that a change that breaks one is caught before
+ * any simulation runs on it.  Each check prints a line only if it fails; the
+ * run ends with a count, and exits with a non-zero status if anything failed.
+ * The random inputs are drawn from a fixed seed, so every run checks the same
+ * cases.
+ *
+ * The checks for each code are kept in a subclass of their own, which draws
+ * on the helpers here, and whose <code>run()</code> this class's
+ * <code>main()</code> calls.
+ *
+ * @file   SelfCheck.java
+ * @date   October 2026
+ */
+public class SelfCheck {
+// =============================================================================
+
+
+
+    // =========================================================================
+    /**
+     * The entry point.  Run every check and report how they went.
+     *
+     * @param args The command-line arguments, which are ignored.
+     */
+    public static void main (String[] args) {
+
+	CRCCheck.run();
+	FrameParserCheck.run();
+	HammingCheck.run();
+	ReedSolomonCheck.run();
+	COBSCheck.run();
+
+	System.out.printf("%d checks, %d failed\n", checks, failures);
+	if (failures > 0) {
+	    System.exit(1);
+	}
+
+    } // main
+    // =========================================================================
+
+
+
+    // =========================================================================
+    // PROTECTED METHODS
+    // =========================================================================
+
+
+
+    // =========================================================================
+    // Count a check, reporting it if it failed.
+    protected static void check (String description, boolean passed) {
+
+	checks += 1;
+	if (!passed) {
+	    failures += 1;
+	    System.out.println("FAILED: " + description);
+	}
+
+    } // check ()
+    // =========================================================================
+
+
+
+    // =========================================================================
+    protected static byte[] randomBytes (SplittableRandom random, int size) {
+
+	byte[] data = new byte[size];
+	random.nextBytes(data);
+	return data;
+
+    } // randomBytes ()
+    // =========================================================================
+
+
+
+    // =========================================================================
+    // DATA MEMBERS
+
+    /** The seed from which every random input is drawn. */
+    protected static final long SEED   = 0x5eed;
+
+    /** The number of random cases tried for each kind of check. */
+    protected static final int  TRIALS = 200;
+
+    /** The number of checks run so far. */
+    private static int          checks;
+
+    /** The number of checks that failed. */
+    private static int          failures;
+    // =========================================================================
+
+
+
+// =============================================================================
+} // class SelfCheck
+// =============================================================================
@@ -5,6 +5,11 @@ import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileNotFoundException;
 import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
 import java.util.Arrays;
 import java.lang.reflect.Constructor;
 import java.lang.reflect.InvocationTargetException;
@@ -35,10 +40,88 @@ public class Simulator {
      */
     public static void main (String[] args) {
 
-	// Check the number of arguments passed.
-	if (args.length != 3) {
+	// Check for options, then the number of arguments passed.
+	boolean stream  = false;
+	boolean metrics = false;
+	boolean async   = false;
+	boolean cobs    = false;
+	boolean resync  = false;
+	boolean adapt   = false;
+	Long    seed    = null;
+	Integer window  = null;
+	Long    delay   = null;
+	Integer maxSize = null;
+	String  record  = null;
+	String  replay  = null;
+	String  crc     = null;
+	int     options = 0;
+	try {
+	    while ((options < args.length) && args[options].startsWith("--")) {
+		if (args[options].equals("--stream")) {
+		    stream = true;
+		    options += 1;
+		} else if (args[options].equals("--async")) {
+		    async = true;
+		    options += 1;
+		} else if (args[options].equals("--cobs")) {
+		    cobs = true;
+		    options += 1;
+		} else if (args[options].equals("--resync")) {
+		    resync = true;
+		    options += 1;
+		} else if (args[options].equals("--adaptive")) {
+		    adapt = true;
+		    options += 1;
+		} else if (args[options].equals("--metrics")) {
+		    metrics = true;
+		    options += 1;
+		} else if (args[options].equals("--seed")) {
+		    seed = Long.parseLong(args[options + 1]);
+		    options += 2;
+		} else if (args[options].equals("--window")) {
+		    window = Integer.parseInt(args[options + 1]);
+		    options += 2;
+		} else if (args[options].equals("--delay")) {
+		    delay = Long.parseLong(args[options + 1]);
+		    options += 2;
+		} else if (args[options].equals("--max-frame-size")) {
+		    maxSize = Integer.parseInt(args[options + 1]);
+		    options += 2;
+		} else if (args[options].equals("--record")) {
+		    record = args[options + 1];
+		    options += 2;
+		} else if (args[options].equals("--replay")) {
+		    replay = args[options + 1];
+		    options += 2;
+		} else if (args[options].equals("--crc")) {
+		    crc = args[options + 1];
+		    options += 2;
+		} else {
+		    break;
+		}
+	    }
+	} catch (ArrayIndexOutOfBoundsException | NumberFormatException e) {
+	    options = -1;
+	}
+	if (options >= 0) {
+	    args = Arrays.copyOfRange(args, options, args.length);
+	}
+	if ((options < 0) || (args.length != 3)) {
 
 	    System.err.println("Usage: java Simulator "  +
+			       "[--stream] "             +
+			       "[--async] "              +
+			       "[--cobs] "               +
+			       "[--resync] "             +
+			       "[--metrics] "            +
+			       "[--seed <seed>] "        +
+			       "[--window <frames>] "    +
+			       "[--delay <bit times>] "  +
+			       "[--adaptive] "           +
+			       "[--max-frame-size <bytes>] " +
+			       "[--record <trace file>] " +
+			       "[--replay <trace file>] " +
+			       "[--crc <name>] "         +
 			       "<medium type> "          +
 			       "<data link layer type> " +
 			       "<transmission data file>");
@@ -53,20 +136,170 @@ public class Simulator {
 
 	// Create the medium, then the sender and receiver.
 	Medium medium   = Medium.create(mediumType);
+	if (seed != null) {
+	    medium.setSeed(seed);
+	}
+	if (replay != null) {
+	    if (!(medium instanceof ReplayMedium)) {
+		throw new RuntimeException("Only the Replay medium replays a trace");
+	    }
+	    try {
+		((ReplayMedium)medium).setTrace(Paths.get(replay));
+	    } catch (IOException e) {
+		throw new RuntimeException("Unexpected failure in reading " + replay);
+	    }
+	}
+	TraceRecorder recorder = null;
+	if (record != null) {
+	    try {
+		recorder = new TraceRecorder(Paths.get(record));
+	    } catch (IOException e) {
+		throw new RuntimeException("Unexpected failure in writing " + record);
+	    }
+	    medium.setRecorder(recorder);
+	}
 	Host   sender   = new Host(medium, dataLinkLayerType);
 	Host   receiver = new Host(medium, dataLinkLayerType);
+	if (maxSize != null) {
+	    sender.getDataLinkLayer().setMaxFrameSize(maxSize);
+	    receiver.getDataLinkLayer().setMaxFrameSize(maxSize);
+	}
+	configure(sender,   window, delay, adapt);
+	configure(receiver, window, delay, false);
+	if (crc != null) {
+	    setSpecification(sender,   CRCSpecification.forName(crc));
+	    setSpecification(receiver, CRCSpecification.forName(crc));
+	}
+	if (cobs) {
+	    sender.getDataLinkLayer().setFraming(DataLinkLayer.COBS_FRAMING);
+	    receiver.getDataLinkLayer().setFraming(DataLinkLayer.COBS_FRAMING);
+	}
+	receiver.getDataLinkLayer().setResynchronizing(resync);
+	if (async) {
+	    medium.start();
+	}
 
-	// Read the contents of the data to be transmitted into a buffer.
-	byte[] dataToTransmit = readFile(transmissionPath);
+	// Files too large for a single array must be streamed.
+	if (new File(transmissionPath).length() > Integer.MAX_VALUE) {
+	    stream = true;
+	}
 
-	// Perform the simulation!
-	simulate(sender, receiver, dataToTransmit);
+	if (stream) {
+
+	    // Feed the file through the sender a chunk at a time.
+	    simulateStream(sender, receiver, transmissionPath);
+
+	} else {
+
+	    // Read the contents of the data to be transmitted into a buffer.
+	    byte[] dataToTransmit = readFile(transmissionPath);
+
+	    // Perform the simulation!
+	    simulate(sender, receiver, dataToTransmit);
+
+	}
+
+	sender.close();
+	receiver.close();
+	medium.stop();
+	if (recorder != null) {
+	    try {
+		recorder.close();
+	    } catch (IOException e) {
+		throw new RuntimeException("Unexpected failure in writing " +
+					   record);
+	    }
+	}
+
+	// Report what each layer counted along the way.
+	if (metrics) {
+	    System.out.print(medium.getMetrics());
+	    if (sender.getDataLinkLayer() instanceof ARQDataLinkLayer) {
+		ARQDataLinkLayer layer = (ARQDataLinkLayer)sender.getDataLinkLayer();
+		System.out.printf("goodput=%.4f\n", layer.getGoodput());
+		if (layer.isAdaptive()) {
+		    System.out.printf("frameSize=%d\n", layer.getFrameSize());
+		}
+	    }
+	    // Damaged frames are not necessarily lost: ARQ layers send them
+	    // again.
+	    DataLinkLayer layer  = receiver.getDataLinkLayer();
+	    long[]        errors = layer.getLossOffsets();
+	    System.out.printf("errorsDetected=%d\n", layer.getErrorsDetected());
+	    if (errors.length > 0) {
+		System.out.printf("firstErrorAt=%d\n", errors[0]);
+	    }
+	    if (recorder != null) {
+		System.out.printf("flipsRecorded=%d\n", recorder.getFlips());
+	    }
+	}
 
     } // main
     // =========================================================================
 
 
 
+    // =========================================================================
+    /**
+     * Apply the window size and link delay, if given, and adaptive frame
+     * sizing, if asked for, to a host's data link layer, which must then
+     * retransmit lost frames.
+     *
+     * @param host     The host whose layer to configure.
+     * @param window   The window size, or <code>null</code> to keep the
+     *                 default.
+     * @param delay    The link delay, or <code>null</code> to keep the
+     *                 default.
+     * @param adaptive Whether the layer adapts the size of its frames.
+     */
+    private static void configure (Host host, Integer window, Long delay,
+				   boolean adaptive) {
+
+	if ((window == null) && (delay == null) && !adaptive) {
+	    return;
+	}
+	if (!(host.getDataLinkLayer() instanceof ARQDataLinkLayer)) {
+	    throw new RuntimeException("Only ARQ data link layers take a " +
+				       "window size, link delay, or adaptive " +
+				       "frame sizing");
+	}
+
+	ARQDataLinkLayer layer = (ARQDataLinkLayer)host.getDataLinkLayer();
+	if (window != null) {
+	    layer.setWindowSize(window);
+	}
+	if (delay != null) {
+	    layer.setLinkDelay(delay);
+	}
+	layer.setAdaptive(adaptive);
+
+    } // configure ()
+    // =========================================================================
+
+
+
+    // =========================================================================
+    /**
+     * Select the CRC algorithm used by a host's data link layer, which must
+     * then be a CRC layer.
+     *
+     * @param host          The host whose layer to configure.
+     * @param specification The CRC parameters to use.
+     */
+    private static void setSpecification (Host host,
+					  CRCSpecification specification) {
+
+	if (!(host.getDataLinkLayer() instanceof CRCDataLinkLayer)) {
+	    throw new RuntimeException("Only CRC data link layers take a CRC " +
+				       "specification");
+	}
+	((CRCDataLinkLayer)host.getDataLinkLayer()).setSpecification(specification);
+
+    } // setSpecification ()
+    // =========================================================================
+
+
+
     // =========================================================================
     /**
      * Read the whole contents of a given file, returning it in a byte array.
@@ -88,9 +321,18 @@ public class Simulator {
 	}
 	int             length = (int)file.length();
 	byte[]          buffer = new byte[length];
-	try {
-	    FileInputStream input  = new FileInputStream(file);
-	    input.read(buffer);
+	try (FileInputStream input = new FileInputStream(file)) {
+
+	    // A single read may return fewer bytes than requested.
+	    int total = 0;
+	    while (total < length) {
+		int count = input.read(buffer, total, length - total);
+		if (count < 0) {
+		    throw new RuntimeException(path + " shrank while being read");
+		}
+		total += count;
+	    }
+
 	} catch (FileNotFoundException e) {
 	    throw new RuntimeException("Unexpected file-not-found for " + path);
 	} catch (IOException e) {
@@ -117,6 +359,7 @@ public class Simulator {
     private static void simulate (Host sender, Host receiver, byte[] data) {
 
 	sender.send(data);
+	sender.flush();
 	byte[] received = receiver.retrieve();
 	System.out.println("Transmission received:  " + new String(received));
 	System.out.println("Transmission succeeded: " +
@@ -127,6 +370,87 @@ public class Simulator {
 
 
 
+    // =========================================================================
+    /**
+     * Perform the simulation on a file of any size without loading it whole.
+     * Map the file a chunk at a time, have the sender transmit each chunk, and
+     * verify whatever the receiver has gathered against the file before moving
+     * on, so that neither host buffers more than about one chunk.
+     *
+     * @param sender   The sending host.
+     * @param receiver The receiving host.
+     * @param path     The pathname of the file whose data to send.
+     */
+    private static void simulateStream (Host sender, Host receiver, String path) {
+
+	File file = new File(path);
+	if (!file.canRead()) {
+	    throw new RuntimeException(path + " is not a readable file");
+	}
+
+	long    length    = file.length();
+	long    received  = 0;
+	boolean succeeded = true;
+	try (FileChannel channel = FileChannel.open(Paths.get(path),
+						    StandardOpenOption.READ)) {
+
+	    byte[]     chunk    = new byte[(int)Math.min(CHUNK_SIZE, length)];
+	    byte[]     arrived  = new byte[chunk.length];
+	    ByteBuffer expected = ByteBuffer.allocate(chunk.length);
+	    for (long position = 0; position < length; position += chunk.length) {
+
+		// Map and send the next chunk.
+		int count = (int)Math.min(chunk.length, length - position);
+		MappedByteBuffer window =
+		    channel.map(FileChannel.MapMode.READ_ONLY, position, count);
+		if (count != chunk.length) {
+		    chunk = new byte[count];
+		}
+		window.get(chunk);
+		sender.send(chunk);
+		sender.flush();
+
+		// Compare what has arrived so far with the file's contents at the
+		// same offsets.
+		while (receiver.available() > 0) {
+		    int got = receiver.drain(arrived, 0, arrived.length);
+		    expected.clear().limit(got);
+		    while (expected.hasRemaining()) {
+			if (channel.read(expected,
+					 received + expected.position()) < 0) {
+			    break;
+			}
+		    }
+		    succeeded &= (expected.position() == got) &&
+			Arrays.equals(arrived, 0, got, expected.array(), 0, got);
+		    received += got;
+		}
+
+	    }
+
+	} catch (IOException e) {
+	    throw new RuntimeException("Unexpected failure in reading " + path);
+	}
+
+	System.out.println("Transmission received:  " + received + " of " +
+			   length + " bytes");
+	System.out.println("Transmission succeeded: " +
+			   (succeeded && (received == length)));
+
+    } // simulateStream()
+    // =========================================================================
+
+
+
+    // =========================================================================
+    // DATA MEMBERS
+
+    /** The number of bytes mapped and sent at a time when streaming. */
+    private static final int CHUNK_SIZE = 1 << 20;
+    // =========================================================================
+
+
+
 // =============================================================================
 } // class Simulator
 // =============================================================================
@@ -0,0 +1,617 @@
+// =============================================================================
+// IMPORTS
+
+import java.io.FileNotFoundException;
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveTask;
+// =============================================================================
+
+
+
+// =============================================================================
+/**
+ * Explore how the data link layers behave across a range of conditions.  A
+ * sweep takes lists of bit error rates, frame sizes, medium types, and data
+ * link layer types, and runs <code>MonteCarlo</code> trials at every
+ * combination of them.  All of the points share one pool of threads, each
+ * point splitting its trials into tasks that idle threads steal, so that a
+ * sweep makes use of every processor and the compiled code warmed up by one
+ * point serves the rest.  Each point's results are written, in order, as soon
+ * as it and the points before it are done, as CSV or as a JSON array.
+ *
+ * A list of numbers is separated by commas, and each item may be a range
+ * <code>first:last:step</code>.  For frame sizes the step is added, so
+ * <code>16:64:16</code> is 16, 32, 48, and 64; for error rates it multiplies,
+ * so <code>1e-5:1e-2:10</code> is one rate per decade.
+ *
+ * @file   Sweep.java
+ * @date   October 2026
+ */
+public class Sweep {
+// =============================================================================
+
+
+
+    // =========================================================================
+    /**
+     * The entry point.  Interpret the command-line arguments, aborting if they
+     * are invalid, then run the sweep.
+     *
+     * @param args The command-line arguments.
+     */
+    public static void main (String[] args) {
+
+	// Check for options, then the number of arguments passed.
+	double[] rates      = null;
+	int[]    frameSizes = { DataLinkLayer.DEFAULT_MAX_FRAME_SIZE };
+	int      trials     = DEFAULT_TRIALS;
+	int      frames     = DEFAULT_FRAMES;
+	int      warmup     = DEFAULT_WARMUP;
+	int      threads    = Runtime.getRuntime().availableProcessors();
+	long     seed       = System.nanoTime();
+	boolean  resync     = false;
+	boolean  json       = false;
+	String   output     = null;
+	String   crc        = null;
+	int      options    = 0;
+	try {
+	    while ((options < args.length) && args[options].startsWith("--")) {
+		if (args[options].equals("--resync")) {
+		    resync   = true;
+		    options += 1;
+		    continue;
+		}
+		String value = args[options + 1];
+		if (args[options].equals("--ber")) {
+		    rates = parseRates(value);
+		} else if (args[options].equals("--frame-size")) {
+		    frameSizes = parseSizes(value);
+		} else if (args[options].equals("--trials")) {
+		    trials = Integer.parseInt(value);
+		} else if (args[options].equals("--frames")) {
+		    frames = Integer.parseInt(value);
+		} else if (args[options].equals("--warmup")) {
+		    warmup = Integer.parseInt(value);
+		} else if (args[options].equals("--threads")) {
+		    threads = Integer.parseInt(value);
+		} else if (args[options].equals("--seed")) {
+		    seed = Long.parseLong(value);
+		} else if (args[options].equals("--format") &&
+			   (value.equals("csv") || value.equals("json"))) {
+		    json = value.equals("json");
+		} else if (args[options].equals("--output")) {
+		    output = value;
+		} else if (args[options].equals("--crc")) {
+		    crc = value;
+		} else {
+		    break;
+		}
+		options += 2;
+	    }
+	} catch (ArrayIndexOutOfBoundsException | NumberFormatException e) {
+	    options = -1;
+	}
+	if (options >= 0) {
+	    args = Arrays.copyOfRange(args, options, args.length);
+	}
+	if ((options < 0) || (args.length != 2) || (trials < 1) ||
+	    (frames < 1) || (warmup < 0) || (threads < 1)) {
+
+	    System.err.println("Usage: java Sweep "              +
+			       "[--ber <rates>] "                +
+			       "[--frame-size <sizes>] "         +
+			       "[--trials <per point>] "         +
+			       "[--frames <per trial>] "         +
+			       "[--warmup <trials per point>] "  +
+			       "[--threads <count>] "            +
+			       "[--seed <seed>] "                +
+			       "[--resync] "                     +
+			       "[--crc <name>] "                 +
+			       "[--format csv|json] "            +
+			       "[--output <file>] "              +
+			       "<medium types> "                 +
+			       "<data link layer types>");
+	    System.exit(1);
+
+	}
+
+	// Lay out the points, every medium with every layer, error rate, and
+	// frame size.  Without a list of rates, each medium keeps its own.
+	List<Point> points = new ArrayList<Point>();
+	for (String mediumType : args[0].split(",")) {
+	    for (String dataLinkLayerType : args[1].split(",")) {
+		for (int frameSize : frameSizes) {
+		    if (rates == null) {
+			points.add(new Point(mediumType, dataLinkLayerType,
+					     null, frameSize));
+		    } else {
+			for (double rate : rates) {
+			    points.add(new Point(mediumType, dataLinkLayerType,
+						 rate, frameSize));
+			}
+		    }
+		}
+	    }
+	}
+
+	// Refuse at once, rather than partway through, a type that does not
+	// exist, a rate that some medium cannot take, or an unknown CRC.
+	CRCSpecification specification =
+	    (crc == null) ? null : CRCSpecification.forName(crc);
+	for (String mediumType : args[0].split(",")) {
+	    Medium medium = Medium.create(mediumType);
+	    for (String dataLinkLayerType : args[1].split(",")) {
+		new Host(medium, dataLinkLayerType);
+	    }
+	    if (rates != null) {
+		for (double rate : rates) {
+		    Medium.create(mediumType).setErrorProbability(rate);
+		}
+	    }
+	}
+
+	PrintStream out = System.out;
+	if (output != null) {
+	    try {
+		out = new PrintStream(output);
+	    } catch (FileNotFoundException e) {
+		throw new RuntimeException("Unexpected failure in writing " +
+					   output);
+	    }
+	}
+
+	run(points, trials, frames, warmup, threads, seed, resync,
+	    specification, json, out);
+	out.flush();
+	if (out != System.out) {
+	    out.close();
+	}
+
+    } // main
+    // =========================================================================
+
+
+
+    // =========================================================================
+    /**
+     * Run the trials of every point of a sweep, writing each point's results
+     * as soon as it and every point before it are done.
+     *
+     * @param points  The points to run.
+     * @param trials  The number of independent trials at each point.
+     * @param frames  The number of frames sent in each trial.
+     * @param warmup  The number of trials run at each point, and thrown away,
+     *                before any are timed.
+     * @param threads The number of trials to run at once.
+     * @param seed    The seed from which each trial's seed is derived; the
+     *                trials at each point use the same seeds.
+     * @param resync  Whether the receivers go on after a damaged frame.
+     * @param crc     The CRC algorithm used by CRC layers, or
+     *                <code>null</code> to keep their default.
+     * @param json    Whether to write JSON rather than CSV.
+     * @param out     Where to write the results.
+     */
+    public static void run (List<Point>      points,
+			    int              trials,
+			    int              frames,
+			    int              warmup,
+			    int              threads,
+			    long             seed,
+			    boolean          resync,
+			    CRCSpecification crc,
+			    boolean          json,
+			    PrintStream      out) {
+
+	ForkJoinPool pool = new ForkJoinPool(threads);
+	try {
+
+	    // Warm up first, so that the early points are not timed running
+	    // code that has yet to be compiled.
+	    if (warmup > 0) {
+		List<ForkJoinTask<Result>> warming =
+		    new ArrayList<ForkJoinTask<Result>>();
+		for (Point point : points) {
+		    warming.add(pool.submit(new Trials(point, frames, seed,
+						       resync, crc, 0, warmup,
+						       batchSize(warmup, threads))));
+		}
+		for (ForkJoinTask<Result> task : warming) {
+		    task.join();
+		}
+	    }
+
+	    // Queue every point at once, then collect them in order.
+	    List<ForkJoinTask<Result>> tasks =
+		new ArrayList<ForkJoinTask<Result>>();
+	    for (Point point : points) {
+		tasks.add(pool.submit(new Trials(point, frames, seed, resync,
+						 crc, 0, trials,
+						 batchSize(trials, threads))));
+	    }
+
+	    out.print(json ? "[\n" : Result.CSV_HEADER + "\n");
+	    for (int i = 0; i < tasks.size(); i += 1) {
+		Result result = tasks.get(i).join();
+		if (json) {
+		    out.print(result.toJSON(points.get(i), trials, frames));
+		    out.print((i + 1 < tasks.size()) ? ",\n" : "\n");
+		} else {
+		    out.println(result.toCSV(points.get(i), trials, frames));
+		}
+		out.flush();
+	    }
+	    if (json) {
+		out.println("]");
+	    }
+
+	} finally {
+	    pool.shutdownNow();
+	}
+
+    } // run ()
+    // =========================================================================
+
+
+
+    // =========================================================================
+    // Split a point's trials finely enough to keep every thread busy, even if
+    // some run slower than others.
+    private static int batchSize (int trials, int threads) {
+
+	return Math.max(1, trials / (threads * BATCHES_PER_THREAD));
+
+    } // batchSize ()
+    // =========================================================================
+
+
+
+    // =========================================================================
+    // Parse a list of sizes, each either a number or a range whose step is
+    // added.
+    private static int[] parseSizes (String list) {
+
+	List<Integer> sizes = new ArrayList<Integer>();
+	for (String item : list.split(",")) {
+	    String[] range = item.split(":");
+	    if (range.length == 1) {
+		sizes.add(Integer.parseInt(item));
+	    } else if (range.length == 3) {
+		int first = Integer.parseInt(range[0]);
+		int last  = Integer.parseInt(range[1]);
+		int step  = Integer.parseInt(range[2]);
+		if (step < 1) {
+		    throw new NumberFormatException("Bad step in " + item);
+		}
+		for (long size = first; size <= last; size += step) {
+		    sizes.add((int)size);
+		}
+	    } else {
+		throw new NumberFormatException("Bad range " + item);
+	    }
+	}
+	if (sizes.isEmpty() || sizes.stream().anyMatch(size -> size < 1)) {
+	    throw new NumberFormatException("Bad frame sizes " + list);
+	}
+	return sizes.stream().mapToInt(Integer::intValue).toArray();
+
+    } // parseSizes ()
+    // =========================================================================
+
+
+
+    // =========================================================================
+    // Parse a list of error rates, each either a number or a range whose step
+    // multiplies.  The last rate of a range is reached despite rounding.
+    private static double[] parseRates (String list) {
+
+	List<Double> rates = new ArrayList<Double>();
+	for (String item : list.split(",")) {
+	    String[] range = item.split(":");
+	    if (range.length == 1) {
+		rates.add(Double.parseDouble(item));
+	    } else if (range.length == 3) {
+		double first  = Double.parseDouble(range[0]);
+		double last   = Double.parseDouble(range[1]);
+		double factor = Double.parseDouble(range[2]);
+		if (!(first > 0.0) || !(factor > 1.0)) {
+		    throw new NumberFormatException("Bad range " + item);
+		}
+		for (double rate = first; rate <= last * (1.0 + 1e-9);
+		     rate *= factor) {
+		    rates.add(rate);
+		}
+	    } else {
+		throw new NumberFormatException("Bad range " + item);
+	    }
+	}
+	return rates.stream().mapToDouble(Double::doubleValue).toArray();
+
+    } // parseRates ()
+    // =========================================================================
+
+
+
+    // =========================================================================
+    /**
+     * One combination of the swept parameters.
+     */
+    public static class Point {
+
+	/** The constructor. */
+	public Point (String mediumType, String dataLinkLayerType,
+		      Double errorProbability, int frameSize) {
+
+	    this.mediumType        = mediumType;
+	    this.dataLinkLayerType = dataLinkLayerType;
+	    this.errorProbability  = errorProbability;
+	    this.frameSize         = frameSize;
+
+	} // Point ()
+
+	/** The type of medium. */
+	public final String mediumType;
+
+	/** The type of data link layer. */
+	public final String dataLinkLayerType;
+
+	/** The bit error rate, or <code>null</code> for the medium's own. */
+	public final Double errorProbability;
+
+	/** The number of payload bytes in each frame. */
+	public final int    frameSize;
+
+    } // class Point
+    // =========================================================================
+
+
+
+    // =========================================================================
+    /**
+     * What the trials of one point observed.
+     */
+    public static class Result {
+
+	/** Add another result's counts to this one's. */
+	public void add (Result other) {
+
+	    tally.add(other.tally);
+	    bitsSent    += other.bitsSent;
+	    bitsFlipped += other.bitsFlipped;
+	    busyNanos   += other.busyNanos;
+	    started      = Math.min(started,  other.started);
+	    finished     = Math.max(finished, other.finished);
+
+	} // add ()
+
+	/**
+	 * @param  point The point at which the trials ran.
+	 * @return the fraction of the bits sent across the medium that carried
+	 *         payload that arrived intact.
+	 */
+	public double goodput (Point point) {
+
+	    return (bitsSent == 0) ? 0.0 :
+		(double)tally.delivered * point.frameSize * Byte.SIZE / bitsSent;
+
+	} // goodput ()
+
+	/**
+	 * @param  point The point at which the trials ran.
+	 * @return the number of bits sent across the medium, in both
+	 *         directions and including any sent again, for each bit of
+	 *         payload offered.
+	 */
+	public double overhead (Point point) {
+
+	    long payload = tally.frames() * point.frameSize * Byte.SIZE;
+	    return (payload == 0) ? 0.0 : (double)bitsSent / payload;
+
+	} // overhead ()
+
+	/** @return this result as a line of CSV, without the line break. */
+	public String toCSV (Point point, int trials, int frames) {
+
+	    return String.format(Locale.ROOT,
+				 "%s,%s,%s,%d,%d,%d,%d,%d,%d,%d,%d,%d,%d,%.6f,%.6f,%.3f,%.3f",
+				 point.mediumType, point.dataLinkLayerType,
+				 (point.errorProbability == null) ? "" :
+				 point.errorProbability.toString(),
+				 point.frameSize, trials, frames,
+				 tally.delivered, tally.detected,
+				 tally.undetected, tally.lost, tally.aborted,
+				 bitsSent, bitsFlipped,
+				 goodput(point), overhead(point),
+				 wallMillis(), busyNanos / 1e6);
+
+	} // toCSV ()
+
+	/** @return this result as a JSON object, without a line break. */
+	public String toJSON (Point point, int trials, int frames) {
+
+	    return String.format(Locale.ROOT,
+				 "{\"medium\":\"%s\",\"dataLinkLayer\":\"%s\"," +
+				 "\"ber\":%s,\"frameSize\":%d," +
+				 "\"trials\":%d,\"frames\":%d," +
+				 "\"delivered\":%d,\"detected\":%d," +
+				 "\"undetected\":%d,\"lost\":%d,\"aborted\":%d," +
+				 "\"bitsSent\":%d,\"bitsFlipped\":%d," +
+				 "\"goodput\":%.6f,\"overhead\":%.6f," +
+				 "\"wallMillis\":%.3f,\"busyMillis\":%.3f}",
+				 point.mediumType, point.dataLinkLayerType,
+				 (point.errorProbability == null) ? "null" :
+				 point.errorProbability.toString(),
+				 point.frameSize, trials, frames,
+				 tally.delivered, tally.detected,
+				 tally.undetected, tally.lost, tally.aborted,
+				 bitsSent, bitsFlipped,
+				 goodput(point), overhead(point),
+				 wallMillis(), busyNanos / 1e6);
+
+	} // toJSON ()
+
+	// The time from the first of the point's trials starting to the last
+	// finishing, in milliseconds.
+	private double wallMillis () {
+
+	    return (finished - started) / 1e6;
+
+	} // wallMillis ()
+
+	/** The names of the CSV columns. */
+	public static final String CSV_HEADER =
+	    "medium,dataLinkLayer,ber,frameSize,trials,frames," +
+	    "delivered,detected,undetected,lost,aborted,bitsSent,bitsFlipped," +
+	    "goodput,overhead,wallMillis,busyMillis";
+
+	/** How each frame sent fared. */
+	public final MonteCarlo.Tally tally = new MonteCarlo.Tally();
+
+	/** The number of bits sent across the medium. */
+	public long bitsSent;
+
+	/** The number of bits the medium flipped. */
+	public long bitsFlipped;
+
+	/** The time the trials spent running, summed across threads. */
+	public long busyNanos;
+
+	/** When the first trial started, from <code>System.nanoTime()</code>. */
+	public long started  = Long.MAX_VALUE;
+
+	/** When the last trial finished. */
+	public long finished = Long.MIN_VALUE;
+
+    } // class Result
+    // =========================================================================
+
+
+
+    // =========================================================================
+    /**
+     * A run of consecutive trials at one point, which splits itself in half
+     * until it is small enough to run directly.
+     */
+    private static class Trials extends RecursiveTask<Result> {
+
+	/** The constructor. */
+	Trials (Point point, int frames, long seed, boolean resync,
+		CRCSpecification crc, int first, int end, int batchSize) {
+
+	    this.point     = point;
+	    this.frames    = frames;
+	    this.seed      = seed;
+	    this.resync    = resync;
+	    this.crc       = crc;
+	    this.first     = first;
+	    this.end       = end;
+	    this.batchSize = batchSize;
+
+	} // Trials ()
+
+	/** Run the trials, or split them and combine the halves. */
+	protected Result compute () {
+
+	    if (end - first > batchSize) {
+		int    middle = (first + end) >>> 1;
+		Trials later  = new Trials(point, frames, seed, resync, crc,
+					   middle, end, batchSize);
+		later.fork();
+		Result result = new Trials(point, frames, seed, resync, crc,
+					   first, middle, batchSize).compute();
+		result.add(later.join());
+		return result;
+	    }
+
+	    // Each trial gets a fresh medium, but the batch's trials count
+	    // their traffic together.  A layer that gives up on the link, as
+	    // ARQ layers do when a frame is never acknowledged, ends only its
+	    // own trial, which is counted as aborted and otherwise left out.
+	    Result  result  = new Result();
+	    Metrics metrics = new Metrics();
+	    result.started  = System.nanoTime();
+	    for (int t = first; t < end; t += 1) {
+		Medium medium = Medium.create(point.mediumType);
+		medium.setMetrics(metrics);
+		if (point.errorProbability != null) {
+		    medium.setErrorProbability(point.errorProbability);
+		}
+		MonteCarlo.Tally tally   = new MonteCarlo.Tally();
+		long             sent    = metrics.getBitsSent();
+		long             flipped = metrics.getBitsFlipped();
+		try {
+		    MonteCarlo.trial(medium, point.dataLinkLayerType, frames,
+				     point.frameSize, seed + t, resync, crc,
+				     tally);
+		} catch (LinkFailureException e) {
+		    result.tally.aborted += 1;
+		    continue;
+		}
+		result.tally.add(tally);
+		result.bitsSent    += metrics.getBitsSent()    - sent;
+		result.bitsFlipped += metrics.getBitsFlipped() - flipped;
+	    }
+	    result.finished    = System.nanoTime();
+	    result.busyNanos   = result.finished - result.started;
+	    return result;
+
+	} // compute ()
+
+	/** The point whose trials to run. */
+	private final Point   point;
+
+	/** The number of frames sent in each trial. */
+	private final int     frames;
+
+	/** The seed from which each trial's seed is derived. */
+	private final long    seed;
+
+	/** Whether the receivers go on after a damaged frame. */
+	private final boolean resync;
+
+	/** The CRC algorithm used by CRC layers, or <code>null</code>. */
+	private final CRCSpecification crc;
+
+	/** The number of the first trial to run. */
+	private final int     first;
+
+	/** The number just past the last trial to run. */
+	private final int     end;
+
+	/** The most trials to run without splitting. */
+	private final int     batchSize;
+
+	/** The version of this class's serialized form. */
+	private static final long serialVersionUID = 1L;
+
+    } // class Trials
+    // =========================================================================
+
+
+
+    // =========================================================================
+    // DATA MEMBERS
+
+    /** The number of trials at each point if none is given. */
+    private static final int DEFAULT_TRIALS     = 1000;
+
+    /** The number of frames per trial if none is given. */
+    private static final int DEFAULT_FRAMES     = 1;
+
+    /** The number of warm-up trials at each point if none is given. */
+    private static final int DEFAULT_WARMUP     = 20;
+
+    /** The number of batches of trials split out for each thread. */
+    private static final int BATCHES_PER_THREAD = 8;
+    // =========================================================================
+
+
+
+// =============================================================================
+} // class Sweep
+// =============================================================================
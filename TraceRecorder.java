@@ -0,0 +1,223 @@
+// =============================================================================
+// IMPORTS
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+// =============================================================================
+
+
+
+// =============================================================================
+/**
+ * Records where a medium flips bits, so that a <code>ReplayMedium</code> can
+ * apply exactly the same errors to a later run.  Every bit a medium delivers
+ * has a position: the number of bits it delivered before it, counting each
+ * receiver's copy.  The trace holds the position of each flipped bit, as the
+ * gap since the previous flip, in as few bytes as the gap needs.
+ *
+ * A trace file begins with <code>MAGIC</code>.  Each gap follows as a
+ * variable-length integer: seven bits to a byte, least significant first,
+ * with the top bit set on every byte but the last.  The first gap counts
+ * from position <code>0</code>; each later one counts the bits strictly
+ * between two flips, so that flips side by side cost one byte each.
+ *
+ * @file   TraceRecorder.java
+ * @date   October 2026
+ */
+public class TraceRecorder implements AutoCloseable {
+// =============================================================================
+
+
+
+    // =========================================================================
+    // PUBLIC METHODS
+    // =========================================================================
+
+
+
+    // =========================================================================
+    /**
+     * The constructor.  Create the trace file, replacing any file already
+     * there.
+     *
+     * @param  path The pathname of the trace file.
+     * @throws IOException if the file cannot be written.
+     */
+    public TraceRecorder (Path path) throws IOException {
+
+	this.path     = path;
+	this.out      = new BufferedOutputStream(Files.newOutputStream(path),
+						 BUFFER_SIZE);
+	this.position = 0;
+	this.next     = 0;
+	this.flips    = 0;
+	for (int shift = Integer.SIZE - Byte.SIZE; shift >= 0;
+	     shift -= Byte.SIZE) {
+	    out.write(MAGIC >>> shift);
+	}
+
+    } // TraceRecorder ()
+    // =========================================================================
+
+
+
+    // =========================================================================
+    /**
+     * Record the errors applied to a word of bits delivered to one receiver.
+     *
+     * @param errors The error mask, right-aligned, with a <code>1</code> for
+     *               each flipped bit, most significant first.
+     * @param count  The number of bits delivered (1 to 64).
+     * @throws RuntimeException if the trace cannot be written.
+     */
+    public void record (long errors, int count) {
+
+	while (errors != 0) {
+	    int  bit  = Long.SIZE - 1 - Long.numberOfLeadingZeros(errors);
+	    long flip = position + (count - 1 - bit);
+	    writeGap(flip - next);
+	    next    = flip + 1;
+	    flips  += 1;
+	    errors &= ~(1L << bit);
+	}
+	position += count;
+
+    } // record ()
+    // =========================================================================
+
+
+
+    // =========================================================================
+    /**
+     * Record the errors applied to a stream of bits delivered to one receiver.
+     *
+     * @param errors The error mask, with a <code>1</code> for each flipped bit.
+     * @throws RuntimeException if the trace cannot be written.
+     */
+    public void record (BitStream errors) {
+
+	for (int from = 0; from < errors.length(); from += Long.SIZE) {
+	    int count = Math.min(Long.SIZE, errors.length() - from);
+	    record(errors.bits(from, count), count);
+	}
+
+    } // record ()
+    // =========================================================================
+
+
+
+    // =========================================================================
+    /**
+     * Record that a run of bits was delivered to one receiver with no errors.
+     *
+     * @param count The number of bits delivered.
+     */
+    public void recordClean (long count) {
+
+	position += count;
+
+    } // recordClean ()
+    // =========================================================================
+
+
+
+    // =========================================================================
+    /**
+     * @return the number of bits delivered so far.
+     */
+    public long getPosition () {
+
+	return position;
+
+    } // getPosition ()
+    // =========================================================================
+
+
+
+    // =========================================================================
+    /**
+     * @return the number of flipped bits recorded so far.
+     */
+    public long getFlips () {
+
+	return flips;
+
+    } // getFlips ()
+    // =========================================================================
+
+
+
+    // =========================================================================
+    /**
+     * Write out whatever is buffered and close the trace file.
+     *
+     * @throws IOException if the file cannot be written.
+     */
+    public void close () throws IOException {
+
+	out.close();
+
+    } // close ()
+    // =========================================================================
+
+
+
+    // =========================================================================
+    // PRIVATE METHODS
+    // =========================================================================
+
+
+
+    // =========================================================================
+    // Write one gap as a variable-length integer.
+    private void writeGap (long gap) {
+
+	try {
+	    while ((gap & ~0x7fL) != 0) {
+		out.write((int)(gap & 0x7f) | 0x80);
+		gap >>>= 7;
+	    }
+	    out.write((int)gap);
+	} catch (IOException e) {
+	    throw new RuntimeException("Unexpected failure in writing " + path);
+	}
+
+    } // writeGap ()
+    // =========================================================================
+
+
+
+    // =========================================================================
+    // DATA MEMBERS
+
+    /** The first four bytes of every trace file, most significant first:
+     *  "NTR" and a format version. */
+    public static final int MAGIC = 0x4e545201;
+
+    /** The pathname of the trace file. */
+    private final Path         path;
+
+    /** The trace file. */
+    private final OutputStream out;
+
+    /** The number of bits delivered so far. */
+    private long               position;
+
+    /** The position just past the most recent flip. */
+    private long               next;
+
+    /** The number of flips recorded. */
+    private long               flips;
+
+    /** The number of bytes gathered before each write to the file. */
+    private static final int   BUFFER_SIZE = 1 << 16;
+    // =========================================================================
+
+
+
+// =============================================================================
+} // class TraceRecorder
+// =============================================================================
@@ -0,0 +1,216 @@
+// =============================================================================
+// IMPORTS
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+// =============================================================================
+
+
+
+// =============================================================================
+/**
+ * A bounded first-in, first-out queue of words of bits, passed from exactly
+ * one producing thread to exactly one consuming thread without locks.  Each
+ * side publishes its position with a single ordered write, and each caches
+ * the other's position so that it rarely has to read it.  A word counts as
+ * removed only once the consumer has finished with it, so an empty queue
+ * means that everything put into it has been dealt with.
+ *
+ * @file   WordQueue.java
+ * @date   October 2026
+ */
+public class WordQueue {
+// =============================================================================
+
+
+
+    // =========================================================================
+    // PUBLIC METHODS
+    // =========================================================================
+
+
+
+    // =========================================================================
+    /**
+     * A consumer of the words taken from a queue.
+     */
+    public interface Sink {
+
+	/**
+	 * Deal with one word.
+	 *
+	 * @param bits  The bits, right-aligned, the most significant of them
+	 *              first.
+	 * @param count The number of bits (1 to 64).
+	 */
+	public void accept (long bits, int count);
+
+    } // interface Sink
+    // =========================================================================
+
+
+
+    // =========================================================================
+    /**
+     * The constructor.
+     *
+     * @param capacity The number of words the queue can hold, rounded up to
+     *                 a power of two.
+     */
+    public WordQueue (int capacity) {
+
+	int size = Integer.highestOneBit(Math.max(capacity - 1, 1)) << 1;
+	this.bits   = new long[size];
+	this.counts = new byte[size];
+	this.mask   = size - 1;
+	this.head   = new AtomicLong();
+	this.tail   = new AtomicLong();
+
+    } // WordQueue ()
+    // =========================================================================
+
+
+
+    // =========================================================================
+    /**
+     * Add a word, waiting for space if the queue is full.  Only the producing
+     * thread may call this method.
+     *
+     * @param bits  The bits, right-aligned, the most significant of them
+     *              first.
+     * @param count The number of bits (1 to 64).
+     */
+    public void put (long bits, int count) {
+
+	long position = tail.get();
+	if (position - cachedHead > mask) {
+	    int idle = 0;
+	    while (position - (cachedHead = head.get()) > mask) {
+		idle = backOff(idle);
+	    }
+	}
+
+	int slot = (int)position & mask;
+	this.bits[slot]   = bits;
+	this.counts[slot] = (byte)count;
+	tail.lazySet(position + 1);
+
+    } // put ()
+    // =========================================================================
+
+
+
+    // =========================================================================
+    /**
+     * Hand the words in the queue to a sink, oldest first, and then remove
+     * them.  Only the consuming thread may call this method.  Only part of a
+     * long queue may be drained by one call.
+     *
+     * @param  sink The consumer of the words.
+     * @return the number of words handed over.
+     */
+    public int drainTo (Sink sink) {
+
+	long position = head.get();
+	if (position == cachedTail) {
+	    cachedTail = tail.get();
+	    if (position == cachedTail) {
+		return 0;
+	    }
+	}
+
+	// Take a limited batch, so that a full queue frees up some space soon.
+	long end = Math.min(cachedTail, position + BATCH);
+	for (long p = position; p < end; p += 1) {
+	    int slot = (int)p & mask;
+	    sink.accept(bits[slot], counts[slot]);
+	}
+	head.lazySet(end);
+
+	return (int)(end - position);
+
+    } // drainTo ()
+    // =========================================================================
+
+
+
+    // =========================================================================
+    /**
+     * @return whether every word put into the queue has been drained and
+     *         dealt with.  Any thread may call this method.
+     */
+    public boolean isEmpty () {
+
+	return head.get() == tail.get();
+
+    } // isEmpty ()
+    // =========================================================================
+
+
+
+    // =========================================================================
+    /**
+     * Wait a little, longer the more often it has been done in a row: first
+     * by spinning, then by yielding, then by sleeping briefly.
+     *
+     * @param  idle The number of times in a row the caller has waited.
+     * @return the count to pass next time.
+     */
+    public static int backOff (int idle) {
+
+	if (idle < SPINS) {
+	    Thread.onSpinWait();
+	} else if (idle < SPINS + YIELDS) {
+	    Thread.yield();
+	} else {
+	    LockSupport.parkNanos(PARK_NANOS);
+	}
+	return idle + 1;
+
+    } // backOff ()
+    // =========================================================================
+
+
+
+    // =========================================================================
+    // DATA MEMBERS
+
+    /** The bits of each word, by slot. */
+    private final long[]     bits;
+
+    /** The number of bits in each word, by slot. */
+    private final byte[]     counts;
+
+    /** The number of slots less one, selecting a slot from a position. */
+    private final int        mask;
+
+    /** The position of the next word to drain; advanced by the consumer. */
+    private final AtomicLong head;
+
+    /** The position of the next word to put; advanced by the producer. */
+    private final AtomicLong tail;
+
+    /** The producer's most recent reading of <code>head</code>. */
+    private long             cachedHead;
+
+    /** The consumer's most recent reading of <code>tail</code>. */
+    private long             cachedTail;
+
+    /** The most words drained before their space is given back. */
+    private static final int  BATCH      = 256;
+
+    /** The number of times to spin before yielding while waiting. */
+    private static final int  SPINS      = 100;
+
+    /** The number of times to yield before sleeping while waiting. */
+    private static final int  YIELDS     = 10;
+
+    /** How long to sleep each time while waiting, in nanoseconds. */
+    private static final long PARK_NANOS = 50000;
+    // =========================================================================
+
+
+
+// =============================================================================
+} // class WordQueue
+// =============================================================================
@@ -0,0 +1,454 @@
+// =============================================================================
+// IMPORTS
+
+import java.util.SplittableRandom;
+import java.util.function.LongSupplier;
+import java.util.zip.Checksum;
+// =============================================================================
+
+
+
+// =============================================================================
+/**
+ * The workloads measured by the benchmarks.  The simulator's classes live in
+ * the default package, which a benchmark class (needing a package of its own)
+ * cannot name, so each workload is built here and handed over as a
+ * <code>LongSupplier</code>.  Each call to the supplier performs one
+ * operation and returns a value that depends on its work, so that the work
+ * cannot be optimized away.
+ *
+ * @file   BenchmarkFixtures.java
+ * @date   October 2026
+ */
+public class BenchmarkFixtures {
+// =============================================================================
+
+
+
+    // =========================================================================
+    // PUBLIC METHODS
+    // =========================================================================
+
+
+
+    // =========================================================================
+    /**
+     * Compute the check value of a buffer, as a sender does for each frame.
+     *
+     * @param  codec <code>"Parity"</code>, a byte at a time;
+     *               <code>"ParityBulk"</code>, a buffer at a time;
+     *               <code>"LRC"</code>, the longitudinal check; either of
+     *               the last two with <code>"Scalar"</code> appended, using
+     *               the scalar kernel even where a vector one is in use; or
+     *               the name of a <code>CRCSpecification</code>.
+     * @param  size  The number of data bytes.
+     * @return an operation that encodes <code>size</code> bytes.
+     */
+    public static LongSupplier encode (String codec, int size) {
+
+	byte[] data = randomBytes(size, SEED);
+
+	if (codec.equalsIgnoreCase("Parity")) {
+	    byte[] parity = new byte[size];
+	    return () -> {
+		for (int i = 0; i < size; i += 1) {
+		    parity[i] = ParityDataLinkLayer.createParity(data[i]);
+		}
+		return parity[size - 1];
+	    };
+	}
+	ParityKernel kernel = kernel(codec);
+	if (codec.regionMatches(true, 0, "ParityBulk", 0, 10)) {
+	    byte[] pairs = new byte[2 * size];
+	    return () -> {
+		kernel.interleaveBuffer(data, 0, size, pairs, 0);
+		return pairs[2 * size - 1];
+	    };
+	}
+	if (codec.regionMatches(true, 0, "LRC", 0, 3)) {
+	    return () -> kernel.xorBuffer(data, 0, size);
+	}
+
+	Checksum checksum = CRCSpecification.forName(codec).newChecksum();
+	return () -> {
+	    checksum.reset();
+	    checksum.update(data, 0, size);
+	    return checksum.getValue();
+	};
+
+    } // encode ()
+    // =========================================================================
+
+
+
+    // =========================================================================
+    /**
+     * Check a buffer against its previously computed check value, as a
+     * receiver does for each frame.
+     *
+     * @param  codec <code>"Parity"</code>, a byte at a time;
+     *               <code>"ParityBulk"</code>, a buffer at a time;
+     *               <code>"LRC"</code>, the longitudinal check; either of
+     *               the last two with <code>"Scalar"</code> appended, using
+     *               the scalar kernel even where a vector one is in use; or
+     *               the name of a <code>CRCSpecification</code>.
+     * @param  size  The number of data bytes.
+     * @return an operation that verifies <code>size</code> bytes, returning
+     *         the number that passed.
+     */
+    public static LongSupplier verify (String codec, int size) {
+
+	byte[] data = randomBytes(size, SEED);
+
+	if (codec.equalsIgnoreCase("Parity")) {
+	    byte[] parity = new byte[size];
+	    for (int i = 0; i < size; i += 1) {
+		parity[i] = ParityDataLinkLayer.createParity(data[i]);
+	    }
+	    return () -> {
+		long passed = 0;
+		for (int i = 0; i < size; i += 1) {
+		    if (ParityDataLinkLayer.createParity(data[i]) == parity[i]) {
+			passed += 1;
+		    }
+		}
+		return passed;
+	    };
+	}
+	ParityKernel kernel = kernel(codec);
+	if (codec.regionMatches(true, 0, "ParityBulk", 0, 10)) {
+	    byte[] pairs = new byte[2 * size];
+	    ParityKernel.interleave(data, 0, size, pairs, 0);
+	    return () -> {
+		return (kernel.checkBuffer(pairs, 0, size) < 0) ? size : 0;
+	    };
+	}
+	if (codec.regionMatches(true, 0, "LRC", 0, 3)) {
+	    byte expected = ParityKernel.longitudinalCheck(data, 0, size);
+	    return () -> {
+		byte check = kernel.xorBuffer(data, 0, size);
+		return (check == expected) ? size : 0;
+	    };
+	}
+
+	Checksum checksum = CRCSpecification.forName(codec).newChecksum();
+	checksum.update(data, 0, size);
+	long expected = checksum.getValue();
+	return () -> {
+	    checksum.reset();
+	    checksum.update(data, 0, size);
+	    return (checksum.getValue() == expected) ? size : 0;
+	};
+
+    } // verify ()
+    // =========================================================================
+
+
+
+    // =========================================================================
+    /**
+     * Frame a payload with a data link layer.
+     *
+     * @param  layer The type of data link layer, e.g. <code>"CRC"</code>.
+     * @param  size  The number of payload bytes per frame.
+     * @return an operation that builds one frame, returning its length.
+     */
+    public static LongSupplier createFrame (String layer, int size) {
+
+	DataLinkLayer dataLinkLayer = link(layer, size).getDataLinkLayer();
+	byte[]        payload       = randomBytes(size, SEED);
+
+	return () -> dataLinkLayer.createFrame(payload).length;
+
+    } // createFrame ()
+    // =========================================================================
+
+
+
+    // =========================================================================
+    /**
+     * Receive and unpack a frame with a data link layer.  The frame's bytes
+     * are handed to the layer one at a time, as they arrive from the physical
+     * layer, and the extracted payload is discarded from the host.
+     *
+     * @param  layer The type of data link layer, e.g. <code>"CRC"</code>.
+     * @param  size  The number of payload bytes per frame.
+     * @return an operation that processes one frame, returning the number of
+     *         payload bytes delivered.
+     */
+    public static LongSupplier processFrame (String layer, int size) {
+
+	Host          receiver      = link(layer, size);
+	DataLinkLayer dataLinkLayer = receiver.getDataLinkLayer();
+	byte[]        frame         =
+	    dataLinkLayer.createFrame(randomBytes(size, SEED));
+
+	return () -> {
+	    for (int i = 0; i < frame.length; i += 1) {
+		dataLinkLayer.receive(frame[i]);
+	    }
+	    int delivered = receiver.available();
+	    receiver.discard(delivered);
+	    return delivered;
+	};
+
+    } // processFrame ()
+    // =========================================================================
+
+
+
+    // =========================================================================
+    /**
+     * Carry words of bits across a medium to a receiver that only counts
+     * them, so that the cost of the medium itself is measured.
+     *
+     * @param  type  The type of medium, e.g. <code>"LowNoise"</code>.
+     * @param  words The number of 64-bit words sent per operation.
+     * @return an operation that sends the words one bit at a time, returning
+     *         a digest of the bits received.
+     */
+    public static LongSupplier transmitBits (String type, int words) {
+
+	Medium        medium   = seeded(type);
+	PhysicalLayer sender   = PhysicalLayer.create(medium);
+	PhysicalLayer receiver = PhysicalLayer.create(medium);
+	SinkLayer     sink     = new SinkLayer();
+	receiver.register(sink);
+	long[]        data     = randomWords(words, SEED);
+
+	return () -> {
+	    for (int i = 0; i < words; i += 1) {
+		long word = data[i];
+		for (int b = Long.SIZE - 1; b >= 0; b -= 1) {
+		    medium.transmit(sender, ((word >>> b) & 1) != 0);
+		}
+	    }
+	    return sink.digest;
+	};
+
+    } // transmitBits ()
+    // =========================================================================
+
+
+
+    // =========================================================================
+    /**
+     * As <code>transmitBits()</code>, but handing the medium a whole word at
+     * a time, as the data link layers do.
+     *
+     * @param  type  The type of medium, e.g. <code>"LowNoise"</code>.
+     * @param  words The number of 64-bit words sent per operation.
+     * @return an operation that sends the words, returning a digest of the
+     *         bits received.
+     */
+    public static LongSupplier transmitWords (String type, int words) {
+
+	Medium        medium   = seeded(type);
+	PhysicalLayer sender   = PhysicalLayer.create(medium);
+	PhysicalLayer receiver = PhysicalLayer.create(medium);
+	SinkLayer     sink     = new SinkLayer();
+	receiver.register(sink);
+	long[]        data     = randomWords(words, SEED);
+
+	return () -> {
+	    for (int i = 0; i < words; i += 1) {
+		medium.transmit(sender, data[i], Long.SIZE);
+	    }
+	    return sink.digest;
+	};
+
+    } // transmitWords ()
+    // =========================================================================
+
+
+
+    // =========================================================================
+    /**
+     * As <code>transmitBits()</code>, but handing the medium all of the words
+     * at once as a stream.
+     *
+     * @param  type  The type of medium, e.g. <code>"LowNoise"</code>.
+     * @param  words The number of 64-bit words sent per operation.
+     * @return an operation that sends the stream, returning a digest of the
+     *         bits received.
+     */
+    public static LongSupplier transmitStream (String type, int words) {
+
+	Medium        medium   = seeded(type);
+	PhysicalLayer sender   = PhysicalLayer.create(medium);
+	PhysicalLayer receiver = PhysicalLayer.create(medium);
+	SinkLayer     sink     = new SinkLayer();
+	receiver.register(sink);
+	long[]        data     = randomWords(words, SEED);
+	BitStream     stream   = new BitStream(words * Long.SIZE);
+	for (int i = 0; i < words; i += 1) {
+	    stream.append(data[i], Long.SIZE);
+	}
+
+	return () -> {
+	    medium.transmit(sender, stream);
+	    return sink.digest;
+	};
+
+    } // transmitStream ()
+    // =========================================================================
+
+
+
+    // =========================================================================
+    /**
+     * Send a payload from one host to another over the given medium, and
+     * retrieve at the far end whatever arrives intact.  The receiver drops
+     * only damaged frames and goes on, so that every operation over a noisy
+     * medium still checks and delivers frames, rather than discarding all
+     * that follow the first error.  Neither host reports the errors it finds,
+     * since ARQ senders parse damaged acknowledgments too.
+     *
+     * @param  layer  The type of data link layer, e.g. <code>"CRC"</code>.
+     * @param  medium The type of medium, e.g. <code>"GilbertElliott"</code>.
+     * @param  size   The number of payload bytes sent per operation.
+     * @return an operation that performs one transfer, returning the number
+     *         of bytes retrieved.
+     */
+    public static LongSupplier transfer (String layer, String medium,
+					 int size) {
+
+	Medium link     = seeded(medium);
+	Host   sender   = new Host(link, layer);
+	Host   receiver = new Host(link, layer);
+	byte[] payload  = randomBytes(size, SEED);
+	sender.getDataLinkLayer().setVerbose(false);
+	receiver.getDataLinkLayer().setVerbose(false);
+	receiver.getDataLinkLayer().setResynchronizing(true);
+
+	return () -> {
+	    sender.send(payload);
+	    return receiver.retrieve().length;
+	};
+
+    } // transfer ()
+    // =========================================================================
+
+
+
+    // =========================================================================
+    // PRIVATE METHODS
+    // =========================================================================
+
+
+
+    // =========================================================================
+    // Pick the parity kernel that a codec names: the scalar one if its name
+    // ends so, and otherwise the one that ParityKernel chose for this JVM.
+    private static ParityKernel kernel (String codec) {
+
+	boolean scalar = codec.regionMatches(true, codec.length() - 6, "Scalar", 0, 6);
+	return ParityKernel.load(scalar ? "scalar" : ParityKernel.implementation());
+
+    } // kernel ()
+    // =========================================================================
+
+
+
+    // =========================================================================
+    // Make a host whose layer carries frames of the given payload size.  The
+    // host sits on a perfect medium, but nothing is sent through it.
+    private static Host link (String layer, int size) {
+
+	Host host = new Host(Medium.create("Perfect"), layer);
+	host.getDataLinkLayer().setMaxFrameSize(size);
+	return host;
+
+    } // link ()
+    // =========================================================================
+
+
+
+    // =========================================================================
+    // Make a medium of the given type, seeded so that every run sees the same
+    // errors.
+    private static Medium seeded (String type) {
+
+	Medium medium = Medium.create(type);
+	medium.setSeed(SEED);
+	return medium;
+
+    } // seeded ()
+    // =========================================================================
+
+
+
+    // =========================================================================
+    private static byte[] randomBytes (int size, long seed) {
+
+	byte[] data = new byte[size];
+	new SplittableRandom(seed).nextBytes(data);
+	return data;
+
+    } // randomBytes ()
+    // =========================================================================
+
+
+
+    // =========================================================================
+    private static long[] randomWords (int size, long seed) {
+
+	SplittableRandom random = new SplittableRandom(seed);
+	long[]           data   = new long[size];
+	for (int i = 0; i < size; i += 1) {
+	    data[i] = random.nextLong();
+	}
+	return data;
+
+    } // randomWords ()
+    // =========================================================================
+
+
+
+    // =========================================================================
+    /**
+     * A data link layer that does nothing with what it receives but fold it
+     * into a digest.
+     */
+    private static class SinkLayer extends DataLinkLayer {
+
+	public void receive (boolean bit) {
+	    digest = (digest << 1) ^ (bit ? 1 : 0);
+	}
+
+	public void receive (long bits, int count) {
+	    digest = Long.rotateLeft(digest, count) ^ bits;
+	}
+
+	public void receive (BitStream stream) {
+	    digest = Long.rotateLeft(digest, 1) ^ stream.bitCount();
+	}
+
+	protected byte[] createFrame (byte[] data) {
+	    return data;
+	}
+
+	protected byte[] processFrame () {
+	    return null;
+	}
+
+	/** A value depending on every bit received. */
+	private long digest;
+
+    } // class SinkLayer
+    // =========================================================================
+
+
+
+    // =========================================================================
+    // DATA MEMBERS
+
+    /** The seed for all generated data and all noisy media. */
+    private static final long SEED = 0x5eedL;
+    // =========================================================================
+
+
+
+// =============================================================================
+} // class BenchmarkFixtures
+// =============================================================================
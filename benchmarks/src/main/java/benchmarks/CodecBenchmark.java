@@ -0,0 +1,115 @@
+// =============================================================================
+// PACKAGE
+
+package benchmarks;
+// =============================================================================
+
+
+
+// =============================================================================
+// IMPORTS
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+// =============================================================================
+
+
+
+// =============================================================================
+/**
+ * The cost per data byte of computing and of checking the error detection
+ * codes, apart from any framing.
+ *
+ * @file   CodecBenchmark.java
+ * @date   October 2026
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "--add-modules=jdk.incubator.vector")
+@State(Scope.Thread)
+public class CodecBenchmark {
+// =============================================================================
+
+
+
+    // =========================================================================
+    @Setup
+    public void setup () {
+
+	encode = Fixtures.get("encode", codec, BYTES);
+	verify = Fixtures.get("verify", codec, BYTES);
+
+    } // setup ()
+    // =========================================================================
+
+
+
+    // =========================================================================
+    /**
+     * @return a value depending on the check values computed.
+     */
+    @Benchmark
+    @OperationsPerInvocation(BYTES)
+    public long encode () {
+
+	return encode.getAsLong();
+
+    } // encode ()
+    // =========================================================================
+
+
+
+    // =========================================================================
+    /**
+     * @return the number of bytes that passed.
+     */
+    @Benchmark
+    @OperationsPerInvocation(BYTES)
+    public long verify () {
+
+	return verify.getAsLong();
+
+    } // verify ()
+    // =========================================================================
+
+
+
+    // =========================================================================
+    // DATA MEMBERS
+
+    /** The code to measure: parity a byte or a buffer at a time, the
+     *  longitudinal check, each of the last two also with the scalar kernel,
+     *  or a CRC specification by name. */
+    @Param({ "Parity", "ParityBulk", "ParityBulkScalar", "LRC", "LRCScalar", "CRC-4",
+	     "CRC-8", "CRC-16", "CRC-32", "CRC-32C", "CRC-64" })
+    public String codec;
+
+    /** The number of data bytes in each operation. */
+    private static final int BYTES = 4096;
+
+    /** The encoding workload. */
+    private LongSupplier encode;
+
+    /** The verifying workload. */
+    private LongSupplier verify;
+    // =========================================================================
+
+
+
+// =============================================================================
+} // class CodecBenchmark
+// =============================================================================
@@ -0,0 +1,105 @@
+// =============================================================================
+// PACKAGE
+
+package benchmarks;
+// =============================================================================
+
+
+
+// =============================================================================
+// IMPORTS
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.function.LongSupplier;
+// =============================================================================
+
+
+
+// =============================================================================
+/**
+ * Access to the workloads in <code>BenchmarkFixtures</code>.  That class is in
+ * the default package, alongside the simulator, and so can only be reached by
+ * name.  The lookup happens once, during setup, so it costs nothing in the
+ * measured loop.
+ *
+ * @file   Fixtures.java
+ * @date   October 2026
+ */
+final class Fixtures {
+// =============================================================================
+
+
+
+    // =========================================================================
+    /**
+     * Build a workload.
+     *
+     * @param  name The name of the <code>BenchmarkFixtures</code> method.
+     * @param  type The type of codec, layer, or medium to measure.
+     * @param  size The size of the workload.
+     * @return the workload, one operation per call.
+     * @throws RuntimeException if the workload cannot be built.
+     */
+    static LongSupplier get (String name, String type, int size) {
+
+	try {
+	    Class<?> fixtures = Class.forName("BenchmarkFixtures");
+	    Method   method   = fixtures.getMethod(name, String.class, int.class);
+	    return (LongSupplier)method.invoke(null, type, size);
+	} catch (ClassNotFoundException | NoSuchMethodException |
+		 IllegalAccessException e) {
+	    throw new RuntimeException("No benchmark fixture " + name, e);
+	} catch (InvocationTargetException e) {
+	    throw new RuntimeException("Could not build fixture " + name,
+				       e.getCause());
+	}
+
+    } // get ()
+    // =========================================================================
+
+
+
+    // =========================================================================
+    /**
+     * Build a workload that runs over a given medium.
+     *
+     * @param  name   The name of the <code>BenchmarkFixtures</code> method.
+     * @param  type   The type of codec or layer to measure.
+     * @param  medium The type of medium.
+     * @param  size   The size of the workload.
+     * @return the workload, one operation per call.
+     * @throws RuntimeException if the workload cannot be built.
+     */
+    static LongSupplier get (String name, String type, String medium,
+			     int size) {
+
+	try {
+	    Class<?> fixtures = Class.forName("BenchmarkFixtures");
+	    Method   method   = fixtures.getMethod(name, String.class,
+						   String.class, int.class);
+	    return (LongSupplier)method.invoke(null, type, medium, size);
+	} catch (ClassNotFoundException | NoSuchMethodException |
+		 IllegalAccessException e) {
+	    throw new RuntimeException("No benchmark fixture " + name, e);
+	} catch (InvocationTargetException e) {
+	    throw new RuntimeException("Could not build fixture " + name,
+				       e.getCause());
+	}
+
+    } // get ()
+    // =========================================================================
+
+
+
+    // =========================================================================
+    private Fixtures () {
+
+    } // Fixtures ()
+    // =========================================================================
+
+
+
+// =============================================================================
+} // class Fixtures
+// =============================================================================
@@ -0,0 +1,134 @@
+// =============================================================================
+// PACKAGE
+
+package benchmarks;
+// =============================================================================
+
+
+
+// =============================================================================
+// IMPORTS
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+// =============================================================================
+
+
+
+// =============================================================================
+/**
+ * The throughput of <code>createFrame()</code> and
+ * <code>processFrame()</code> in each data link layer, at several frame sizes.
+ * The score is frames per second; the <code>bytes</code> counter gives the
+ * corresponding payload bytes per second.
+ *
+ * @file   FrameBenchmark.java
+ * @date   October 2026
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class FrameBenchmark {
+// =============================================================================
+
+
+
+    // =========================================================================
+    /**
+     * Payload bytes handled, reported per second alongside the frame rate.
+     */
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    @State(Scope.Thread)
+    public static class Payload {
+
+	/** The number of payload bytes framed or unframed. */
+	public long bytes;
+
+    } // class Payload
+    // =========================================================================
+
+
+
+    // =========================================================================
+    @Setup
+    public void setup () {
+
+	createFrame  = Fixtures.get("createFrame",  layer, frameSize);
+	processFrame = Fixtures.get("processFrame", layer, frameSize);
+
+    } // setup ()
+    // =========================================================================
+
+
+
+    // =========================================================================
+    /**
+     * @param  payload The payload counter.
+     * @return the length of the frame built.
+     */
+    @Benchmark
+    public long createFrame (Payload payload) {
+
+	payload.bytes += frameSize;
+	return createFrame.getAsLong();
+
+    } // createFrame ()
+    // =========================================================================
+
+
+
+    // =========================================================================
+    /**
+     * @param  payload The payload counter.
+     * @return the number of payload bytes delivered.
+     */
+    @Benchmark
+    public long processFrame (Payload payload) {
+
+	long delivered = processFrame.getAsLong();
+	payload.bytes += delivered;
+	return delivered;
+
+    } // processFrame ()
+    // =========================================================================
+
+
+
+    // =========================================================================
+    // DATA MEMBERS
+
+    /** The data link layer to measure. */
+    @Param({ "Parity", "Parity2", "CRC", "Hamming", "ReedSolomon" })
+    public String layer;
+
+    /** The number of payload bytes in each frame. */
+    @Param({ "8", "64", "512", "4096" })
+    public int    frameSize;
+
+    /** The framing workload. */
+    private LongSupplier createFrame;
+
+    /** The unframing workload. */
+    private LongSupplier processFrame;
+    // =========================================================================
+
+
+
+// =============================================================================
+} // class FrameBenchmark
+// =============================================================================
@@ -0,0 +1,132 @@
+// =============================================================================
+// PACKAGE
+
+package benchmarks;
+// =============================================================================
+
+
+
+// =============================================================================
+// IMPORTS
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+// =============================================================================
+
+
+
+// =============================================================================
+/**
+ * The cost per bit of <code>Medium.transmit()</code> for each medium, with one
+ * receiver that does no work of its own.  Bits are handed over one at a time,
+ * a 64-bit word at a time, or all at once as a stream.
+ *
+ * @file   MediumBenchmark.java
+ * @date   October 2026
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class MediumBenchmark {
+// =============================================================================
+
+
+
+    // =========================================================================
+    @Setup
+    public void setup () {
+
+	bits   = Fixtures.get("transmitBits",   medium, WORDS);
+	words  = Fixtures.get("transmitWords",  medium, WORDS);
+	stream = Fixtures.get("transmitStream", medium, WORDS);
+
+    } // setup ()
+    // =========================================================================
+
+
+
+    // =========================================================================
+    /**
+     * @return a digest of the bits received.
+     */
+    @Benchmark
+    @OperationsPerInvocation(WORDS * Long.SIZE)
+    public long bit () {
+
+	return bits.getAsLong();
+
+    } // bit ()
+    // =========================================================================
+
+
+
+    // =========================================================================
+    /**
+     * @return a digest of the bits received.
+     */
+    @Benchmark
+    @OperationsPerInvocation(WORDS * Long.SIZE)
+    public long word () {
+
+	return words.getAsLong();
+
+    } // word ()
+    // =========================================================================
+
+
+
+    // =========================================================================
+    /**
+     * @return a digest of the bits received.
+     */
+    @Benchmark
+    @OperationsPerInvocation(WORDS * Long.SIZE)
+    public long stream () {
+
+	return stream.getAsLong();
+
+    } // stream ()
+    // =========================================================================
+
+
+
+    // =========================================================================
+    // DATA MEMBERS
+
+    /** The medium to measure. */
+    @Param({ "Perfect", "LowNoise", "GilbertElliott" })
+    public String medium;
+
+    /** The number of 64-bit words sent in each operation. */
+    private static final int WORDS = 1024;
+
+    /** The bit-at-a-time workload. */
+    private LongSupplier bits;
+
+    /** The word-at-a-time workload. */
+    private LongSupplier words;
+
+    /** The whole-stream workload. */
+    private LongSupplier stream;
+    // =========================================================================
+
+
+
+// =============================================================================
+} // class MediumBenchmark
+// =============================================================================
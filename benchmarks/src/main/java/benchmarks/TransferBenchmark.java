@@ -0,0 +1,100 @@
+// =============================================================================
+// PACKAGE
+
+package benchmarks;
+// =============================================================================
+
+
+
+// =============================================================================
+// IMPORTS
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+// =============================================================================
+
+
+
+// =============================================================================
+/**
+ * End-to-end throughput from <code>Host.send()</code> to
+ * <code>Host.retrieve()</code>, over a perfect medium and over a noisy one, on
+ * which the correcting layers must repair frames and the others drop them.
+ * The score is payload bits sent per second.
+ *
+ * @file   TransferBenchmark.java
+ * @date   October 2026
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class TransferBenchmark {
+// =============================================================================
+
+
+
+    // =========================================================================
+    @Setup
+    public void setup () {
+
+	transfer = Fixtures.get("transfer", layer, medium, BYTES);
+
+    } // setup ()
+    // =========================================================================
+
+
+
+    // =========================================================================
+    /**
+     * @return the number of bytes retrieved.
+     */
+    @Benchmark
+    @OperationsPerInvocation(BYTES * Byte.SIZE)
+    public long transfer () {
+
+	return transfer.getAsLong();
+
+    } // transfer ()
+    // =========================================================================
+
+
+
+    // =========================================================================
+    // DATA MEMBERS
+
+    /** The data link layer to measure. */
+    @Param({ "Parity", "Parity2", "CRC", "Hamming", "ReedSolomon", "GoBackN",
+	     "SelectiveRepeat" })
+    public String layer;
+
+    /** The medium over which to send. */
+    @Param({ "Perfect", "GilbertElliott" })
+    public String medium;
+
+    /** The number of payload bytes sent in each operation. */
+    private static final int BYTES = 1 << 20;
+
+    /** The transfer workload. */
+    private LongSupplier transfer;
+    // =========================================================================
+
+
+
+// =============================================================================
+} // class TransferBenchmark
+// =============================================================================
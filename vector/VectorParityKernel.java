@@ -0,0 +1,200 @@
+// =============================================================================
+// IMPORTS
+
+import java.nio.ByteOrder;
+import jdk.incubator.vector.ByteVector;
+import jdk.incubator.vector.ShortVector;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+// =============================================================================
+
+
+
+// =============================================================================
+/**
+ * The parity kernel for JVMs that offer the incubating Vector API, which works
+ * on as many bytes at a time as the processor's vector registers hold: 16 with
+ * SSE or NEON, 32 with AVX2, 64 with AVX-512.  Short tails, and the search for
+ * a failed pair once some vector holds one, are left to the scalar code.
+ *
+ * <code>ParityKernel</code> loads this class by name when the module is
+ * present, so it must be compiled and run with the module added:
+ *
+ *   javac --add-modules jdk.incubator.vector -d . vector/VectorParityKernel.java
+ *   java --add-modules jdk.incubator.vector Simulator ...
+ *
+ * @file   VectorParityKernel.java
+ * @date   October 2026
+ */
+public class VectorParityKernel extends ParityKernel {
+// =============================================================================
+
+
+
+    // =========================================================================
+    // PROTECTED METHODS
+    // =========================================================================
+
+
+
+    // =========================================================================
+    /**
+     * @return the name of this kernel.
+     */
+    protected String name () {
+
+	return "vector";
+
+    } // name ()
+    // =========================================================================
+
+
+
+    // =========================================================================
+    /**
+     * Do the work of <code>interleave()</code> a vector at a time: fold each
+     * byte onto its parity, then widen the data and the parities into the
+     * low and high bytes of half-words.
+     */
+    protected void interleaveBuffer (byte[] source, int offset, int length,
+				     byte[] destination, int outputOffset) {
+
+	int i   = 0;
+	int out = outputOffset;
+	for (int end = BYTES.loopBound(length); i < end; i += BYTES.length()) {
+	    ByteVector data   = ByteVector.fromArray(BYTES, source, offset + i);
+	    ByteVector parity = fold(data);
+	    for (int part = 0; part < 2; part += 1) {
+		ShortVector low  = (ShortVector)data.convertShape(VectorOperators.B2S,
+								  SHORTS, part);
+		ShortVector high = (ShortVector)parity.convertShape(VectorOperators.B2S,
+								    SHORTS, part);
+		low.and((short)0xff)
+		    .or(high.lanewise(VectorOperators.LSHL, Byte.SIZE))
+		    .intoByteArray(destination, out, ByteOrder.LITTLE_ENDIAN);
+		out += 2 * SHORTS.length();
+	    }
+	}
+	super.interleaveBuffer(source, offset + i, length - i, destination, out);
+
+    } // interleaveBuffer ()
+    // =========================================================================
+
+
+
+    // =========================================================================
+    /**
+     * Do the work of <code>checkInterleaved()</code> a vector of pairs at a
+     * time, without stopping, then search again only if some pair failed.
+     */
+    protected int checkBuffer (byte[] source, int offset, int pairs) {
+
+	int         vectors    = pairs / SHORTS.length();
+	int         stride     = 2 * SHORTS.length();
+	ShortVector mismatches = ShortVector.zero(SHORTS);
+	for (int v = 0; v < vectors; v += 1) {
+	    mismatches = mismatches.or(mismatches(source, offset + v * stride));
+	}
+	if (mismatches.reduceLanes(VectorOperators.OR) != 0) {
+	    for (int v = 0; v < vectors; v += 1) {
+		int lane = mismatches(source, offset + v * stride)
+		    .compare(VectorOperators.NE, 0).firstTrue();
+		if (lane < SHORTS.length()) {
+		    return v * SHORTS.length() + lane;
+		}
+	    }
+	}
+	int done = vectors * SHORTS.length();
+	int bad  = super.checkBuffer(source, offset + 2 * done, pairs - done);
+	return (bad < 0) ? -1 : done + bad;
+
+    } // checkBuffer ()
+    // =========================================================================
+
+
+
+    // =========================================================================
+    /**
+     * Do the work of <code>longitudinalCheck()</code> a vector at a time,
+     * combining the lanes only at the end.
+     */
+    protected byte xorBuffer (byte[] source, int offset, int length) {
+
+	ByteVector sum = ByteVector.zero(BYTES);
+	int        i   = 0;
+	for (int end = BYTES.loopBound(length); i < end; i += BYTES.length()) {
+	    sum = sum.lanewise(VectorOperators.XOR,
+			       ByteVector.fromArray(BYTES, source, offset + i));
+	}
+	return (byte)(sum.reduceLanes(VectorOperators.XOR) ^
+		      super.xorBuffer(source, offset + i, length - i));
+
+    } // xorBuffer ()
+    // =========================================================================
+
+
+
+    // =========================================================================
+    // PRIVATE METHODS
+    // =========================================================================
+
+
+
+    // =========================================================================
+    // Fold every byte of a vector onto its lowest bit, leaving there the
+    // byte's parity.  Shifts within byte lanes are unsigned.
+    private static ByteVector fold (ByteVector data) {
+
+	data = data.lanewise(VectorOperators.XOR,
+			     data.lanewise(VectorOperators.LSHR, 4));
+	data = data.lanewise(VectorOperators.XOR,
+			     data.lanewise(VectorOperators.LSHR, 2));
+	data = data.lanewise(VectorOperators.XOR,
+			     data.lanewise(VectorOperators.LSHR, 1));
+	return data.and((byte)1);
+
+    } // fold ()
+    // =========================================================================
+
+
+
+    // =========================================================================
+    // Load a vector of pairs, each a little-endian half-word with the data byte
+    // below and its parity byte above, and leave non-zero the lanes of those
+    // whose parity byte is not that of their data byte.
+    private static ShortVector mismatches (byte[] source, int offset) {
+
+	ShortVector pairs = ShortVector.fromByteArray(SHORTS, source, offset,
+						      ByteOrder.LITTLE_ENDIAN);
+	ShortVector data  = pairs.and((short)0xff);
+	data = data.lanewise(VectorOperators.XOR,
+			     data.lanewise(VectorOperators.LSHR, 4));
+	data = data.lanewise(VectorOperators.XOR,
+			     data.lanewise(VectorOperators.LSHR, 2));
+	data = data.lanewise(VectorOperators.XOR,
+			     data.lanewise(VectorOperators.LSHR, 1));
+	return data.and((short)1)
+	    .lanewise(VectorOperators.XOR,
+		      pairs.lanewise(VectorOperators.LSHR, Byte.SIZE));
+
+    } // mismatches ()
+    // =========================================================================
+
+
+
+    // =========================================================================
+    // DATA MEMBERS
+
+    /** The widest vector of bytes that the processor handles well. */
+    private static final VectorSpecies<Byte>  BYTES  = ByteVector.SPECIES_PREFERRED;
+
+    /** The vector of half-words that holds the pairs for half of those bytes. */
+    private static final VectorSpecies<Short> SHORTS =
+	VectorSpecies.of(short.class, BYTES.vectorShape());
+    // =========================================================================
+
+
+
+// =============================================================================
+} // class VectorParityKernel
+// =============================================================================